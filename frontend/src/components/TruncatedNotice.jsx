@@ -0,0 +1,13 @@
+// Shown when the server cut an unpaged roster list at its row limit, so totals on the page are incomplete
+function TruncatedNotice({ show }) {
+  if (!show) return null;
+
+  return (
+    <div className="mb-4 p-3 rounded-lg border border-yellow-300 bg-yellow-50 text-yellow-800 text-sm">
+      Only the first part of this roster was loaded because it is larger than the server's list limit.
+      Counts and lists on this page may be incomplete.
+    </div>
+  );
+}
+
+export default TruncatedNotice;
@@ -1,5 +1,6 @@
 import { useEffect, useState } from "react";
-import { adultTeacherApi, adultStudentApi } from "../services/api";
+import { adultTeacherApi, adultStudentApi, syncRosterList } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function AdultClasses() {
   const [teachers, setTeachers] = useState([]);
@@ -11,6 +12,7 @@ function AdultClasses() {
   const [isNewTeacher, setIsNewTeacher] = useState(true);
 
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [formStudent, setFormStudent] = useState({
     studentId: "",
     name: "",
@@ -32,6 +34,11 @@ function AdultClasses() {
     loadAllStudents();
   }, []);
 
+  // Apply roster changes made on other screens (live roster feed) without reloading the list
+  useEffect(() => {
+    return syncRosterList({ roster: "ADULT_STUDENTS" }, adultStudentApi.getStudentById, setStudents, loadAllStudents);
+  }, []);
+
   const loadTeachers = async () => {
     setLoading(true);
     try {
@@ -50,6 +57,7 @@ function AdultClasses() {
     try {
       const data = await adultStudentApi.getAllStudents();
       setStudents(data);
+      setTruncated(data.truncated);
     } catch (error) {
       console.error("Failed to load adult students:", error);
       setStudents([]);
@@ -509,6 +517,7 @@ function AdultClasses() {
   return (
     <div className="pt-10 pb-10 px-4 md:px-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Adult Classes</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Teacher registration/update form */}
       {(!currentTeacher || editingTeacherId) && (
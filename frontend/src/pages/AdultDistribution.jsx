@@ -1,14 +1,18 @@
 import { useEffect, useState } from "react";
-import { adultTeacherApi, adultStudentApi } from "../services/api";
+import { adultTeacherApi, adultStudentApi, distributionApi } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function AdultDistribution() {
   const [teachers, setTeachers] = useState([]);
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [selectedTeacher, setSelectedTeacher] = useState(null);
   const [distributionType, setDistributionType] = useState("food_hamper"); // food_hamper or shoes
   const [studentSearch, setStudentSearch] = useState("");
   const [loading, setLoading] = useState(false);
   const [distributions, setDistributions] = useState({});
+  const [campaigns, setCampaigns] = useState({}); // distributionType -> server campaign
+  const [counts, setCounts] = useState({}); // distributionType -> server counts (total, received, pending, byTeacher)
   const [isGeneratingPDF, setIsGeneratingPDF] = useState(false);
 
   useEffect(() => {
@@ -34,22 +38,56 @@ function AdultDistribution() {
     try {
       const data = await adultStudentApi.getAllStudents();
       setStudents(data);
+      setTruncated(data.truncated);
     } catch (error) {
       console.error("Failed to load adult students:", error);
       setStudents([]);
     }
   };
 
-  const loadDistributions = () => {
-    const saved = localStorage.getItem('adultDistributions');
-    if (saved) {
-      setDistributions(JSON.parse(saved));
+  const loadDistributions = async () => {
+    // Load the current food hamper and shoes campaigns from the server
+    try {
+      const loadedCampaigns = {};
+      for (const type of ["food_hamper", "shoes"]) {
+        const name = `Adult ${type === "food_hamper" ? "Food Hamper" : "Shoes"}`;
+        loadedCampaigns[type] = await distributionApi.getCurrentCampaign("ADULT_STUDENTS", type, name);
+      }
+      // Ticks saved in this browser before distributions were kept on the server
+      await distributionApi.uploadLocalRecords("adultDistributions", loadedCampaigns);
+
+      const loaded = {};
+      for (const type of ["food_hamper", "shoes"]) {
+        const records = await distributionApi.getRecords(loadedCampaigns[type].id);
+        records.forEach((record) => {
+          loaded[`${record.studentRowId}_${type}`] = {
+            studentId: record.studentRowId,
+            distributionType: type,
+            distributedAt: record.distributedAt,
+            distributedBy: record.distributedBy,
+          };
+        });
+      }
+      setCampaigns(loadedCampaigns);
+      setDistributions(loaded);
+      loadCounts(loadedCampaigns);
+    } catch (error) {
+      console.error("Failed to load distributions:", error);
+      alert("Failed to load distribution records from server.");
     }
   };
 
-  const saveDistributions = (newDistributions) => {
-    localStorage.setItem('adultDistributions', JSON.stringify(newDistributions));
-    setDistributions(newDistributions);
+  // Summary card figures, counted by the server
+  const loadCounts = async (currentCampaigns) => {
+    try {
+      const loaded = {};
+      for (const type of Object.keys(currentCampaigns)) {
+        loaded[type] = await distributionApi.getCounts(currentCampaigns[type].id);
+      }
+      setCounts(loaded);
+    } catch (error) {
+      console.error("Failed to load distribution counts:", error);
+    }
   };
 
   // Filter students by selected teacher
@@ -70,9 +108,12 @@ function AdultDistribution() {
   );
 
   // Toggle distribution (tick/untick)
-  const handleToggleDistribution = (studentId) => {
+  const handleToggleDistribution = async (studentId) => {
     const key = `${studentId}_${distributionType}`;
+    const campaign = campaigns[distributionType];
+    if (!campaign) return;
     const newDistributions = { ...distributions };
+    const wasReceived = !!newDistributions[key];
 
     if (newDistributions[key]) {
       delete newDistributions[key];
@@ -85,7 +126,19 @@ function AdultDistribution() {
       };
     }
 
-    saveDistributions(newDistributions);
+    // Update the screen straight away, then save; roll back if the server refuses
+    setDistributions(newDistributions);
+    try {
+      if (wasReceived) {
+        await distributionApi.unmarkReceived(campaign.id, studentId);
+      } else {
+        await distributionApi.markReceived(campaign.id, studentId, selectedTeacher?.name || "Admin");
+      }
+      loadCounts(campaigns);
+    } catch (error) {
+      setDistributions(distributions);
+      alert("Failed to save distribution. Please try again.");
+    }
   };
 
   const hasReceived = (studentId) => {
@@ -98,30 +151,55 @@ function AdultDistribution() {
     return distributions[key];
   };
 
-  // Count for current teacher view
+  // Ticked learners in the list shown (what Clear All removes)
   const receivedCount = sortedStudents.filter(s => hasReceived(s.id)).length;
 
-  // Global statistics - ALL adult students
-  const globalReceivedCount = students.filter(s => hasReceived(s.id)).length;
-  const globalPendingCount = students.length - globalReceivedCount;
-  const globalCompletionRate = students.length > 0
-    ? Math.round((globalReceivedCount / students.length) * 100)
+  // Global statistics - ALL adult students (counted by the server)
+  const globalCounts = counts[distributionType] || { total: 0, received: 0, pending: 0, byTeacher: {} };
+  const globalCompletionRate = globalCounts.total > 0
+    ? Math.round((globalCounts.received / globalCounts.total) * 100)
     : 0;
 
-  const handleClearAll = () => {
+  // Per-teacher figures, keyed by upper-cased name: the server matches teacher names ignoring case
+  const countsByTeacher = {};
+  Object.values(globalCounts.byTeacher || {}).forEach((c) => {
+    countsByTeacher[(c.ustadh || "").toUpperCase()] = c;
+  });
+  const teacherCounts = (selectedTeacher && countsByTeacher[selectedTeacher.name.toUpperCase()])
+    || { total: 0, received: 0, pending: 0 };
+
+  const handleClearAll = async () => {
     if (!window.confirm(
       `Clear all ${distributionType === 'food_hamper' ? 'Food Hamper' : 'Shoes'} distributions for ${selectedTeacher?.name || 'all students'}?\n\n` +
       `This will remove ${receivedCount} distribution records.\n` +
       `This action cannot be undone.`
     )) return;
 
+    const campaign = campaigns[distributionType];
+    if (!campaign) return;
+
+    try {
+      if (selectedTeacher && !studentSearch) {
+        await distributionApi.clearTeacher(campaign.id, selectedTeacher.name);
+      } else {
+        // Search is narrowing the list: clear only the students shown
+        await Promise.all(sortedStudents
+          .filter(student => hasReceived(student.id))
+          .map(student => distributionApi.unmarkReceived(campaign.id, student.id)));
+      }
+    } catch (error) {
+      alert("Failed to clear distribution records. Please try again.");
+      return;
+    }
+
     const newDistributions = { ...distributions };
     sortedStudents.forEach(student => {
       const key = `${student.id}_${distributionType}`;
       delete newDistributions[key];
     });
 
-    saveDistributions(newDistributions);
+    setDistributions(newDistributions);
+    loadCounts(campaigns);
     alert("Distribution records cleared successfully!");
   };
 
@@ -282,6 +360,7 @@ function AdultDistribution() {
   return (
     <div className="pt-10 pb-10 px-4 md:px-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Adult Distribution Tracking</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Global Statistics Banner */}
       <div className="bg-gradient-to-r from-purple-600 to-pink-600 text-white rounded-xl shadow-lg p-4 md:p-6 mb-6">
@@ -290,15 +369,15 @@ function AdultDistribution() {
         </h2>
         <div className="grid grid-cols-2 md:grid-cols-4 gap-3 md:gap-4">
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold">{students.length}</div>
+            <div className="text-2xl md:text-3xl font-bold">{globalCounts.total}</div>
             <div className="text-xs md:text-sm opacity-90">Total Learners</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold text-green-200">{globalReceivedCount}</div>
+            <div className="text-2xl md:text-3xl font-bold text-green-200">{globalCounts.received}</div>
             <div className="text-xs md:text-sm opacity-90">Received</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold text-orange-200">{globalPendingCount}</div>
+            <div className="text-2xl md:text-3xl font-bold text-orange-200">{globalCounts.pending}</div>
             <div className="text-xs md:text-sm opacity-90">Pending</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
@@ -322,7 +401,7 @@ function AdultDistribution() {
             ) : (
               <>
                 {teachers.map((t) => {
-                  const studentCount = students.filter(s => s.ustadh === t.name).length;
+                  const studentCount = countsByTeacher[t.name.toUpperCase()]?.total || 0;
                   const isSelected = selectedTeacher?.id === t.id;
 
                   return (
@@ -417,7 +496,7 @@ function AdultDistribution() {
                 {selectedTeacher.name}'s Learners - {distributionType === 'food_hamper' ? 'Food Hampers' : 'Shoes'}
               </h2>
               <p className="text-sm text-gray-600">
-                {receivedCount} of {teacherStudents.length} learners received
+                {teacherCounts.received} of {teacherCounts.total} learners received
               </p>
             </div>
 
@@ -603,20 +682,20 @@ function AdultDistribution() {
             <div className="mt-6 p-4 bg-gradient-to-r from-purple-50 to-pink-50 rounded-lg border border-purple-200">
               <div className="grid grid-cols-2 md:grid-cols-4 gap-4 text-center">
                 <div>
-                  <div className="text-2xl font-bold text-purple-700">{teacherStudents.length}</div>
+                  <div className="text-2xl font-bold text-purple-700">{teacherCounts.total}</div>
                   <div className="text-xs text-gray-600">Total Learners</div>
                 </div>
                 <div>
-                  <div className="text-2xl font-bold text-green-700">{receivedCount}</div>
+                  <div className="text-2xl font-bold text-green-700">{teacherCounts.received}</div>
                   <div className="text-xs text-gray-600">Received</div>
                 </div>
                 <div>
-                  <div className="text-2xl font-bold text-orange-700">{teacherStudents.length - receivedCount}</div>
+                  <div className="text-2xl font-bold text-orange-700">{teacherCounts.pending}</div>
                   <div className="text-xs text-gray-600">Pending</div>
                 </div>
                 <div>
                   <div className="text-2xl font-bold text-pink-700">
-                    {teacherStudents.length > 0 ? Math.round((receivedCount / teacherStudents.length) * 100) : 0}%
+                    {teacherCounts.total > 0 ? Math.round((teacherCounts.received / teacherCounts.total) * 100) : 0}%
                   </div>
                   <div className="text-xs text-gray-600">Completion</div>
                 </div>
@@ -1,8 +1,10 @@
 import { useEffect, useState } from "react";
 import { adultStudentApi } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function AdultSummary() {
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [search, setSearch] = useState("");
   const [loading, setLoading] = useState(true);
   const [selectedTeacher, setSelectedTeacher] = useState("All Learners"); // New state for filter
@@ -14,6 +16,7 @@ function AdultSummary() {
       try {
         const data = await adultStudentApi.getAllStudents();
         setStudents(data);
+        setTruncated(data.truncated);
       } catch (error) {
         console.error("Failed to load adult students:", error);
         alert("Failed to load adult students from server.");
@@ -58,6 +61,7 @@ function AdultSummary() {
   return (
     <div className="pt-10 pb-10 px-4 md:px-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Adult Classes Summary</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Search + Teacher Filter */}
       <div className="grid grid-cols-1 sm:grid-cols-2 gap-4 mb-4 md:mb-6">
@@ -1,5 +1,5 @@
 import { useEffect, useState } from "react";
-import { ustaadApi, studentApi, adultStudentApi, menStudentApi, excludedStudentApi } from "../services/api";
+import { dashboardApi } from "../services/api";
 import { FaUserGraduate, FaChalkboardTeacher, FaUsers, FaUserFriends, FaUserMinus } from "react-icons/fa";
 
 function Dashboard() {
@@ -15,50 +15,11 @@ function Dashboard() {
   const loadStatistics = async () => {
     setLoading(true);
     try {
-      const [ustaads, students, adultStudents, menStudents, excludedStats] = await Promise.all([
-        ustaadApi.getAll(),
-        studentApi.getAllStudents(),
-        adultStudentApi.getAllStudents(),
-        menStudentApi.getAllStudents(),
-        excludedStudentApi.getStatistics(),
-      ]);
-
-      setStats({
-        totalLearners: students.length,
-        activeUstaads: ustaads.length,
-        adultClasses: adultStudents.length,
-        menList: menStudents.length,
-        excludedKids: excludedStats.totalExcluded || 0,
-      });
+      // One small summary document instead of downloading every roster to count rows
+      const summaryStats = await dashboardApi.getDashboardStats();
+      setStats(summaryStats);
     } catch (error) {
       console.error("Failed to load dashboard statistics:", error);
-      try {
-        const ustaads = await ustaadApi.getAll();
-        setStats(prev => ({ ...prev, activeUstaads: ustaads.length }));
-      } catch (e) { console.log("Failed to load ustaads:", e); }
-      try {
-        const students = await studentApi.getAllStudents();
-        setStats(prev => ({ ...prev, totalLearners: students.length }));
-      } catch (e) { console.log("Failed to load students:", e); }
-      try {
-        const adultStudents = await adultStudentApi.getAllStudents();
-        setStats(prev => ({ ...prev, adultClasses: adultStudents.length }));
-      } catch (e) { console.log("Failed to load adult students:", e); }
-      try {
-        const menStudents = await menStudentApi.getAllStudents();
-        setStats(prev => ({ ...prev, menList: menStudents.length }));
-      } catch (e) { console.log("Failed to load men students:", e); }
-      try {
-        const excludedStats = await excludedStudentApi.getStatistics();
-        setStats(prev => ({ ...prev, excludedKids: excludedStats.totalExcluded || 0 }));
-      } catch (e) {
-        try {
-          const excluded = await excludedStudentApi.getAllExcludedStudents();
-          setStats(prev => ({ ...prev, excludedKids: excluded.length || 0 }));
-        } catch (fallbackError) {
-          setStats(prev => ({ ...prev, excludedKids: 0 }));
-        }
-      }
     } finally {
       setLoading(false);
     }
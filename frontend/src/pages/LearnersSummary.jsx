@@ -1,8 +1,10 @@
 import { useEffect, useState } from "react";
 import { studentApi } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function LearnersSummary() {
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [search, setSearch] = useState("");
   const [loading, setLoading] = useState(true);
   const [refreshTrigger, setRefreshTrigger] = useState(0);
@@ -14,6 +16,7 @@ function LearnersSummary() {
     try {
       const data = await studentApi.getAllStudents();
       setStudents(data);
+      setTruncated(data.truncated);
     } catch (error) {
       console.error("Failed to load students:", error);
       alert("Failed to load students from server.");
@@ -98,6 +101,8 @@ function LearnersSummary() {
         </button>
       </div>
 
+      <TruncatedNotice show={truncated} />
+
       {/* Search + Teacher Filter */}
       <div className="grid grid-cols-1 sm:grid-cols-2 gap-4 mb-4 md:mb-6">
         <input
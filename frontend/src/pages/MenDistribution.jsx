@@ -1,14 +1,18 @@
 import { useEffect, useState } from "react";
-import { menTeacherApi, menStudentApi } from "../services/api";
+import { menTeacherApi, menStudentApi, distributionApi } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function MenDistribution() {
   const [teachers, setTeachers] = useState([]);
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [selectedTeacher, setSelectedTeacher] = useState(null);
   const [distributionType, setDistributionType] = useState("food_hamper");
   const [studentSearch, setStudentSearch] = useState("");
   const [loading, setLoading] = useState(false);
   const [distributions, setDistributions] = useState({});
+  const [campaigns, setCampaigns] = useState({}); // distributionType -> server campaign
+  const [counts, setCounts] = useState({}); // distributionType -> server counts (total, received, pending, byTeacher)
   const [isGeneratingPDF, setIsGeneratingPDF] = useState(false);
 
   useEffect(() => {
@@ -34,22 +38,56 @@ function MenDistribution() {
     try {
       const data = await menStudentApi.getAllStudents();
       setStudents(data);
+      setTruncated(data.truncated);
     } catch (error) {
       console.error("Failed to load men students:", error);
       setStudents([]);
     }
   };
 
-  const loadDistributions = () => {
-    const saved = localStorage.getItem('menDistributions');
-    if (saved) {
-      setDistributions(JSON.parse(saved));
+  const loadDistributions = async () => {
+    // Load the current food hamper and shoes campaigns from the server
+    try {
+      const loadedCampaigns = {};
+      for (const type of ["food_hamper", "shoes"]) {
+        const name = `Men ${type === "food_hamper" ? "Food Hamper" : "Shoes"}`;
+        loadedCampaigns[type] = await distributionApi.getCurrentCampaign("MEN_STUDENTS", type, name);
+      }
+      // Ticks saved in this browser before distributions were kept on the server
+      await distributionApi.uploadLocalRecords("menDistributions", loadedCampaigns);
+
+      const loaded = {};
+      for (const type of ["food_hamper", "shoes"]) {
+        const records = await distributionApi.getRecords(loadedCampaigns[type].id);
+        records.forEach((record) => {
+          loaded[`${record.studentRowId}_${type}`] = {
+            studentId: record.studentRowId,
+            distributionType: type,
+            distributedAt: record.distributedAt,
+            distributedBy: record.distributedBy,
+          };
+        });
+      }
+      setCampaigns(loadedCampaigns);
+      setDistributions(loaded);
+      loadCounts(loadedCampaigns);
+    } catch (error) {
+      console.error("Failed to load distributions:", error);
+      alert("Failed to load distribution records from server.");
     }
   };
 
-  const saveDistributions = (newDistributions) => {
-    localStorage.setItem('menDistributions', JSON.stringify(newDistributions));
-    setDistributions(newDistributions);
+  // Summary card figures, counted by the server
+  const loadCounts = async (currentCampaigns) => {
+    try {
+      const loaded = {};
+      for (const type of Object.keys(currentCampaigns)) {
+        loaded[type] = await distributionApi.getCounts(currentCampaigns[type].id);
+      }
+      setCounts(loaded);
+    } catch (error) {
+      console.error("Failed to load distribution counts:", error);
+    }
   };
 
   // Filter students by selected teacher
@@ -69,9 +107,12 @@ function MenDistribution() {
     a.name.localeCompare(b.name, undefined, { sensitivity: 'base' })
   );
 
-  const handleToggleDistribution = (studentId) => {
+  const handleToggleDistribution = async (studentId) => {
     const key = `${studentId}_${distributionType}`;
+    const campaign = campaigns[distributionType];
+    if (!campaign) return;
     const newDistributions = { ...distributions };
+    const wasReceived = !!newDistributions[key];
 
     if (newDistributions[key]) {
       delete newDistributions[key];
@@ -84,7 +125,19 @@ function MenDistribution() {
       };
     }
 
-    saveDistributions(newDistributions);
+    // Update the screen straight away, then save; roll back if the server refuses
+    setDistributions(newDistributions);
+    try {
+      if (wasReceived) {
+        await distributionApi.unmarkReceived(campaign.id, studentId);
+      } else {
+        await distributionApi.markReceived(campaign.id, studentId, selectedTeacher?.name || "Admin");
+      }
+      loadCounts(campaigns);
+    } catch (error) {
+      setDistributions(distributions);
+      alert("Failed to save distribution. Please try again.");
+    }
   };
 
   const hasReceived = (studentId) => {
@@ -97,29 +150,55 @@ function MenDistribution() {
     return distributions[key];
   };
 
+  // Ticked members in the list shown (what Clear All removes)
   const receivedCount = sortedStudents.filter(s => hasReceived(s.id)).length;
 
-  // Global statistics
-  const globalReceivedCount = students.filter(s => hasReceived(s.id)).length;
-  const globalPendingCount = students.length - globalReceivedCount;
-  const globalCompletionRate = students.length > 0
-    ? Math.round((globalReceivedCount / students.length) * 100)
+  // Global statistics (counted by the server)
+  const globalCounts = counts[distributionType] || { total: 0, received: 0, pending: 0, byTeacher: {} };
+  const globalCompletionRate = globalCounts.total > 0
+    ? Math.round((globalCounts.received / globalCounts.total) * 100)
     : 0;
 
-  const handleClearAll = () => {
+  // Per-teacher figures, keyed by upper-cased name: the server matches teacher names ignoring case
+  const countsByTeacher = {};
+  Object.values(globalCounts.byTeacher || {}).forEach((c) => {
+    countsByTeacher[(c.ustadh || "").toUpperCase()] = c;
+  });
+  const teacherCounts = (selectedTeacher && countsByTeacher[selectedTeacher.name.toUpperCase()])
+    || { total: 0, received: 0, pending: 0 };
+
+  const handleClearAll = async () => {
     if (!window.confirm(
       `Clear all ${distributionType === 'food_hamper' ? 'Food Hamper' : 'Shoes'} distributions for ${selectedTeacher?.name || 'all members'}?\n\n` +
       `This will remove ${receivedCount} distribution records.\n` +
       `This action cannot be undone.`
     )) return;
 
+    const campaign = campaigns[distributionType];
+    if (!campaign) return;
+
+    try {
+      if (selectedTeacher && !studentSearch) {
+        await distributionApi.clearTeacher(campaign.id, selectedTeacher.name);
+      } else {
+        // Search is narrowing the list: clear only the students shown
+        await Promise.all(sortedStudents
+          .filter(student => hasReceived(student.id))
+          .map(student => distributionApi.unmarkReceived(campaign.id, student.id)));
+      }
+    } catch (error) {
+      alert("Failed to clear distribution records. Please try again.");
+      return;
+    }
+
     const newDistributions = { ...distributions };
     sortedStudents.forEach(student => {
       const key = `${student.id}_${distributionType}`;
       delete newDistributions[key];
     });
 
-    saveDistributions(newDistributions);
+    setDistributions(newDistributions);
+    loadCounts(campaigns);
     alert("Distribution records cleared successfully!");
   };
 
@@ -280,6 +359,7 @@ function MenDistribution() {
   return (
     <div className="pt-10 pb-10 px-4 md:px-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Men's Distribution Tracking</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Global Statistics Banner */}
       <div className="bg-gradient-to-r from-indigo-600 to-blue-700 text-white rounded-xl shadow-lg p-4 md:p-6 mb-6">
@@ -288,15 +368,15 @@ function MenDistribution() {
         </h2>
         <div className="grid grid-cols-2 md:grid-cols-4 gap-3 md:gap-4">
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold">{students.length}</div>
+            <div className="text-2xl md:text-3xl font-bold">{globalCounts.total}</div>
             <div className="text-xs md:text-sm opacity-90">Total Members</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold text-green-200">{globalReceivedCount}</div>
+            <div className="text-2xl md:text-3xl font-bold text-green-200">{globalCounts.received}</div>
             <div className="text-xs md:text-sm opacity-90">Received</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
-            <div className="text-2xl md:text-3xl font-bold text-orange-200">{globalPendingCount}</div>
+            <div className="text-2xl md:text-3xl font-bold text-orange-200">{globalCounts.pending}</div>
             <div className="text-xs md:text-sm opacity-90">Pending</div>
           </div>
           <div className="bg-white/10 backdrop-blur-sm rounded-lg p-3 text-center">
@@ -415,7 +495,7 @@ function MenDistribution() {
                 {selectedTeacher.name}'s Members - {distributionType === 'food_hamper' ? 'Food Hampers' : 'Shoes'}
               </h2>
               <p className="text-sm text-gray-600">
-                {receivedCount} of {teacherStudents.length} members received
+                {teacherCounts.received} of {teacherCounts.total} members received
               </p>
             </div>
 
@@ -601,20 +681,20 @@ function MenDistribution() {
             <div className="mt-6 p-4 bg-gradient-to-r from-indigo-50 to-blue-50 rounded-lg border border-indigo-200">
               <div className="grid grid-cols-2 md:grid-cols-4 gap-4 text-center">
                 <div>
-                  <div className="text-2xl font-bold text-indigo-700">{teacherStudents.length}</div>
+                  <div className="text-2xl font-bold text-indigo-700">{teacherCounts.total}</div>
                   <div className="text-xs text-gray-600">Total Members</div>
                 </div>
                 <div>
-                  <div className="text-2xl font-bold text-green-700">{receivedCount}</div>
+                  <div className="text-2xl font-bold text-green-700">{teacherCounts.received}</div>
                   <div className="text-xs text-gray-600">Received</div>
                 </div>
                 <div>
-                  <div className="text-2xl font-bold text-orange-700">{teacherStudents.length - receivedCount}</div>
+                  <div className="text-2xl font-bold text-orange-700">{teacherCounts.pending}</div>
                   <div className="text-xs text-gray-600">Pending</div>
                 </div>
                 <div>
                   <div className="text-2xl font-bold text-blue-700">
-                    {teacherStudents.length > 0 ? Math.round((receivedCount / teacherStudents.length) * 100) : 0}%
+                    {teacherCounts.total > 0 ? Math.round((teacherCounts.received / teacherCounts.total) * 100) : 0}%
                   </div>
                   <div className="text-xs text-gray-600">Completion</div>
                 </div>
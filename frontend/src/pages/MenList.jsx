@@ -1,5 +1,6 @@
 import { useEffect, useState } from "react";
-import { menTeacherApi, menStudentApi } from "../services/api";
+import { menTeacherApi, menStudentApi, syncRosterList } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function MenList() {
   const [teachers, setTeachers] = useState([]);
@@ -9,6 +10,7 @@ function MenList() {
   const [isNewTeacher, setIsNewTeacher] = useState(true);
 
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [formStudent, setFormStudent] = useState({
     studentId: "",
     name: "",
@@ -39,6 +41,11 @@ function MenList() {
     loadAllStudents();
   }, []);
 
+  // Apply roster changes made on other screens (live roster feed) without reloading the list
+  useEffect(() => {
+    return syncRosterList({ roster: "MEN_STUDENTS" }, menStudentApi.getStudentById, setStudents, loadAllStudents);
+  }, []);
+
   const loadTeachers = async () => {
     setLoading(true);
     try {
@@ -57,6 +64,7 @@ function MenList() {
     try {
       const data = await menStudentApi.getAllStudents();
       setStudents(data);
+      setTruncated(data.truncated);
     } catch (error) {
       console.error("Failed to load men students:", error);
       setStudents([]);
@@ -573,6 +581,7 @@ function MenList() {
   return (
     <div className="pt-10 pb-10 px-4 md:px-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Men's List Management</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Step 1: Teacher registration/access */}
       {!currentTeacher && (
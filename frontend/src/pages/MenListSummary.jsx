@@ -1,8 +1,10 @@
 import { useEffect, useState } from "react";
 import { menStudentApi } from "../services/api";
+import TruncatedNotice from "../components/TruncatedNotice";
 
 function MenListSummary() {
   const [students, setStudents] = useState([]);
+  const [truncated, setTruncated] = useState(false); // server cut the roster list at its row limit
   const [search, setSearch] = useState("");
   const [loading, setLoading] = useState(true);
   const [selectedTeacher, setSelectedTeacher] = useState("All Members"); // New state for filter
@@ -14,6 +16,7 @@ function MenListSummary() {
       try {
         const data = await menStudentApi.getAllStudents();
         setStudents(data);
+        setTruncated(data.truncated);
       } catch (error) {
         console.error("Failed to load men students:", error);
         alert("Failed to load men students from server.");
@@ -56,6 +59,7 @@ function MenListSummary() {
   return (
     <div className="p-4 md:p-8">
       <h1 className="text-xl md:text-2xl font-bold mb-4 md:mb-6">Men's List Summary</h1>
+      <TruncatedNotice show={truncated} />
 
       {/* Search + Teacher Filter */}
       <div className="grid grid-cols-1 sm:grid-cols-2 gap-4 mb-4 md:mb-6">
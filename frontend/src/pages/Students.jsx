@@ -1,5 +1,5 @@
 import { useEffect, useState } from "react";
-import { teacherApi, studentApi, duplicateCheckApi, API_BASE_URL } from "../services/api";
+import { teacherApi, studentApi, duplicateCheckApi, subscribeRosterEvents, API_BASE_URL } from "../services/api";
 
 function Students() {
   const [teachers, setTeachers] = useState([]);
@@ -83,6 +83,13 @@ function Students() {
     }
   }, [currentTeacher]);
 
+  // Reload the class when it changes on another screen (live roster feed)
+  useEffect(() => {
+    if (!currentTeacher) return;
+    const reload = () => loadStudentsForTeacher(currentTeacher.name);
+    return subscribeRosterEvents({ roster: "STUDENTS", ustadh: currentTeacher.name }, reload, reload);
+  }, [currentTeacher]);
+
   const loadStudentsForTeacher = async (teacherName) => {
     setLoading(true);
     try {
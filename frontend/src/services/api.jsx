@@ -9,6 +9,37 @@ if (!API_BASE_URL) {
   throw new Error("VITE_API_URL is not defined");
 }
 
+// Download a server-generated file (class list exports) and save it under the server's file name
+const downloadFile = async (path, errorMessage) => {
+  const response = await fetch(`${API_BASE_URL}${path}`);
+  if (!response.ok) {
+    const errorData = await response.json().catch(() => ({}));
+    throw new Error(errorData.message || errorMessage);
+  }
+
+  const disposition = response.headers.get('Content-Disposition') || '';
+  const match = disposition.match(/filename="?([^";]+)"?/);
+  const fileName = match ? match[1] : 'export';
+
+  const url = URL.createObjectURL(await response.blob());
+  const link = document.createElement('a');
+  link.href = url;
+  link.download = fileName;
+  document.body.appendChild(link);
+  link.click();
+  document.body.removeChild(link);
+  URL.revokeObjectURL(url);
+  return fileName;
+};
+
+// Read an unpaged roster list. The server stops at roster.unpaged.max-rows and sets
+// X-Result-Truncated when it cut the list; the returned array carries that as .truncated
+const readRosterList = async (response) => {
+  const students = await response.json();
+  students.truncated = response.headers.get('X-Result-Truncated') === 'true';
+  return students;
+};
+
 // Teacher API calls
 export const teacherApi = {
   // Get all teachers
@@ -118,7 +149,7 @@ export const studentApi = {
     try {
       const response = await fetch(`${API_BASE_URL}/students`);
       if (!response.ok) throw new Error('Failed to fetch students');
-      return await response.json();
+      return await readRosterList(response);
     } catch (error) {
       console.error('Error fetching students:', error);
       throw error;
@@ -284,6 +315,27 @@ export const studentApi = {
       throw error;
     }
   },
+
+  // Download one teacher's class list (format: csv, xlsx or pdf; classTeaching optional)
+  exportClassList: async (ustadh, format, classTeaching) => {
+    try {
+      const classParam = classTeaching ? `&classTeaching=${encodeURIComponent(classTeaching)}` : '';
+      return await downloadFile(`/students/export?ustadh=${encodeURIComponent(ustadh)}&format=${format}${classParam}`, 'Failed to export class list');
+    } catch (error) {
+      console.error('Error exporting student class list:', error);
+      throw error;
+    }
+  },
+
+  // Download a zip with one class list per teacher
+  exportAllByTeacher: async (format) => {
+    try {
+      return await downloadFile(`/students/export/by-teacher?format=${format}`, 'Failed to export class lists');
+    } catch (error) {
+      console.error('Error exporting student class lists:', error);
+      throw error;
+    }
+  },
 };
 
 // Excluded Student API calls (full - nothing removed)
@@ -575,13 +627,26 @@ export const adultStudentApi = {
     try {
       const response = await fetch(`${API_BASE_URL}/adult-students`);
       if (!response.ok) throw new Error('Failed to fetch adult students');
-      return await response.json();
+      return await readRosterList(response);
     } catch (error) {
       console.error('Error fetching adult students:', error);
       throw error;
     }
   },
 
+  // One student by database ID; null when it no longer exists
+  getStudentById: async (id) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/adult-students/${id}`);
+      if (response.status === 404) return null;
+      if (!response.ok) throw new Error('Failed to fetch adult student by ID');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching adult student by ID:', error);
+      throw error;
+    }
+  },
+
   getStudentsByTeacher: async (ustadh) => {
     try {
       const response = await fetch(`${API_BASE_URL}/adult-students/by-teacher/${ustadh}`);
@@ -677,6 +742,27 @@ export const adultStudentApi = {
       throw error;
     }
   },
+
+  // Download one teacher's class list (format: csv, xlsx or pdf; classTeaching optional)
+  exportClassList: async (ustadh, format, classTeaching) => {
+    try {
+      const classParam = classTeaching ? `&classTeaching=${encodeURIComponent(classTeaching)}` : '';
+      return await downloadFile(`/adult-students/export?ustadh=${encodeURIComponent(ustadh)}&format=${format}${classParam}`, 'Failed to export class list');
+    } catch (error) {
+      console.error('Error exporting adult student class list:', error);
+      throw error;
+    }
+  },
+
+  // Download a zip with one class list per teacher
+  exportAllByTeacher: async (format) => {
+    try {
+      return await downloadFile(`/adult-students/export/by-teacher?format=${format}`, 'Failed to export class lists');
+    } catch (error) {
+      console.error('Error exporting adult student class lists:', error);
+      throw error;
+    }
+  },
 };
 
 // Men's List Teacher API calls - FULLY ADDED (this was missing)
@@ -783,13 +869,26 @@ export const menStudentApi = {
     try {
       const response = await fetch(`${API_BASE_URL}/men-students`);
       if (!response.ok) throw new Error('Failed to fetch men students');
-      return await response.json();
+      return await readRosterList(response);
     } catch (error) {
       console.error('Error fetching men students:', error);
       throw error;
     }
   },
 
+  // One student by database ID; null when it no longer exists
+  getStudentById: async (id) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/men-students/${id}`);
+      if (response.status === 404) return null;
+      if (!response.ok) throw new Error('Failed to fetch men student by ID');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching men student by ID:', error);
+      throw error;
+    }
+  },
+
   getStudentsByTeacherAndClass: async (ustadh, classTeaching) => {
     try {
       const response = await fetch(`${API_BASE_URL}/men-students/by-teacher-class?ustadh=${encodeURIComponent(ustadh)}&classTeaching=${encodeURIComponent(classTeaching)}`);
@@ -862,6 +961,27 @@ export const menStudentApi = {
       throw error;
     }
   },
+
+  // Download one teacher's class list (format: csv, xlsx or pdf; classTeaching optional)
+  exportClassList: async (ustadh, format, classTeaching) => {
+    try {
+      const classParam = classTeaching ? `&classTeaching=${encodeURIComponent(classTeaching)}` : '';
+      return await downloadFile(`/men-students/export?ustadh=${encodeURIComponent(ustadh)}&format=${format}${classParam}`, 'Failed to export class list');
+    } catch (error) {
+      console.error('Error exporting men student class list:', error);
+      throw error;
+    }
+  },
+
+  // Download a zip with one class list per teacher
+  exportAllByTeacher: async (format) => {
+    try {
+      return await downloadFile(`/men-students/export/by-teacher?format=${format}`, 'Failed to export class lists');
+    } catch (error) {
+      console.error('Error exporting men student class lists:', error);
+      throw error;
+    }
+  },
 };
 
 // Duplicate Check API (for Students.jsx only)
@@ -892,25 +1012,201 @@ export const duplicateCheckApi = {
   },
 };
 
+// Distribution API (food hamper / shoe campaigns, shared by all devices)
+export const distributionApi = {
+  // Get campaigns of one roster (STUDENTS, ADULT_STUDENTS, MEN_STUDENTS), newest first
+  getCampaigns: async (roster) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns?roster=${roster}`);
+      if (!response.ok) throw new Error('Failed to fetch distribution campaigns');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching distribution campaigns:', error);
+      throw error;
+    }
+  },
+
+  // Create a campaign
+  createCampaign: async (name, roster, distributionType) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns`, {
+        method: 'POST',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ name, roster, distributionType }),
+      });
+
+      if (!response.ok) {
+        const errorData = await response.json();
+        throw new Error(errorData.message || 'Failed to create distribution campaign');
+      }
+
+      return await response.json();
+    } catch (error) {
+      console.error('Error creating distribution campaign:', error);
+      throw error;
+    }
+  },
+
+  // Latest campaign of a roster and type; the server creates it on first use
+  getCurrentCampaign: async (roster, distributionType, name) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/current`, {
+        method: 'PUT',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ name, roster, distributionType }),
+      });
+
+      if (!response.ok) {
+        const errorData = await response.json();
+        throw new Error(errorData.message || 'Failed to load distribution campaign');
+      }
+
+      return await response.json();
+    } catch (error) {
+      console.error('Error loading distribution campaign:', error);
+      throw error;
+    }
+  },
+
+  // Get records (studentRowId, distributedAt, distributedBy) of a campaign
+  getRecords: async (campaignId) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/${campaignId}/records`);
+      if (!response.ok) throw new Error('Failed to fetch distribution records');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching distribution records:', error);
+      throw error;
+    }
+  },
+
+  // Mark a student (row id) as received; distributedAt (ISO string) defaults to now
+  markReceived: async (campaignId, studentRowId, distributedBy, distributedAt) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/${campaignId}/students/${studentRowId}`, {
+        method: 'PUT',
+        headers: {
+          'Content-Type': 'application/json',
+        },
+        body: JSON.stringify({ distributedBy, distributedAt }),
+      });
+      if (!response.ok) {
+        const error = new Error('Failed to mark distribution');
+        error.status = response.status;
+        throw error;
+      }
+      return await response.json();
+    } catch (error) {
+      console.error('Error marking distribution:', error);
+      throw error;
+    }
+  },
+
+  // Unmark a student
+  unmarkReceived: async (campaignId, studentRowId) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/${campaignId}/students/${studentRowId}`, {
+        method: 'DELETE',
+      });
+      if (!response.ok) throw new Error('Failed to unmark distribution');
+      return await response.json();
+    } catch (error) {
+      console.error('Error unmarking distribution:', error);
+      throw error;
+    }
+  },
+
+  // Received / pending counts of a campaign: totals plus byTeacher (teacher name -> counts)
+  getCounts: async (campaignId) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/${campaignId}/counts`);
+      if (!response.ok) throw new Error('Failed to fetch distribution counts');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching distribution counts:', error);
+      throw error;
+    }
+  },
+
+  // One-time upload of the ticks the distribution pages used to keep in localStorage under
+  // storageKey ({ "<rowId>_<type>": { studentId, distributionType, distributedAt, distributedBy } }).
+  // campaigns maps distributionType -> campaign. Ticks of students deleted since are dropped; the
+  // key is removed once nothing is left to upload, otherwise only the failed ticks stay for next time.
+  uploadLocalRecords: async (storageKey, campaigns) => {
+    const saved = localStorage.getItem(storageKey);
+    if (!saved) return;
+
+    let records;
+    try {
+      records = JSON.parse(saved);
+    } catch (error) {
+      localStorage.removeItem(storageKey);
+      return;
+    }
+
+    const remaining = {};
+    // One at a time: a burst of requests would be turned away by the server's admission queue
+    for (const [key, record] of Object.entries(records || {})) {
+      const campaign = campaigns[record.distributionType];
+      if (!campaign) continue;
+      try {
+        await distributionApi.markReceived(campaign.id, record.studentId, record.distributedBy, record.distributedAt);
+      } catch (error) {
+        if (error.status !== 404) remaining[key] = record;
+      }
+    }
+
+    if (Object.keys(remaining).length === 0) {
+      localStorage.removeItem(storageKey);
+    } else {
+      localStorage.setItem(storageKey, JSON.stringify(remaining));
+    }
+  },
+
+  // Unmark every student of one teacher
+  clearTeacher: async (campaignId, ustadh) => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/distributions/campaigns/${campaignId}/students?ustadh=${encodeURIComponent(ustadh)}`, {
+        method: 'DELETE',
+      });
+      if (!response.ok) throw new Error('Failed to clear distributions');
+      return await response.json();
+    } catch (error) {
+      console.error('Error clearing distributions:', error);
+      throw error;
+    }
+  },
+};
+
 // Dashboard Statistics API
 export const dashboardApi = {
+  // Get the server-side summary (totals, gender splits, per-teacher counts)
+  getSummary: async () => {
+    try {
+      const response = await fetch(`${API_BASE_URL}/dashboard/summary`);
+      if (!response.ok) throw new Error('Failed to fetch dashboard summary');
+      return await response.json();
+    } catch (error) {
+      console.error('Error fetching dashboard summary:', error);
+      throw error;
+    }
+  },
+
   // Get all statistics for dashboard
   getDashboardStats: async () => {
     try {
-      const [students, ustaads, adultStudents, menStudents, excludedStats] = await Promise.all([
-        studentApi.getAllStudents(),
-        ustaadApi.getAll(),
-        adultStudentApi.getAllStudents(),
-        menStudentApi.getAllStudents(),
-        excludedStudentApi.getStatistics(),
-      ]);
+      const summary = await dashboardApi.getSummary();
 
       return {
-        totalLearners: students.length,
-        activeUstaads: ustaads.length,
-        adultClasses: adultStudents.length,
-        menList: menStudents.length,
-        excludedKids: excludedStats.totalExcluded || 0,
+        totalLearners: summary.students.total,
+        activeUstaads: summary.totalUstaads,
+        adultClasses: summary.adultStudents.total,
+        menList: summary.menStudents.total,
+        excludedKids: summary.totalExcluded || 0,
       };
     } catch (error) {
       console.error('Error fetching dashboard stats:', error);
@@ -919,5 +1215,88 @@ export const dashboardApi = {
   },
 };
 
+// Live roster changes (Server-Sent Events). filters: { roster, ustadh, classTeaching }, all optional.
+// Calls onChange(event) for every change; calls onResync() after a reconnect, when changes may
+// have been missed and the list should be reloaded. Returns a function that closes the stream.
+export const subscribeRosterEvents = (filters, onChange, onResync) => {
+  const params = new URLSearchParams();
+  Object.entries(filters || {}).forEach(([key, value]) => {
+    if (value) params.append(key, value);
+  });
+
+  const source = new EventSource(`${API_BASE_URL}/roster-events?${params}`);
+  let connectedBefore = false;
+  source.addEventListener('ready', () => {
+    if (connectedBefore && onResync) onResync();
+    connectedBefore = true;
+  });
+  source.addEventListener('roster', (event) => onChange(JSON.parse(event.data)));
+  return () => source.close();
+};
+
+// Same teacher/class as the server sees it (lookups ignore case)
+const sameKey = (a, b) => (a || '').toUpperCase() === (b || '').toUpperCase();
+
+// Turns one roster event into an update for a page's student list: returns a function to pass
+// to setStudents, or null when the event cannot be applied locally (a bulk import) and the list
+// has to be reloaded. Events carry names only, so a created or changed row is re-read by id.
+export const rosterEventUpdate = async (event, getStudentById) => {
+  switch (event.type) {
+    case 'deleted':
+    case 'excluded':
+      return (students) => students.filter((s) => s.id !== event.id);
+    case 'teacher_cleared':
+      return (students) => students.filter((s) => !sameKey(s.ustadh, event.ustadh));
+    case 'class_renamed':
+      return (students) => students.map((s) =>
+        sameKey(s.ustadh, event.ustadh) && sameKey(s.classTeaching, event.fromClassTeaching)
+          ? { ...s, classTeaching: event.classTeaching }
+          : s
+      );
+    case 'created':
+    case 'updated':
+    case 'transferred':
+    case 'restored': {
+      const row = await getStudentById(event.id);
+      if (!row) return (students) => students.filter((s) => s.id !== event.id);
+      return (students) => students.some((s) => s.id === row.id)
+        ? students.map((s) => (s.id === row.id ? row : s))
+        : [...students, row];
+    }
+    default:
+      return null;
+  }
+};
+
+// Keeps a page's full student list in step with the live feed. Each event is applied to the
+// list; a full reload happens only after a bulk import or a reconnect, at most once a second.
+// Returns a function that closes the stream.
+export const syncRosterList = (filters, getStudentById, setStudents, reload) => {
+  let reloadTimer = null;
+  const scheduleReload = () => {
+    if (reloadTimer) return;
+    reloadTimer = setTimeout(() => {
+      reloadTimer = null;
+      reload();
+    }, 1000);
+  };
+
+  const close = subscribeRosterEvents(filters, async (event) => {
+    try {
+      const update = await rosterEventUpdate(event, getStudentById);
+      if (update) setStudents(update);
+      else scheduleReload();
+    } catch (error) {
+      console.error('Failed to apply roster event:', error);
+      scheduleReload();
+    }
+  }, scheduleReload);
+
+  return () => {
+    clearTimeout(reloadTimer);
+    close();
+  };
+};
+
 // Export the base URL
 export { API_BASE_URL };
\ No newline at end of file
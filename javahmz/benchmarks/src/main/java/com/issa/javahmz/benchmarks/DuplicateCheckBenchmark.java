@@ -0,0 +1,52 @@
+package com.issa.javahmz.benchmarks;
+
+import com.issa.javahmz.controller.DuplicateCheckController;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+// GET /api/check-duplicate/student/{id}: a registered ID (registry hit plus one
+// primary-key read) and a new ID (answered from memory alone)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class DuplicateCheckBenchmark extends RosterState {
+
+    private static final int SAMPLES = 1024;
+
+    private DuplicateCheckController controller;
+    private String[] existingIds;
+    private String[] newIds;
+    private int next;
+
+    @Override
+    protected void prepare() {
+        controller = context.getBean(DuplicateCheckController.class);
+        existingIds = new String[SAMPLES];
+        newIds = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            existingIds[i] = RosterFixture.studentId((int) ((long) i * rows / SAMPLES));
+            newIds[i] = RosterFixture.studentId(rows + i);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> existingId() {
+        return controller.checkStudentDuplicate(existingIds[next++ & (SAMPLES - 1)]);
+    }
+
+    @Benchmark
+    public ResponseEntity<Map<String, Object>> newId() {
+        return controller.checkStudentDuplicate(newIds[next++ & (SAMPLES - 1)]);
+    }
+}
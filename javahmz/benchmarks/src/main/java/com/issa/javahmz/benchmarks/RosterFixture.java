@@ -0,0 +1,122 @@
+package com.issa.javahmz.benchmarks;
+
+import com.issa.javahmz.JavahmzApplication;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.util.LookupKey;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+// Boots the application (no web server) on a fresh in-memory H2 database and fills
+// the students table with a generated roster. The same seed always gives the same rows,
+// so numbers from different commits are comparable.
+final class RosterFixture {
+
+    static final String[] FIRST_NAMES = {
+            "Amina", "Yusuf", "Fatima", "Ibrahim", "Zainab", "Muhammad", "Aisha", "Ismail",
+            "Khadija", "Ahmed", "Maryam", "Bilal", "Safiya", "Hamza", "Ruqayyah", "Zakariya",
+            "Hafsa", "Idris", "Sumayya", "Musa", "Asiya", "Harun", "Layla", "Dawud"
+    };
+
+    static final String[] SURNAMES = {
+            "Dlamini", "Patel", "Mohamed", "Khan", "Essop", "Cassim", "Moosa", "Adams",
+            "Hendricks", "Jacobs", "Ismail", "Desai", "Mahomed", "Omar", "Salie", "Abrahams",
+            "Karim", "Bhayat", "Vawda", "Ebrahim", "Mayet", "Kajee", "Jeeva", "Seedat"
+    };
+
+    static final int STUDENTS_PER_CLASS = 30;
+    static final int CLASSES_PER_TEACHER = 2;
+
+    private static final String INSERT =
+            "INSERT INTO students (student_id, name, gender, date_joined, location, madrassa_location, " +
+            "shoe_size, cell, ustadh, class_teaching, ustadh_key, class_teaching_key, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final int BATCH_SIZE = 5000;
+
+    private RosterFixture() {
+    }
+
+    // Application context on its own in-memory database, pool sized like production
+    static ConfigurableApplicationContext boot() {
+        return new SpringApplicationBuilder(JavahmzApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(
+                        "spring.main.banner-mode=off",
+                        "spring.datasource.url=jdbc:h2:mem:bench-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.datasource.hikari.maximum-pool-size=2",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "spring.jpa.open-in-view=false",
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    // Insert the generated students and let the in-memory indexes reload, as after an import
+    static void loadStudents(ConfigurableApplicationContext context, int rows) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Random random = new Random(42);
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < rows; i++) {
+            String ustadh = teacher(i);
+            String classTeaching = classTeaching(i);
+            String gender = random.nextBoolean() ? "Male" : "Female";
+            batch.add(new Object[] {
+                    studentId(i),
+                    name(i),
+                    gender,
+                    Date.valueOf(LocalDate.of(2015 + random.nextInt(10), 1 + random.nextInt(12), 1 + random.nextInt(28))),
+                    "Area " + (1 + random.nextInt(40)),
+                    "Madrassa " + (1 + random.nextInt(8)),
+                    Integer.toString(1 + random.nextInt(12)),
+                    String.format(Locale.ROOT, "07%08d", random.nextInt(100_000_000)),
+                    ustadh,
+                    classTeaching,
+                    LookupKey.of(ustadh),
+                    LookupKey.of(classTeaching),
+                    Timestamp.valueOf(now),
+                    Timestamp.valueOf(now)
+            });
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(INSERT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT, batch);
+        }
+        context.publishEvent(EntityChangeEvent.bulk(TrackedTable.STUDENTS));
+    }
+
+    static String studentId(int row) {
+        return String.format(Locale.ROOT, "S%07d", row);
+    }
+
+    // Every first name / surname pair occurs equally often
+    static String name(int row) {
+        return FIRST_NAMES[row % FIRST_NAMES.length] + " " + SURNAMES[(row / FIRST_NAMES.length) % SURNAMES.length];
+    }
+
+    static String teacher(int row) {
+        return String.format(Locale.ROOT, "Ustadh %05d", row / (STUDENTS_PER_CLASS * CLASSES_PER_TEACHER));
+    }
+
+    static String classTeaching(int row) {
+        return "Grade " + (1 + (row / STUDENTS_PER_CLASS) % CLASSES_PER_TEACHER);
+    }
+}
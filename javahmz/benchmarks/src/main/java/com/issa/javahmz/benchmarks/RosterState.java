@@ -0,0 +1,34 @@
+package com.issa.javahmz.benchmarks;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.context.ConfigurableApplicationContext;
+
+// One booted application with a generated roster per trial (benchmark x roster size)
+@State(Scope.Benchmark)
+public abstract class RosterState {
+
+    @Param({"1000", "100000", "1000000"})
+    public int rows;
+
+    protected ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void bootApplication() {
+        context = RosterFixture.boot();
+        RosterFixture.loadStudents(context, rows);
+        prepare();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeApplication() {
+        context.close();
+    }
+
+    // Look up beans and build inputs once the roster is loaded
+    protected abstract void prepare();
+}
@@ -0,0 +1,67 @@
+package com.issa.javahmz.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.issa.javahmz.entity.Student;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Writing Student entities as JSON the way the controllers return them: one page
+// (/page default size), the unpaged list cap, and a single row. No database needed.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+@State(Scope.Benchmark)
+public class StudentJsonBenchmark {
+
+    @Param({"50", "5000"})
+    public int listSize;
+
+    private ObjectMapper objectMapper;
+    private List<Student> students;
+
+    @Setup(Level.Trial)
+    public void prepare() {
+        // Same settings Spring Boot applies to the MVC ObjectMapper
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        students = new ArrayList<>(listSize);
+        for (int i = 0; i < listSize; i++) {
+            Student student = new Student(RosterFixture.studentId(i), RosterFixture.name(i), i % 2 == 0 ? "Male" : "Female",
+                    LocalDate.of(2020, 1 + i % 12, 1 + i % 28), "Area " + i % 40, "Madrassa " + i % 8,
+                    Integer.toString(1 + i % 12), "0712345678", RosterFixture.teacher(i), RosterFixture.classTeaching(i));
+            student.setId((long) i + 1);
+            students.add(student);
+        }
+    }
+
+    @Benchmark
+    public byte[] list() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students);
+    }
+
+    @Benchmark
+    public byte[] single() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(students.get(0));
+    }
+}
@@ -0,0 +1,62 @@
+package com.issa.javahmz.benchmarks;
+
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+// Student search by part of a name or ID: the repository LIKE query (what
+// searchByNameOrId costs on its own) against the service, which answers from the
+// in-memory trigram index
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class StudentSearchBenchmark extends RosterState {
+
+    private static final int TERMS = 64;
+
+    private StudentRepository studentRepository;
+    private StudentService studentService;
+    private String[] terms;
+    private int next;
+
+    @Override
+    protected void prepare() {
+        studentRepository = context.getBean(StudentRepository.class);
+        studentService = context.getBean(StudentService.class);
+
+        // What people type: part of a full name (lower case) or the start of an ID
+        terms = new String[TERMS];
+        for (int i = 0; i < TERMS; i++) {
+            int row = (int) ((long) i * rows / TERMS);
+            if (i % 2 == 0) {
+                String name = RosterFixture.name(row).toLowerCase(Locale.ROOT);
+                terms[i] = name.substring(0, name.indexOf(' ') + 4);
+            } else {
+                terms[i] = RosterFixture.studentId(row).substring(0, 7);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Student> repositoryLike() {
+        return studentRepository.searchByNameOrId(terms[next++ & (TERMS - 1)]);
+    }
+
+    @Benchmark
+    public List<Student> serviceIndexed() {
+        return studentService.search(terms[next++ & (TERMS - 1)]);
+    }
+}
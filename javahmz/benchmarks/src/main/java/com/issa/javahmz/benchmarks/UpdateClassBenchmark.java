@@ -0,0 +1,70 @@
+package com.issa.javahmz.benchmarks;
+
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.service.StudentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Renaming one teacher's class. "statement" is the single UPDATE; "service" is
+// updateClass as the endpoint runs it, including the lookup of the class's rows and
+// the per-row change events that keep the in-memory indexes current. Each call renames the class back and
+// forth, so the data stays the same between iterations.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx4g"})
+public class UpdateClassBenchmark extends RosterState {
+
+    private StudentRepository studentRepository;
+    private StudentService studentService;
+    private TransactionTemplate transactionTemplate;
+    private String ustadh;
+    private String currentClass;
+    private String otherClass;
+    private List<Long> ids;
+
+    @Override
+    protected void prepare() {
+        studentRepository = context.getBean(StudentRepository.class);
+        studentService = context.getBean(StudentService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        ustadh = RosterFixture.teacher(rows / 2);
+        currentClass = RosterFixture.classTeaching(rows / 2);
+        otherClass = currentClass + " B";
+        ids = studentRepository.findByUstadhAndClassTeaching(ustadh, currentClass).stream().map(Student::getId).toList();
+    }
+
+    @Benchmark
+    public int statement() {
+        int updated = transactionTemplate.execute(status ->
+                studentRepository.updateClassTeaching(ids, otherClass, LocalDateTime.now()));
+        swap();
+        return updated;
+    }
+
+    @Benchmark
+    public int service() {
+        int updated = studentService.updateClass(ustadh, currentClass, otherClass);
+        swap();
+        return updated;
+    }
+
+    private void swap() {
+        String previous = currentClass;
+        currentClass = otherClass;
+        otherClass = previous;
+    }
+}
@@ -0,0 +1,95 @@
+package com.issa.javahmz.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+// Takes a DbAdmissionGate permit before an /api handler runs and returns it when the
+// request is done. Rejected requests get 503 with Retry-After and {message}.
+// Streamed responses (exports) keep their permit until the body has been written: that is
+// when their connection goes back to the pool.
+public class AdmissionInterceptor implements AsyncHandlerInterceptor, CallableProcessingInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+
+    private final DbAdmissionGate gate;
+
+    private final ObjectMapper objectMapper;
+
+    public AdmissionInterceptor(DbAdmissionGate gate, ObjectMapper objectMapper) {
+        this.gate = gate;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        // Async re-dispatches reuse the permit taken by the original request
+        if (!(handler instanceof HandlerMethod handlerMethod) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        DbAdmission.Priority priority = priorityOf(handlerMethod, request);
+        if (priority == DbAdmission.Priority.EXEMPT) {
+            return true;
+        }
+        try {
+            request.setAttribute(PERMIT_ATTRIBUTE, gate.acquire(priority));
+            return true;
+        } catch (IllegalStateException e) {
+            Map<String, String> body = new HashMap<>();
+            body.put("message", e.getMessage());
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(gate.getRetryAfterSeconds()));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            objectMapper.writeValue(response.getOutputStream(), body);
+            return false;
+        }
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        release(request.getAttribute(PERMIT_ATTRIBUTE));
+    }
+
+    // The streaming body has been written (or failed)
+    @Override
+    public <T> void postProcess(NativeWebRequest request, Callable<T> task, Object concurrentResult) {
+        release(request.getAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    // Timeouts and dropped clients end here even when no re-dispatch follows
+    @Override
+    public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+        release(request.getAttribute(PERMIT_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+    }
+
+    private static DbAdmission.Priority priorityOf(HandlerMethod handlerMethod, HttpServletRequest request) {
+        DbAdmission admission = handlerMethod.getMethodAnnotation(DbAdmission.class);
+        if (admission != null) {
+            return admission.value();
+        }
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())
+                ? DbAdmission.Priority.READ
+                : DbAdmission.Priority.WRITE;
+    }
+
+    private static void release(Object permit) {
+        if (permit instanceof DbAdmissionGate.Permit held) {
+            held.release();
+        }
+    }
+}
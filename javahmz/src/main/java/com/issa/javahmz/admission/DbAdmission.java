@@ -0,0 +1,29 @@
+package com.issa.javahmz.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Queue priority of an endpoint at the DbAdmissionGate. Without this annotation GET
+// requests are READ and everything else is WRITE.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface DbAdmission {
+
+    Priority value();
+
+    // Declared in the order waiting requests are admitted
+    enum Priority {
+        // Creates, updates, transfers, exclusions: a user is waiting on the form
+        WRITE,
+        // Single records, one class, search
+        READ,
+        // Whole-roster lists, exports, dashboard, sync: may wait, and queue in half the space
+        BULK,
+        // Never takes a permit (served from memory, or a stream that does not use the database)
+        EXEMPT
+    }
+}
@@ -0,0 +1,239 @@
+package com.issa.javahmz.admission;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+// Bulkhead in front of the connection pool. An /api request takes a permit before its
+// handler runs and returns it when the response is complete (a streamed export once its body
+// has been written). Work started outside a request (scheduled jobs, the startup builds of the
+// in-memory projections) takes a BULK permit through runInBackground; follow-up work on a
+// request's thread, such as a projection reload after a bulk change, runs under that
+// request's permit. There are as many permits as pooled connections, so work holding a
+// permit finds a free connection instead of waiting inside Hikari (whose own timeout is 30 s).
+// Requests that find no permit queue by priority (WRITE, then READ, then BULK, FIFO
+// within a priority). The queue is bounded and the wait is capped at admission.max-wait-ms;
+// past either limit acquire() throws IllegalStateException and the caller answers 503.
+// Background work is not turned away: it queues as BULK for as long as it takes.
+@Component
+public class DbAdmissionGate {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    @Value("${admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}")
+    private int permits;
+
+    @Value("${admission.max-queue:20}")
+    private int maxQueue;
+
+    @Value("${admission.max-wait-ms:3000}")
+    private long maxWaitMs;
+
+    @Value("${admission.retry-after-seconds:2}")
+    private int retryAfterSeconds;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<DbAdmission.Priority, Deque<Waiter>> queues = new EnumMap<>(DbAdmission.Priority.class);
+    private int available;
+    private int queued;
+
+    // Permit of the background work running on this thread
+    private final ThreadLocal<Permit> backgroundPermit = new ThreadLocal<>();
+
+    private static final class Waiter {
+        final Condition granted;
+        boolean admitted;
+
+        Waiter(Condition granted) {
+            this.granted = granted;
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        available = permits;
+        for (DbAdmission.Priority priority : DbAdmission.Priority.values()) {
+            if (priority == DbAdmission.Priority.EXEMPT) {
+                continue;
+            }
+            Deque<Waiter> queue = new ArrayDeque<>();
+            queues.put(priority, queue);
+            Gauge.builder("db.admission.queued", this, gate -> gate.queuedAt(queue))
+                    .description("Requests waiting for a database permit")
+                    .tag("priority", tag(priority))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("db.admission.in.use", this, gate -> gate.inUse())
+                .description("Database permits held by running requests and background jobs")
+                .register(meterRegistry);
+    }
+
+    // Take a permit, waiting in the priority queue if none is free
+    public Permit acquire(DbAdmission.Priority priority) {
+        return acquire(priority, false);
+    }
+
+    // Run a scheduled job or startup build under a BULK permit; waits until one is free
+    public void runInBackground(Runnable work) {
+        runInBackground(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // Nested calls run on the permit the thread already holds
+    public <T> T runInBackground(Supplier<T> work) {
+        if (!enabled || backgroundPermit.get() != null) {
+            return work.get();
+        }
+        Permit permit = acquire(DbAdmission.Priority.BULK, true);
+        backgroundPermit.set(permit);
+        try {
+            return work.get();
+        } finally {
+            backgroundPermit.remove();
+            permit.release();
+        }
+    }
+
+    private Permit acquire(DbAdmission.Priority priority, boolean background) {
+        long started = System.nanoTime();
+        String outcome;
+        lock.lock();
+        try {
+            if (available > 0) {
+                available--;
+                outcome = "admitted";
+            } else if (!background && queued >= queueLimit(priority)) {
+                outcome = "queue_full";
+            } else {
+                long maxWait = background ? Long.MAX_VALUE : TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+                outcome = await(priority, maxWait) ? "admitted" : "timeout";
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        waitTimer(priority, outcome).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!outcome.equals("admitted")) {
+            throw new IllegalStateException("The database is busy, try again shortly");
+        }
+        return new Permit();
+    }
+
+    // Seconds clients are told to wait before retrying a rejected request
+    public int getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    // Called with the lock held; true once a releasing request handed over its permit
+    private boolean await(DbAdmission.Priority priority, long maxWaitNanos) {
+        Waiter waiter = new Waiter(lock.newCondition());
+        Deque<Waiter> queue = queues.get(priority);
+        queue.addLast(waiter);
+        queued++;
+
+        long remaining = maxWaitNanos;
+        try {
+            while (!waiter.admitted && remaining > 0) {
+                remaining = waiter.granted.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!waiter.admitted) {
+            queue.remove(waiter);
+            queued--;
+        }
+        return waiter.admitted;
+    }
+
+    // Hand the permit straight to the longest-waiting request of the highest priority
+    private void release() {
+        lock.lock();
+        try {
+            for (Deque<Waiter> queue : queues.values()) {
+                Waiter next = queue.pollFirst();
+                if (next != null) {
+                    queued--;
+                    next.admitted = true;
+                    next.granted.signal();
+                    return;
+                }
+            }
+            available++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Bulk reads may fill only half the queue, so writes still find a place behind them
+    private int queueLimit(DbAdmission.Priority priority) {
+        return priority == DbAdmission.Priority.BULK ? maxQueue / 2 : maxQueue;
+    }
+
+    private int queuedAt(Deque<Waiter> queue) {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private int inUse() {
+        lock.lock();
+        try {
+            return permits - available;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // db.admission.wait{priority, outcome}: time from arrival to admission or rejection
+    private Timer waitTimer(DbAdmission.Priority priority, String outcome) {
+        return Timer.builder("db.admission.wait")
+                .description("Time requests waited for a database permit")
+                .tag("priority", tag(priority))
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    private static String tag(DbAdmission.Priority priority) {
+        return priority.name().toLowerCase(Locale.ROOT);
+    }
+
+    // Returned once, however many completion callbacks fire
+    public final class Permit {
+
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit() {
+        }
+
+        public void release() {
+            if (released.compareAndSet(false, true)) {
+                DbAdmissionGate.this.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.issa.javahmz.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Bounded LRU cache of (teacher type, name, class) -> teacher for the /access endpoints.
+// Misses are cached too, so a wrong name typed repeatedly does not reach the database.
+// The teacher services call invalidate() after every create/update/delete.
+@Component
+public class TeacherAccessCache {
+
+    @Value("${teacher.access-cache.max-entries:500}")
+    private int maxEntries;
+
+    @Value("${teacher.access-cache.ttl-ms:300000}")
+    private long ttlMs;
+
+    private record Key(Class<?> type, String name, String classTeaching) {
+    }
+
+    private record Entry(Optional<?> teacher, long expiresAtMillis) {
+    }
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+            if (size() > maxEntries) {
+                evictions.incrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    // Bumped on every invalidation; a load that started before the bump is not stored
+    private final Map<Class<?>, Long> generations = new HashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    // Return the cached teacher, or load it (outside the lock) and remember the result
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(Class<T> type, String name, String classTeaching, Supplier<Optional<T>> loader) {
+        Key key = new Key(type, name, classTeaching);
+        long generation;
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && entry.expiresAtMillis() > System.currentTimeMillis()) {
+                hits.incrementAndGet();
+                return (Optional<T>) entry.teacher();
+            }
+            if (entry != null) {
+                entries.remove(key);
+            }
+            generation = generations.getOrDefault(type, 0L);
+        }
+
+        misses.incrementAndGet();
+        Optional<T> teacher = loader.get();
+
+        synchronized (this) {
+            if (generations.getOrDefault(type, 0L) == generation) {
+                entries.put(key, new Entry(teacher, System.currentTimeMillis() + ttlMs));
+            }
+        }
+        return teacher;
+    }
+
+    // Drop every cached lookup for one teacher type
+    public synchronized void invalidate(Class<?> type) {
+        generations.merge(type, 1L, Long::sum);
+        entries.keySet().removeIf(key -> key.type() == type);
+    }
+
+    // Hit/miss counters since startup
+    public Map<String, Object> getStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups == 0 ? 0.0 : (double) hitCount / lookups);
+        stats.put("evictions", evictions.get());
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlMs", ttlMs);
+        return stats;
+    }
+}
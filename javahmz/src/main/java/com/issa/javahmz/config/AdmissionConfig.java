@@ -0,0 +1,50 @@
+package com.issa.javahmz.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issa.javahmz.admission.AdmissionInterceptor;
+import com.issa.javahmz.admission.DbAdmissionGate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Admission control for /api (see DbAdmissionGate). Runs before the other interceptors,
+// so a rejected request does no work and is not counted in the SQL metrics.
+@Configuration
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    @Autowired
+    private DbAdmissionGate dbAdmissionGate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${admission.enabled:true}")
+    private boolean enabled;
+
+    private AdmissionInterceptor admissionInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (enabled) {
+            registry.addInterceptor(interceptor()).addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+        }
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        if (enabled) {
+            configurer.registerCallableInterceptors(interceptor());
+        }
+    }
+
+    private AdmissionInterceptor interceptor() {
+        if (admissionInterceptor == null) {
+            admissionInterceptor = new AdmissionInterceptor(dbAdmissionGate, objectMapper);
+        }
+        return admissionInterceptor;
+    }
+}
@@ -18,6 +18,8 @@ public class CorsConfig implements WebMvcConfigurer {
                 )
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH", "HEAD")
                 .allowedHeaders("*")
+                // Read by the frontend: export file names, the truncated-list flag and the 503 back-off
+                .exposedHeaders("Content-Disposition", "X-Result-Truncated", "Retry-After")
                 .allowCredentials(true)  // Keep this if you use cookies/sessions
                 .maxAge(3600);
     }
@@ -2,10 +2,14 @@ package com.issa.javahmz.controller;
 
 import com.issa.javahmz.entity.AdultTeacher;
 import com.issa.javahmz.service.AdultTeacherService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,15 +23,23 @@ public class AdultTeacherController {
     @Autowired
     private AdultTeacherService adultTeacherService;
     
+    @Autowired
+    private TableVersions tableVersions;
+    
     // Get all adult teachers
     @GetMapping
-    public ResponseEntity<List<AdultTeacher>> getAllAdultTeachers() {
+    @SqlBudget(1)
+    public ResponseEntity<List<AdultTeacher>> getAllAdultTeachers(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.ADULT_TEACHERS))) {
+            return null;
+        }
         List<AdultTeacher> teachers = adultTeacherService.getAllAdultTeachers();
         return ResponseEntity.ok(teachers);
     }
     
     // Get adult teacher by ID
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getAdultTeacherById(@PathVariable Long id) {
         Optional<AdultTeacher> teacher = adultTeacherService.getAdultTeacherById(id);
         if (teacher.isPresent()) {
@@ -41,6 +53,7 @@ public class AdultTeacherController {
     
     // Create new adult teacher
     @PostMapping
+    @SqlBudget(2)
     public ResponseEntity<?> createAdultTeacher(@RequestBody AdultTeacher teacher) {
         try {
             AdultTeacher createdTeacher = adultTeacherService.createAdultTeacher(teacher);
@@ -54,6 +67,7 @@ public class AdultTeacherController {
     
     // Update adult teacher
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> updateAdultTeacher(@PathVariable Long id, @RequestBody AdultTeacher teacherDetails) {
         try {
             AdultTeacher updatedTeacher = adultTeacherService.updateAdultTeacher(id, teacherDetails);
@@ -67,6 +81,7 @@ public class AdultTeacherController {
     
     // Delete adult teacher
     @DeleteMapping("/{id}")
+    @SqlBudget(3)  // load + DELETE + the /api/sync tombstone written by DeletionRecorder
     public ResponseEntity<?> deleteAdultTeacher(@PathVariable Long id) {
         try {
             adultTeacherService.deleteAdultTeacher(id);
@@ -82,6 +97,7 @@ public class AdultTeacherController {
     
     // Search adult teachers by name
     @GetMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<AdultTeacher>> searchAdultTeachers(@RequestParam String name) {
         List<AdultTeacher> teachers = adultTeacherService.searchAdultTeachers(name);
         return ResponseEntity.ok(teachers);
@@ -89,6 +105,7 @@ public class AdultTeacherController {
     
     // Adult teacher login/access
     @PostMapping("/access")
+    @SqlBudget(1)
     public ResponseEntity<?> accessAdultTeacher(@RequestBody Map<String, String> credentials) {
         String name = credentials.get("name");
         String classTeaching = credentials.get("classTeaching");
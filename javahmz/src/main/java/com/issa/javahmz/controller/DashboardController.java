@@ -0,0 +1,26 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.service.DashboardService;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    @Autowired
+    private DashboardService dashboardService;
+
+    // Get totals, gender splits and per-teacher counts for every roster in one document
+    @GetMapping("/summary")
+    @SqlBudget(5)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<Map<String, Object>> getSummary() {
+        return ResponseEntity.ok(dashboardService.getSummary());
+    }
+}
@@ -0,0 +1,163 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.entity.DistributionCampaign;
+import com.issa.javahmz.entity.DistributionRecord;
+import com.issa.javahmz.service.DistributionService;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/distributions")
+public class DistributionController {
+
+    @Autowired
+    private DistributionService distributionService;
+
+    // Get campaigns (optionally ?roster=STUDENTS|ADULT_STUDENTS|MEN_STUDENTS), newest first
+    @GetMapping("/campaigns")
+    @SqlBudget(1)
+    public ResponseEntity<?> getCampaigns(@RequestParam(required = false) String roster) {
+        try {
+            return ResponseEntity.ok(distributionService.getCampaigns(roster));
+        } catch (IllegalArgumentException e) {
+            return message(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Create campaign: {name, roster, distributionType}
+    @PostMapping("/campaigns")
+    @SqlBudget(1)
+    public ResponseEntity<?> createCampaign(@RequestBody Map<String, String> request) {
+        try {
+            DistributionCampaign campaign = distributionService.createCampaign(
+                    request.get("name"), request.get("roster"), request.get("distributionType"));
+            return ResponseEntity.status(HttpStatus.CREATED).body(campaign);
+        } catch (IllegalArgumentException e) {
+            return message(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Latest campaign of a roster and type, created on first use: {name, roster, distributionType}
+    @PutMapping("/campaigns/current")
+    @SqlBudget(2)  // lookup + insert on first use
+    public ResponseEntity<?> currentCampaign(@RequestBody Map<String, String> request) {
+        try {
+            return ResponseEntity.ok(distributionService.currentCampaign(
+                    request.get("name"), request.get("roster"), request.get("distributionType")));
+        } catch (IllegalArgumentException e) {
+            return message(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    // Delete campaign and its records
+    @DeleteMapping("/campaigns/{id}")
+    @SqlBudget(3)
+    public ResponseEntity<?> deleteCampaign(@PathVariable Long id) {
+        try {
+            distributionService.deleteCampaign(id);
+            return message(HttpStatus.OK, "Campaign deleted successfully");
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Get who received the item, when and from whom
+    @GetMapping("/campaigns/{id}/records")
+    @SqlBudget(1)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<?> getRecords(@PathVariable Long id) {
+        try {
+            List<DistributionRecord> records = distributionService.getRecords(id);
+            return ResponseEntity.ok(records);
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Mark one student (roster row id) as received; optional body {distributedBy, distributedAt}.
+    // distributedAt (ISO instant) keeps the date of a handout recorded earlier, e.g. in the browser.
+    @PutMapping("/campaigns/{id}/students/{studentRowId}")
+    @SqlBudget(1)
+    public ResponseEntity<?> markReceived(
+            @PathVariable Long id,
+            @PathVariable Long studentRowId,
+            @RequestBody(required = false) Map<String, String> request) {
+        try {
+            String distributedBy = request != null ? request.get("distributedBy") : null;
+            String distributedAt = request != null ? request.get("distributedAt") : null;
+            boolean changed = distributionService.mark(id, studentRowId, distributedBy, distributedAt != null
+                    ? LocalDateTime.ofInstant(Instant.parse(distributedAt), ZoneId.systemDefault())
+                    : null);
+            Map<String, Object> response = new HashMap<>();
+            response.put("received", true);
+            response.put("changed", changed);
+            return ResponseEntity.ok(response);
+        } catch (DateTimeParseException e) {
+            return message(HttpStatus.BAD_REQUEST, "distributedAt must be an ISO instant, e.g. 2024-03-01T09:30:00Z");
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Unmark one student
+    @DeleteMapping("/campaigns/{id}/students/{studentRowId}")
+    @SqlBudget(1)
+    public ResponseEntity<?> unmarkReceived(@PathVariable Long id, @PathVariable Long studentRowId) {
+        try {
+            boolean changed = distributionService.unmark(id, studentRowId);
+            Map<String, Object> response = new HashMap<>();
+            response.put("received", false);
+            response.put("changed", changed);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Unmark every student of one teacher
+    @DeleteMapping("/campaigns/{id}/students")
+    @SqlBudget(1)  // one DELETE per 1000 marked students of the teacher
+    public ResponseEntity<?> unmarkTeacher(@PathVariable Long id, @RequestParam String ustadh) {
+        try {
+            int cleared = distributionService.unmarkTeacher(id, ustadh);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Distribution records cleared successfully");
+            response.put("clearedCount", cleared);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    // Get received/pending counts (?ustadh= for one teacher, otherwise the whole roster by teacher)
+    @GetMapping("/campaigns/{id}/counts")
+    @SqlBudget(0)
+    @DbAdmission(DbAdmission.Priority.EXEMPT)
+    public ResponseEntity<?> getCounts(@PathVariable Long id, @RequestParam(required = false) String ustadh) {
+        try {
+            return ResponseEntity.ok(distributionService.getCounts(id, ustadh));
+        } catch (IllegalStateException e) {
+            return message(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        } catch (RuntimeException e) {
+            return message(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<Map<String, String>> message(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        return ResponseEntity.status(status).body(response);
+    }
+}
@@ -8,12 +8,17 @@ import com.issa.javahmz.repository.StudentRepository;
 import com.issa.javahmz.repository.AdultStudentRepository;
 import com.issa.javahmz.repository.MenStudentRepository;
 import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.registry.StudentIdRegistry;
+import com.issa.javahmz.registry.StudentIdRegistry.Registration;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -33,64 +38,124 @@ public class DuplicateCheckController {
     @Autowired
     private ExcludedStudentRepository excludedStudentRepository;
     
+    @Autowired
+    private StudentIdRegistry studentIdRegistry;
+    
     @GetMapping("/student/{studentId}")
+    @SqlBudget(4)
     public ResponseEntity<Map<String, Object>> checkStudentDuplicate(@PathVariable String studentId) {
-        Map<String, Object> response = new HashMap<>();
+        Optional<List<Registration>> registrations = studentIdRegistry.lookup(studentId);
+        if (registrations.isEmpty()) {
+            // Registry still loading - ask the tables directly
+            return ResponseEntity.ok(checkStudentDuplicateInDatabase(studentId));
+        }
+        
+        // Answered from memory; only a hit costs one primary-key read for "data"
+        List<Registration> found = registrations.get();
+        
+        Optional<Registration> regular = firstIn(found, TrackedTable.STUDENTS);
+        if (regular.isPresent()) {
+            Optional<Student> regularStudent = studentRepository.findById(regular.get().rowId());
+            if (regularStudent.isPresent()) {
+                return ResponseEntity.ok(duplicate("REGULAR_STUDENT", regularStudent.get(),
+                        "Student already registered as regular student with ID: " + studentId));
+            }
+        }
+        
+        Optional<Registration> adult = firstIn(found, TrackedTable.ADULT_STUDENTS);
+        if (adult.isPresent()) {
+            Optional<AdultStudent> adultStudent = adultStudentRepository.findById(adult.get().rowId());
+            if (adultStudent.isPresent()) {
+                return ResponseEntity.ok(duplicate("ADULT_STUDENT", adultStudent.get(),
+                        "Student already registered as adult student with ID: " + studentId));
+            }
+        }
+        
+        Optional<Registration> men = firstIn(found, TrackedTable.MEN_STUDENTS);
+        if (men.isPresent()) {
+            Optional<MenStudent> menStudent = menStudentRepository.findById(men.get().rowId());
+            if (menStudent.isPresent()) {
+                return ResponseEntity.ok(duplicate("MEN_STUDENT", menStudent.get(),
+                        "Student already registered in men's list with ID: " + studentId));
+            }
+        }
+        
+        // Excluded within the last 3 years
+        LocalDate threeYearsAgo = LocalDate.now().minusYears(3);
+        Optional<Registration> excluded = found.stream()
+            .filter(r -> r.table() == TrackedTable.EXCLUDED_STUDENTS)
+            .filter(r -> r.excludedDate() != null && r.excludedDate().isAfter(threeYearsAgo))
+            .findFirst();
+        if (excluded.isPresent()) {
+            Optional<ExcludedStudent> excludedStudent = excludedStudentRepository.findById(excluded.get().rowId());
+            if (excludedStudent.isPresent()) {
+                return ResponseEntity.ok(duplicate("EXCLUDED_STUDENT", excludedStudent.get(),
+                        "Student was excluded on " + excludedStudent.get().getExcludedDate() + " and cannot re-register yet"));
+            }
+        }
         
+        return ResponseEntity.ok(available(studentId));
+    }
+    
+    // Original query path: regular, adult and men rosters, then excluded rows with the 3-year filter
+    private Map<String, Object> checkStudentDuplicateInDatabase(String studentId) {
         // Check in regular students
         Optional<Student> regularStudent = studentRepository.findByStudentId(studentId);
         if (regularStudent.isPresent()) {
-            response.put("exists", true);
-            response.put("type", "REGULAR_STUDENT");
-            response.put("data", regularStudent.get());
-            response.put("message", "Student already registered as regular student with ID: " + studentId);
-            return ResponseEntity.ok(response);
+            return duplicate("REGULAR_STUDENT", regularStudent.get(),
+                    "Student already registered as regular student with ID: " + studentId);
         }
         
         // Check in adult students
         Optional<AdultStudent> adultStudent = adultStudentRepository.findByStudentId(studentId);
         if (adultStudent.isPresent()) {
-            response.put("exists", true);
-            response.put("type", "ADULT_STUDENT");
-            response.put("data", adultStudent.get());
-            response.put("message", "Student already registered as adult student with ID: " + studentId);
-            return ResponseEntity.ok(response);
+            return duplicate("ADULT_STUDENT", adultStudent.get(),
+                    "Student already registered as adult student with ID: " + studentId);
         }
         
         // Check in men's list
         Optional<MenStudent> menStudent = menStudentRepository.findByStudentId(studentId);
         if (menStudent.isPresent()) {
-            response.put("exists", true);
-            response.put("type", "MEN_STUDENT");
-            response.put("data", menStudent.get());
-            response.put("message", "Student already registered in men's list with ID: " + studentId);
-            return ResponseEntity.ok(response);
+            return duplicate("MEN_STUDENT", menStudent.get(),
+                    "Student already registered in men's list with ID: " + studentId);
         }
         
         // Check in excluded students (not expired)
+        LocalDate threeYearsAgo = LocalDate.now().minusYears(3);
         Optional<ExcludedStudent> excludedStudent = excludedStudentRepository.findByStudentId(studentId)
             .stream()
-            .filter(es -> {
-                // Check if excluded within last 3 years
-                LocalDate threeYearsAgo = LocalDate.now().minusYears(3);
-                return es.getExcludedDate().isAfter(threeYearsAgo);
-            })
+            .filter(es -> es.getExcludedDate().isAfter(threeYearsAgo))
             .findFirst();
-            
         if (excludedStudent.isPresent()) {
-            response.put("exists", true);
-            response.put("type", "EXCLUDED_STUDENT");
-            response.put("data", excludedStudent.get());
-            response.put("message", "Student was excluded on " + excludedStudent.get().getExcludedDate() + " and cannot re-register yet");
-            return ResponseEntity.ok(response);
+            return duplicate("EXCLUDED_STUDENT", excludedStudent.get(),
+                    "Student was excluded on " + excludedStudent.get().getExcludedDate() + " and cannot re-register yet");
         }
         
+        return available(studentId);
+    }
+    
+    private static Optional<Registration> firstIn(List<Registration> registrations, TrackedTable table) {
+        return registrations.stream().filter(r -> r.table() == table).findFirst();
+    }
+    
+    private static Map<String, Object> duplicate(String type, Object data, String message) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("exists", true);
+        response.put("type", type);
+        response.put("data", data);
+        response.put("message", message);
+        return response;
+    }
+    
+    private static Map<String, Object> available(String studentId) {
+        Map<String, Object> response = new HashMap<>();
         response.put("exists", false);
         response.put("message", "Student ID " + studentId + " is available for registration");
-        return ResponseEntity.ok(response);
+        return response;
     }
     
     @GetMapping("/name")
+    @SqlBudget(3)
     public ResponseEntity<Map<String, Object>> checkNameDuplicate(
             @RequestParam String name,
             @RequestParam(required = false) String studentId) {
@@ -1,9 +1,8 @@
 package com.issa.javahmz.controller;
 
 import com.issa.javahmz.entity.ExcludedStudent;
-import com.issa.javahmz.entity.Student;
 import com.issa.javahmz.service.ExcludedStudentService;
-import com.issa.javahmz.service.StudentService;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -16,23 +15,17 @@ import java.util.Map;
 @RequestMapping("/api/exclude")
 public class ExcludeController {
     
-    @Autowired
-    private StudentService studentService;
-    
     @Autowired
     private ExcludedStudentService excludedStudentService;
     
-    // Exclude a student (move from active to excluded)
+    // Exclude a student: one UPDATE moves the row from active to excluded
     @PostMapping("/student/{studentId}")
+    @SqlBudget(4)
     public ResponseEntity<?> excludeStudent(
             @PathVariable Long studentId,
             @RequestBody Map<String, String> exclusionData) {
         
         try {
-            // Get the student to exclude
-            Student student = studentService.getStudentById(studentId)
-                    .orElseThrow(() -> new RuntimeException("Student not found with id: " + studentId));
-            
             // Get exclusion details
             String excludedBy = exclusionData.get("excludedBy");
             String reason = exclusionData.get("reason");
@@ -43,14 +36,10 @@ public class ExcludeController {
                 throw new RuntimeException("excludedBy, reason, and exclusionType are required");
             }
             
-            // Save to excluded students
             ExcludedStudent excludedStudent = excludedStudentService.excludeStudent(
-                    student, excludedBy, reason, exclusionType, additionalNotes
+                    studentId, excludedBy, reason, exclusionType, additionalNotes
             );
             
-            // Delete from active students
-            studentService.deleteStudent(studentId);
-            
             Map<String, Object> response = new HashMap<>();
             response.put("message", "Student excluded successfully");
             response.put("excludedStudent", excludedStudent);
@@ -63,4 +52,17 @@ public class ExcludeController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
         }
     }
+    
+    // Exclude many students in one request (end-of-term clear-outs); returns a per-id report
+    @PostMapping("/students")
+    @SqlBudget(4)  // id lookup + UPDATE batch + tombstone insert + rollup upsert; constant in the number of ids
+    public ResponseEntity<?> excludeStudents(@RequestBody Map<String, Object> request) {
+        try {
+            return ResponseEntity.ok(excludedStudentService.excludeStudents(request));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
 }
\ No newline at end of file
@@ -2,11 +2,18 @@ package com.issa.javahmz.controller;
 
 import com.issa.javahmz.entity.ExcludedStudent;
 import com.issa.javahmz.service.ExcludedStudentService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -18,15 +25,24 @@ public class ExcludedStudentController {
     @Autowired
     private ExcludedStudentService excludedStudentService;
     
+    @Autowired
+    private TableVersions tableVersions;
+    
     // Get all excluded students
     @GetMapping
-    public ResponseEntity<List<ExcludedStudent>> getAllExcludedStudents() {
+    @SqlBudget(1)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<List<ExcludedStudent>> getAllExcludedStudents(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.EXCLUDED_STUDENTS))) {
+            return null;
+        }
         List<ExcludedStudent> excludedStudents = excludedStudentService.getAllExcludedStudents();
         return ResponseEntity.ok(excludedStudents);
     }
     
     // Get excluded student by ID
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getExcludedStudentById(@PathVariable Long id) {
         try {
             ExcludedStudent excludedStudent = excludedStudentService.getExcludedStudentById(id);
@@ -40,22 +56,32 @@ public class ExcludedStudentController {
     
     // Get excluded students by teacher
     @GetMapping("/by-teacher/{ustadh}")
-    public ResponseEntity<List<ExcludedStudent>> getExcludedStudentsByTeacher(@PathVariable String ustadh) {
+    @SqlBudget(1)
+    public ResponseEntity<List<ExcludedStudent>> getExcludedStudentsByTeacher(@PathVariable String ustadh, WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.EXCLUDED_STUDENTS))) {
+            return null;
+        }
         List<ExcludedStudent> excludedStudents = excludedStudentService.getExcludedStudentsByTeacher(ustadh);
         return ResponseEntity.ok(excludedStudents);
     }
     
     // Get excluded students by teacher and class
     @GetMapping("/by-teacher-class")
+    @SqlBudget(1)
     public ResponseEntity<List<ExcludedStudent>> getExcludedStudentsByTeacherAndClass(
             @RequestParam String ustadh, 
-            @RequestParam String classTeaching) {
+            @RequestParam String classTeaching,
+            WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.EXCLUDED_STUDENTS))) {
+            return null;
+        }
         List<ExcludedStudent> excludedStudents = excludedStudentService.getExcludedStudentsByTeacherAndClass(ustadh, classTeaching);
         return ResponseEntity.ok(excludedStudents);
     }
     
     // Get excluded students this month
     @GetMapping("/this-month")
+    @SqlBudget(1)
     public ResponseEntity<List<ExcludedStudent>> getExcludedStudentsThisMonth() {
         List<ExcludedStudent> excludedStudents = excludedStudentService.getExcludedStudentsThisMonth();
         return ResponseEntity.ok(excludedStudents);
@@ -63,6 +89,7 @@ public class ExcludedStudentController {
     
     // Search excluded students
     @GetMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<ExcludedStudent>> searchExcludedStudents(@RequestParam String q) {
         List<ExcludedStudent> excludedStudents = excludedStudentService.searchExcludedStudents(q);
         return ResponseEntity.ok(excludedStudents);
@@ -70,11 +97,12 @@ public class ExcludedStudentController {
     
     // Delete excluded student (permanent)
     @DeleteMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> deleteExcludedStudent(@PathVariable Long id) {
         try {
-            excludedStudentService.deleteExcludedStudent(id);
+            boolean deleted = excludedStudentService.deleteExcludedStudent(id);
             Map<String, String> response = new HashMap<>();
-            response.put("message", "Excluded student permanently deleted");
+            response.put("message", deleted ? "Excluded student permanently deleted" : "Student has been restored and is no longer excluded");
             return ResponseEntity.ok(response);
         } catch (RuntimeException e) {
             Map<String, String> response = new HashMap<>();
@@ -83,17 +111,30 @@ public class ExcludedStudentController {
         }
     }
     
-    // Get statistics
+    // Get statistics (totals, by type / month / teacher, exclusion rate); cached until the next write
     @GetMapping("/statistics")
+    @SqlBudget(1)
+    @DbAdmission(DbAdmission.Priority.BULK)
     public ResponseEntity<Map<String, Object>> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
-        
-        Long totalExcluded = excludedStudentService.countAllExcludedStudents();
-        Long excludedThisMonth = excludedStudentService.countExcludedStudentsThisMonth();
-        
-        stats.put("totalExcluded", totalExcluded);
-        stats.put("excludedThisMonth", excludedThisMonth);
-        
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(excludedStudentService.getStatistics());
+    }
+    
+    // Monthly exclusion counts (total and by type) for trend charts, from the monthly rollup.
+    // from/to are YYYY-MM, both inclusive; default is the last 36 months
+    @GetMapping("/trends")
+    @SqlBudget(1)
+    public ResponseEntity<?> getMonthlyTrends(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String ustadh) {
+        try {
+            YearMonth toMonth = to != null ? YearMonth.parse(to) : YearMonth.now();
+            YearMonth fromMonth = from != null ? YearMonth.parse(from) : toMonth.minusMonths(35);
+            return ResponseEntity.ok(excludedStudentService.getMonthlyTrends(fromMonth, toMonth, ustadh));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e instanceof DateTimeParseException ? "from and to must be YYYY-MM" : e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,54 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.service.RosterExportService.RosterExport;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+
+// Responses of the roster /export endpoints. A streamed body needs the
+// ResponseEntity<StreamingResponseBody> return type, so errors are written the same way.
+final class ExportResponses {
+
+    private ExportResponses() {
+    }
+
+    // The file as an attachment
+    static ResponseEntity<StreamingResponseBody> file(RosterExport export) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(export.fileName()).build().toString())
+                .header(HttpHeaders.CONTENT_TYPE, export.contentType())
+                .body(export.body());
+    }
+
+    // {"message": ...} with the given status
+    static ResponseEntity<StreamingResponseBody> message(HttpStatus status, String message) {
+        String json = "{\"message\":\"" + escape(message) + "\"}";
+        return ResponseEntity.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> out.write(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
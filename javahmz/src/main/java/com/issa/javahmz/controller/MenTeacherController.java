@@ -2,10 +2,14 @@ package com.issa.javahmz.controller;
 
 import com.issa.javahmz.entity.MenTeacher;
 import com.issa.javahmz.service.MenTeacherService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,15 +23,23 @@ public class MenTeacherController {
     @Autowired
     private MenTeacherService menTeacherService;
     
+    @Autowired
+    private TableVersions tableVersions;
+    
     // Get all men teachers
     @GetMapping
-    public ResponseEntity<List<MenTeacher>> getAllMenTeachers() {
+    @SqlBudget(1)
+    public ResponseEntity<List<MenTeacher>> getAllMenTeachers(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.MEN_TEACHERS))) {
+            return null;
+        }
         List<MenTeacher> teachers = menTeacherService.getAllMenTeachers();
         return ResponseEntity.ok(teachers);
     }
     
     // Get men teacher by ID
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getMenTeacherById(@PathVariable Long id) {
         Optional<MenTeacher> teacher = menTeacherService.getMenTeacherById(id);
         if (teacher.isPresent()) {
@@ -41,6 +53,7 @@ public class MenTeacherController {
     
     // Create new men teacher
     @PostMapping
+    @SqlBudget(2)
     public ResponseEntity<?> createMenTeacher(@RequestBody MenTeacher teacher) {
         try {
             MenTeacher createdTeacher = menTeacherService.createMenTeacher(teacher);
@@ -54,6 +67,7 @@ public class MenTeacherController {
     
     // Update men teacher
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> updateMenTeacher(@PathVariable Long id, @RequestBody MenTeacher teacherDetails) {
         try {
             MenTeacher updatedTeacher = menTeacherService.updateMenTeacher(id, teacherDetails);
@@ -67,6 +81,7 @@ public class MenTeacherController {
     
     // Delete men teacher
     @DeleteMapping("/{id}")
+    @SqlBudget(3)  // load + DELETE + the /api/sync tombstone written by DeletionRecorder
     public ResponseEntity<?> deleteMenTeacher(@PathVariable Long id) {
         try {
             menTeacherService.deleteMenTeacher(id);
@@ -82,6 +97,7 @@ public class MenTeacherController {
     
     // Search men teachers by name
     @GetMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<MenTeacher>> searchMenTeachers(@RequestParam String name) {
         List<MenTeacher> teachers = menTeacherService.searchMenTeachers(name);
         return ResponseEntity.ok(teachers);
@@ -89,6 +105,7 @@ public class MenTeacherController {
     
     // Men teacher login/access
     @PostMapping("/access")
+    @SqlBudget(1)
     public ResponseEntity<?> accessMenTeacher(@RequestBody Map<String, String> credentials) {
         String name = credentials.get("name");
         String classTeaching = credentials.get("classTeaching");
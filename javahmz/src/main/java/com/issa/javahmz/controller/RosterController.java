@@ -0,0 +1,308 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.entity.RosterMember;
+import com.issa.javahmz.service.RosterService;
+import com.issa.javahmz.service.RosterExportService;
+import com.issa.javahmz.service.RosterImportService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// Endpoints shared by /api/students, /api/adult-students and /api/men-students. Subclasses
+// carry the @RestController and @RequestMapping and add their roster-only endpoints.
+// SQL budgets are those of the student roster, whose writes also check excluded IDs.
+public abstract class RosterController<T extends RosterMember> {
+
+    @Autowired
+    private RosterService<T> service;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Autowired
+    private RosterImportService rosterImportService;
+
+    @Autowired
+    private RosterExportService rosterExportService;
+
+    private final String label;
+
+    private final String plural;
+
+    // label and plural go into the response messages, e.g. "Adult student" / "adult students"
+    protected RosterController(String label, String plural) {
+        this.label = label;
+        this.plural = plural;
+    }
+
+    // Get all students (capped; X-Result-Truncated is set when the cap was hit)
+    @GetMapping
+    @SqlBudget(1)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<List<T>> getAll(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(service.getTable()))) {
+            return null;
+        }
+        RosterService.Unpaged<T> students = service.getAll();
+        return ResponseEntity.ok()
+                .header("X-Result-Truncated", String.valueOf(students.truncated()))
+                .body(students.rows());
+    }
+
+    // Get one page of students (keyset on name, id); pass nextCursor back as ?cursor= for the next page
+    @GetMapping("/page")
+    @SqlBudget(1)
+    public ResponseEntity<?> getPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size,
+            WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(service.getTable()))) {
+            return null;
+        }
+        try {
+            return ResponseEntity.ok(service.getPage(cursor, size));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    // Get student by ID
+    @GetMapping("/{id}")
+    @SqlBudget(1)
+    public ResponseEntity<?> getById(@PathVariable Long id) {
+        Optional<T> student = service.getById(id);
+        if (student.isPresent()) {
+            return ResponseEntity.ok(student.get());
+        } else {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", label + " not found with id: " + id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    // Get student by student ID
+    @GetMapping("/by-student-id/{studentId}")
+    @SqlBudget(1)
+    public ResponseEntity<?> getByStudentId(@PathVariable String studentId) {
+        Optional<T> student = service.getByStudentId(studentId);
+        if (student.isPresent()) {
+            return ResponseEntity.ok(student.get());
+        } else {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", label + " not found with student ID: " + studentId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    // Get students by teacher
+    @GetMapping("/by-teacher/{ustadh}")
+    @SqlBudget(1)
+    public ResponseEntity<List<T>> getByTeacher(@PathVariable String ustadh, WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(service.getTable()))) {
+            return null;
+        }
+        List<T> students = service.getByTeacher(ustadh);
+        return ResponseEntity.ok(students);
+    }
+
+    // Get students by teacher and class
+    @GetMapping("/by-teacher-class")
+    @SqlBudget(1)
+    public ResponseEntity<List<T>> getByTeacherAndClass(
+            @RequestParam String ustadh,
+            @RequestParam String classTeaching,
+            WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(service.getTable()))) {
+            return null;
+        }
+        List<T> students = service.getByTeacherAndClass(ustadh, classTeaching);
+        return ResponseEntity.ok(students);
+    }
+
+    // Create new student (?restore=true is honoured by rosters that support exclusion)
+    @PostMapping
+    @SqlBudget(4)  // a student restore also takes the row out of the exclusion rollup
+    public ResponseEntity<?> create(
+            @RequestBody T student,
+            @RequestParam(required = false, defaultValue = "false") boolean restore) {
+        try {
+            T createdStudent = createOrRestore(student, restore);
+            return ResponseEntity.status(HttpStatus.CREATED).body(createdStudent);
+        } catch (RuntimeException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    protected T createOrRestore(T student, boolean restore) {
+        return service.create(student);
+    }
+
+    // Bulk import students from a .csv or .json upload (multipart field "file"); returns a per-row report
+    @PostMapping(value = "/import", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @SqlBudget(10)  // ID lookups per 1000 rows + INSERT batch + the projection reloads on the BULK event
+    public ResponseEntity<?> importFile(@RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(rosterImportService.importFile(service, file));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DataIntegrityViolationException e) {
+            return importConflict();
+        }
+    }
+
+    // Bulk import students from a JSON array body; returns a per-row report
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @SqlBudget(10)  // ID lookups per 1000 rows + INSERT batch + the projection reloads on the BULK event
+    public ResponseEntity<?> importJson(@RequestBody List<Map<String, Object>> rows) {
+        try {
+            return ResponseEntity.ok(rosterImportService.importJson(service, rows));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        } catch (DataIntegrityViolationException e) {
+            return importConflict();
+        }
+    }
+
+    // A student ID was registered by someone else between validation and insert; nothing was imported
+    private ResponseEntity<Map<String, String>> importConflict() {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Import rolled back: a student ID in this upload was registered concurrently. Please retry.");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(response);
+    }
+
+    // Export one teacher's students (optionally one class) as ?format=csv|xlsx|pdf, streamed from the database
+    @GetMapping("/export")
+    @SqlBudget(0)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam String ustadh,
+            @RequestParam(required = false) String classTeaching,
+            @RequestParam(required = false) String format) {
+        try {
+            return ExportResponses.file(rosterExportService.exportClassList(service, ustadh, classTeaching, format));
+        } catch (IllegalArgumentException e) {
+            return ExportResponses.message(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return ExportResponses.message(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Export all students as a zip with one ?format=csv|xlsx|pdf file per teacher
+    @GetMapping("/export/by-teacher")
+    @SqlBudget(0)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<StreamingResponseBody> exportByTeacher(@RequestParam(required = false) String format) {
+        try {
+            return ExportResponses.file(rosterExportService.exportAllByTeacher(service, format));
+        } catch (IllegalArgumentException e) {
+            return ExportResponses.message(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return ExportResponses.message(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    // Update student
+    @PutMapping("/{id}")
+    @SqlBudget(4)
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody T studentDetails) {
+        try {
+            T updatedStudent = service.update(id, studentDetails);
+            return ResponseEntity.ok(updatedStudent);
+        } catch (RuntimeException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    // Delete student
+    @DeleteMapping("/{id}")
+    @SqlBudget(3)  // load + DELETE + the /api/sync tombstone written by DeletionRecorder
+    public ResponseEntity<?> delete(@PathVariable Long id) {
+        try {
+            service.delete(id);
+            Map<String, String> response = new HashMap<>();
+            response.put("message", label + " deleted successfully");
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    // Delete students by teacher
+    @DeleteMapping("/by-teacher/{ustadh}")
+    @SqlBudget(3)
+    public ResponseEntity<?> deleteByTeacher(@PathVariable String ustadh) {
+        try {
+            int deleted = service.deleteByTeacher(ustadh);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "All " + plural + " for teacher " + ustadh + " deleted successfully");
+            response.put("deletedCount", deleted);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
+        }
+    }
+
+    // Count students by teacher
+    @GetMapping("/count-by-teacher/{ustadh}")
+    @SqlBudget(1)
+    public ResponseEntity<Long> countByTeacher(@PathVariable String ustadh) {
+        Long count = service.countByTeacher(ustadh);
+        return ResponseEntity.ok(count);
+    }
+
+    // Update classTeaching for all students of a specific teacher
+    @PutMapping("/update-class")
+    @SqlBudget(2)
+    public ResponseEntity<?> updateClass(
+            @RequestParam String ustadh,
+            @RequestParam String oldClassTeaching,
+            @RequestParam String newClassTeaching) {
+        try {
+            int updated = service.updateClass(ustadh, oldClassTeaching, newClassTeaching);
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "All " + plural + " updated to new class successfully");
+            response.put("updatedCount", updated);
+            return ResponseEntity.ok(response);
+        } catch (RuntimeException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+
+    // Search students
+    @GetMapping("/search")
+    @SqlBudget(1)
+    public ResponseEntity<List<T>> search(@RequestParam String q) {
+        List<T> students = service.search(q);
+        return ResponseEntity.ok(students);
+    }
+}
@@ -0,0 +1,72 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.feed.RosterFeed;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/roster-events")
+public class RosterFeedController {
+
+    private static final Set<TrackedTable> ROSTERS = Set.of(
+            TrackedTable.STUDENTS, TrackedTable.ADULT_STUDENTS, TrackedTable.MEN_STUDENTS);
+
+    @Autowired
+    private RosterFeed rosterFeed;
+
+    // Live roster changes as Server-Sent Events (EventSource). Optional filters:
+    // ?roster=STUDENTS|ADULT_STUDENTS|MEN_STUDENTS&ustadh=...&classTeaching=... (case-insensitive).
+    // "roster" events carry {type, roster, id, studentId, name, ustadh, classTeaching,
+    // fromUstadh, fromClassTeaching, count, at}; on "resync" reload the list.
+    // The body is an emitter either way, so errors are sent as a one-off JSON message.
+    @GetMapping
+    @SqlBudget(0)
+    @DbAdmission(DbAdmission.Priority.EXEMPT)
+    public ResponseEntity<ResponseBodyEmitter> subscribe(
+            @RequestParam(required = false) String roster,
+            @RequestParam(required = false) String ustadh,
+            @RequestParam(required = false) String classTeaching) {
+        TrackedTable table = null;
+        if (roster != null && !roster.isBlank()) {
+            try {
+                table = TrackedTable.valueOf(roster.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                table = null;
+            }
+            if (table == null || !ROSTERS.contains(table)) {
+                return message(HttpStatus.BAD_REQUEST, "roster must be one of STUDENTS, ADULT_STUDENTS, MEN_STUDENTS");
+            }
+        }
+        try {
+            return ResponseEntity.ok(rosterFeed.subscribe(table, ustadh, classTeaching));
+        } catch (IllegalStateException e) {
+            return message(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<ResponseBodyEmitter> message(HttpStatus status, String message) {
+        Map<String, String> response = new HashMap<>();
+        response.put("message", message);
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter();
+        try {
+            emitter.send(response, MediaType.APPLICATION_JSON);
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+        return ResponseEntity.status(status).contentType(MediaType.APPLICATION_JSON).body(emitter);
+    }
+}
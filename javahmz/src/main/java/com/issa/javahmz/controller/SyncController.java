@@ -0,0 +1,37 @@
+package com.issa.javahmz.controller;
+
+import com.issa.javahmz.service.SyncService;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    @Autowired
+    private SyncService syncService;
+
+    // Get rows changed since ?since=<token> for every roster and teacher table:
+    // {token, full, tables: {STUDENTS: {upserts: [...], deletes: [ids]}, ...}}.
+    // Apply upserts, then deletes, and send the returned token next time.
+    // Without a token (or with an expired one) every row is returned and "full" is true.
+    @GetMapping
+    @SqlBudget(8)
+    @DbAdmission(DbAdmission.Priority.BULK)
+    public ResponseEntity<?> sync(@RequestParam(required = false) String since) {
+        try {
+            return ResponseEntity.ok(syncService.changesSince(since));
+        } catch (IllegalArgumentException e) {
+            Map<String, String> response = new HashMap<>();
+            response.put("message", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(response);
+        }
+    }
+}
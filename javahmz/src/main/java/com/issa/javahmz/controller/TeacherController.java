@@ -1,11 +1,17 @@
 package com.issa.javahmz.controller;
 
+import com.issa.javahmz.cache.TeacherAccessCache;
 import com.issa.javahmz.entity.Teacher;
 import com.issa.javahmz.service.TeacherService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.admission.DbAdmission;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,15 +25,26 @@ public class TeacherController {
     @Autowired
     private TeacherService teacherService;
     
+    @Autowired
+    private TableVersions tableVersions;
+    
+    @Autowired
+    private TeacherAccessCache teacherAccessCache;
+    
     // Get all teachers
     @GetMapping
-    public ResponseEntity<List<Teacher>> getAllTeachers() {
+    @SqlBudget(1)
+    public ResponseEntity<List<Teacher>> getAllTeachers(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.TEACHERS))) {
+            return null;
+        }
         List<Teacher> teachers = teacherService.getAllTeachers();
         return ResponseEntity.ok(teachers);
     }
     
     // Get teacher by ID
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getTeacherById(@PathVariable Long id) {
         Optional<Teacher> teacher = teacherService.getTeacherById(id);
         if (teacher.isPresent()) {
@@ -41,6 +58,7 @@ public class TeacherController {
     
     // Create new teacher
     @PostMapping
+    @SqlBudget(2)
     public ResponseEntity<?> createTeacher(@RequestBody Teacher teacher) {
         try {
             Teacher createdTeacher = teacherService.createTeacher(teacher);
@@ -54,6 +72,7 @@ public class TeacherController {
     
     // Update teacher
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> updateTeacher(@PathVariable Long id, @RequestBody Teacher teacherDetails) {
         try {
             Teacher updatedTeacher = teacherService.updateTeacher(id, teacherDetails);
@@ -67,6 +86,7 @@ public class TeacherController {
     
     // Delete teacher
     @DeleteMapping("/{id}")
+    @SqlBudget(3)  // load + DELETE + the /api/sync tombstone written by DeletionRecorder
     public ResponseEntity<?> deleteTeacher(@PathVariable Long id) {
         try {
             teacherService.deleteTeacher(id);
@@ -82,6 +102,7 @@ public class TeacherController {
     
     // Search teachers by name
     @GetMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<Teacher>> searchTeachers(@RequestParam String name) {
         List<Teacher> teachers = teacherService.searchTeachers(name);
         return ResponseEntity.ok(teachers);
@@ -89,6 +110,7 @@ public class TeacherController {
     
     // Teacher login/access (check if teacher exists with name and class)
     @PostMapping("/access")
+    @SqlBudget(1)
     public ResponseEntity<?> accessTeacher(@RequestBody Map<String, String> credentials) {
         String name = credentials.get("name");
         String classTeaching = credentials.get("classTeaching");
@@ -108,4 +130,12 @@ public class TeacherController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body(response);
         }
     }
+    
+    // Hit/miss counters of the cache behind the three /access endpoints
+    @GetMapping("/access/cache-stats")
+    @SqlBudget(0)
+    @DbAdmission(DbAdmission.Priority.EXEMPT)
+    public ResponseEntity<Map<String, Object>> getAccessCacheStats() {
+        return ResponseEntity.ok(teacherAccessCache.getStats());
+    }
 }
\ No newline at end of file
@@ -2,10 +2,14 @@ package com.issa.javahmz.controller;
 
 import com.issa.javahmz.entity.Ustaad;
 import com.issa.javahmz.service.UstaadService;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.metrics.SqlBudget;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
@@ -19,15 +23,23 @@ public class UstaadController {
     @Autowired
     private UstaadService ustaadService;
     
+    @Autowired
+    private TableVersions tableVersions;
+    
     // Get all ustaads
     @GetMapping
-    public ResponseEntity<List<Ustaad>> getAllUstaads() {
+    @SqlBudget(1)
+    public ResponseEntity<List<Ustaad>> getAllUstaads(WebRequest request) {
+        if (request.checkNotModified(tableVersions.etag(TrackedTable.USTAADS))) {
+            return null;
+        }
         List<Ustaad> ustaads = ustaadService.getAllUstaads();
         return ResponseEntity.ok(ustaads);
     }
     
     // Get ustaad by ID
     @GetMapping("/{id}")
+    @SqlBudget(1)
     public ResponseEntity<?> getUstaadById(@PathVariable Long id) {
         Optional<Ustaad> ustaad = ustaadService.getUstaadById(id);
         if (ustaad.isPresent()) {
@@ -41,6 +53,7 @@ public class UstaadController {
     
     // Create new ustaad
     @PostMapping
+    @SqlBudget(2)
     public ResponseEntity<?> createUstaad(@RequestBody Ustaad ustaad) {
         try {
             Ustaad createdUstaad = ustaadService.createUstaad(ustaad);
@@ -54,6 +67,7 @@ public class UstaadController {
     
     // Update ustaad
     @PutMapping("/{id}")
+    @SqlBudget(3)
     public ResponseEntity<?> updateUstaad(@PathVariable Long id, @RequestBody Ustaad ustaadDetails) {
         try {
             Ustaad updatedUstaad = ustaadService.updateUstaad(id, ustaadDetails);
@@ -67,6 +81,7 @@ public class UstaadController {
     
     // Delete ustaad
     @DeleteMapping("/{id}")
+    @SqlBudget(3)  // load + DELETE + the /api/sync tombstone written by DeletionRecorder
     public ResponseEntity<?> deleteUstaad(@PathVariable Long id) {
         try {
             ustaadService.deleteUstaad(id);
@@ -82,6 +97,7 @@ public class UstaadController {
     
     // Search ustaads by name
     @GetMapping("/search")
+    @SqlBudget(1)
     public ResponseEntity<List<Ustaad>> searchUstaads(@RequestParam String name) {
         List<Ustaad> ustaads = ustaadService.searchUstaads(name);
         return ResponseEntity.ok(ustaads);
@@ -0,0 +1,262 @@
+package com.issa.javahmz.distribution;
+
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.entity.AdultStudent;
+import com.issa.javahmz.entity.MenStudent;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.ProjectionBuilds;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.util.LookupKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Which roster rows belong to which teacher, as one bitset of row ids per teacher.
+// Distribution counts intersect these with a campaign's "received" bitset, so a
+// per-teacher received/pending count is a handful of word-wise ANDs, not a table scan.
+// Kept current from committed EntityChangeEvents, like RosterSearchIndex.
+@Component
+public class RosterMembership {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterMembership.class);
+
+    private static final TrackedTable[] ROSTERS = {
+            TrackedTable.STUDENTS, TrackedTable.ADULT_STUDENTS, TrackedTable.MEN_STUDENTS
+    };
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    // Rows of one roster grouped by teacher (keyed by upper-cased ustadh)
+    private static final class Members {
+        final Map<Long, String> teacherOfRow = new HashMap<>();
+        final Map<String, BitSet> rowsByTeacher = new HashMap<>();
+        final Map<String, String> displayNames = new HashMap<>();
+        final BitSet all = new BitSet();
+
+        void put(Long rowId, String ustadh) {
+            remove(rowId);
+            if (ustadh == null) {
+                return;
+            }
+            String key = LookupKey.of(ustadh);
+            int bit = Math.toIntExact(rowId);
+            teacherOfRow.put(rowId, key);
+            rowsByTeacher.computeIfAbsent(key, k -> new BitSet()).set(bit);
+            displayNames.put(key, ustadh);
+            all.set(bit);
+        }
+
+        void remove(Long rowId) {
+            String key = teacherOfRow.remove(rowId);
+            if (key == null) {
+                return;
+            }
+            int bit = Math.toIntExact(rowId);
+            BitSet rows = rowsByTeacher.get(key);
+            rows.clear(bit);
+            if (rows.isEmpty()) {
+                rowsByTeacher.remove(key);
+                displayNames.remove(key);
+            }
+            all.clear(bit);
+        }
+    }
+
+    private final Map<TrackedTable, Members> members = new EnumMap<>(TrackedTable.class);
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Events that arrive while a roster is being reloaded are replayed afterwards
+    private final ProjectionBuilds builds = new ProjectionBuilds();
+
+    public RosterMembership() {
+        for (TrackedTable roster : ROSTERS) {
+            members.put(roster, new Members());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long started = System.nanoTime();
+        for (TrackedTable roster : ROSTERS) {
+            admissionGate.runInBackground(() -> rebuild(roster));
+        }
+        ready = true;
+        log.info("Roster membership built in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public static boolean isRoster(TrackedTable table) {
+        for (TrackedTable roster : ROSTERS) {
+            if (roster == table) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Whether the row exists in the roster
+    public boolean contains(TrackedTable roster, Long rowId) {
+        lock.readLock().lock();
+        try {
+            return members.get(roster).teacherOfRow.containsKey(rowId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Row ids of one teacher's students (a copy; empty if the teacher has none)
+    public BitSet rowsOf(TrackedTable roster, String ustadh) {
+        lock.readLock().lock();
+        try {
+            BitSet rows = members.get(roster).rowsByTeacher.get(LookupKey.of(ustadh));
+            return rows != null ? (BitSet) rows.clone() : new BitSet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // total / received / pending for one teacher
+    public Map<String, Object> countForTeacher(TrackedTable roster, BitSet received, String ustadh) {
+        lock.readLock().lock();
+        try {
+            Members rosterMembers = members.get(roster);
+            String key = LookupKey.of(ustadh);
+            BitSet rows = rosterMembers.rowsByTeacher.getOrDefault(key, new BitSet());
+            return counts(rosterMembers.displayNames.getOrDefault(key, ustadh), rows, received);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // total / received / pending for the whole roster plus one entry per teacher
+    public Map<String, Object> countAll(TrackedTable roster, BitSet received) {
+        lock.readLock().lock();
+        try {
+            Members rosterMembers = members.get(roster);
+            Map<String, Object> byTeacher = new TreeMap<>();
+            rosterMembers.rowsByTeacher.forEach((key, rows) -> {
+                String name = rosterMembers.displayNames.get(key);
+                byTeacher.put(name, counts(name, rows, received));
+            });
+
+            Map<String, Object> result = counts(null, rosterMembers.all, received);
+            result.remove("ustadh");
+            result.put("byTeacher", byTeacher);
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static Map<String, Object> counts(String ustadh, BitSet rows, BitSet received) {
+        BitSet receivedRows = (BitSet) rows.clone();
+        receivedRows.and(received);
+        int total = rows.cardinality();
+        int receivedCount = receivedRows.cardinality();
+
+        Map<String, Object> counts = new LinkedHashMap<>();
+        counts.put("ustadh", ustadh);
+        counts.put("total", total);
+        counts.put("received", receivedCount);
+        counts.put("pending", total - receivedCount);
+        return counts;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (!isRoster(event.getTable())) {
+            return;
+        }
+        if (event.getType() == EntityChangeEvent.ChangeType.BULK) {
+            rebuild(event.getTable());
+            return;
+        }
+        builds.apply(event, this::apply);
+    }
+
+    // Reload one roster's (id, ustadh) pairs from the database
+    private void rebuild(TrackedTable roster) {
+        builds.rebuild(() -> {
+            List<Object[]> rows = load(roster);
+            Members rebuilt = new Members();
+            for (Object[] row : rows) {
+                rebuilt.put((Long) row[0], (String) row[1]);
+            }
+            lock.writeLock().lock();
+            try {
+                members.put(roster, rebuilt);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, event -> event.getTable() == roster, this::apply);
+    }
+
+    private List<Object[]> load(TrackedTable roster) {
+        switch (roster) {
+            case STUDENTS:
+                return studentRepository.findAllTeacherAssignments();
+            case ADULT_STUDENTS:
+                return adultStudentRepository.findAllTeacherAssignments();
+            case MEN_STUDENTS:
+                return menStudentRepository.findAllTeacherAssignments();
+            default:
+                return List.of();
+        }
+    }
+
+    private void apply(EntityChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            Members rosterMembers = members.get(event.getTable());
+            if (event.getType() == EntityChangeEvent.ChangeType.DELETED) {
+                rosterMembers.remove(event.getEntityId());
+            } else {
+                rosterMembers.put(event.getEntityId(), ustadhOf(event.getEntity()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String ustadhOf(Object entity) {
+        if (entity instanceof Student student) {
+            return student.getUstadh();
+        } else if (entity instanceof AdultStudent adultStudent) {
+            return adultStudent.getUstadh();
+        } else if (entity instanceof MenStudent menStudent) {
+            return menStudent.getUstadh();
+        }
+        return null;
+    }
+}
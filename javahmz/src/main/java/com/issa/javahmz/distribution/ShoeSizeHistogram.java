@@ -0,0 +1,238 @@
+package com.issa.javahmz.distribution;
+
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.ProjectionBuilds;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.util.LookupKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Shoe-size counts for procurement: overall, per teacher and per madrassa location.
+// Student.shoeSize is free text, so every value is normalized once ("5 ", "size 5", "5.0" -> "5";
+// "10C", "kids 10" -> "C10") and each student's contribution is added or moved as rows change.
+// Kept current from committed EntityChangeEvents, like RosterSearchIndex.
+@Component
+public class ShoeSizeHistogram {
+
+    private static final Logger log = LoggerFactory.getLogger(ShoeSizeHistogram.class);
+
+    public static final String UNKNOWN = "UNKNOWN";
+    public static final String UNPARSED = "UNPARSED";
+
+    private static final Pattern NUMBER = Pattern.compile("(\\d+(?:\\.\\d+)?)");
+    private static final Pattern CHILD_MARKER = Pattern.compile("(^|[^A-Z])C\\s*\\d|\\dC($|[^A-Z])|KID|CHILD|JUNIOR|INFANT");
+
+    // Kids sizes first, then adult sizes numerically, then UNKNOWN / UNPARSED
+    static final Comparator<String> SIZE_ORDER = Comparator
+            .comparingInt(ShoeSizeHistogram::sizeGroup)
+            .thenComparingDouble(ShoeSizeHistogram::sizeNumber)
+            .thenComparing(Comparator.naturalOrder());
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    // What one student row currently adds to the histograms
+    private record Contribution(String size, String teacherKey, String teacher,
+                                String locationKey, String location, String rawSize) {
+    }
+
+    // size -> count, plus per-group size -> count with a display name per group
+    private static final class Histograms {
+        final Map<Long, Contribution> byRow = new HashMap<>();
+        final Map<String, Integer> overall = new HashMap<>();
+        final Map<String, Map<String, Integer>> byTeacher = new HashMap<>();
+        final Map<String, String> teacherNames = new HashMap<>();
+        final Map<String, Map<String, Integer>> byLocation = new HashMap<>();
+        final Map<String, String> locationNames = new HashMap<>();
+        final Map<String, Integer> unparsedValues = new HashMap<>();
+
+        void put(Long rowId, Contribution contribution) {
+            remove(rowId);
+            byRow.put(rowId, contribution);
+            add(contribution, 1);
+        }
+
+        void remove(Long rowId) {
+            Contribution previous = byRow.remove(rowId);
+            if (previous != null) {
+                add(previous, -1);
+            }
+        }
+
+        private void add(Contribution c, int delta) {
+            bump(overall, c.size(), delta);
+            bumpGroup(byTeacher, teacherNames, c.teacherKey(), c.teacher(), c.size(), delta);
+            bumpGroup(byLocation, locationNames, c.locationKey(), c.location(), c.size(), delta);
+            if (UNPARSED.equals(c.size())) {
+                bump(unparsedValues, c.rawSize(), delta);
+            }
+        }
+
+        private static void bumpGroup(Map<String, Map<String, Integer>> groups, Map<String, String> names,
+                                      String key, String name, String size, int delta) {
+            Map<String, Integer> sizes = groups.computeIfAbsent(key, k -> new HashMap<>());
+            bump(sizes, size, delta);
+            if (sizes.isEmpty()) {
+                groups.remove(key);
+                names.remove(key);
+            } else if (delta > 0) {
+                names.put(key, name);
+            }
+        }
+
+        private static void bump(Map<String, Integer> counts, String key, int delta) {
+            int updated = counts.getOrDefault(key, 0) + delta;
+            if (updated <= 0) {
+                counts.remove(key);
+            } else {
+                counts.put(key, updated);
+            }
+        }
+    }
+
+    private volatile Histograms histograms = new Histograms();
+    private volatile boolean ready;
+
+    // Events that arrive while the table is being reloaded are replayed afterwards
+    private final ProjectionBuilds builds = new ProjectionBuilds();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        long started = System.nanoTime();
+        admissionGate.runInBackground(this::rebuild);
+        ready = true;
+        log.info("Shoe-size histogram built in {} ms", (System.nanoTime() - started) / 1_000_000);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // Counts by size: overall, per teacher and per madrassa location
+    public synchronized Map<String, Object> snapshot() {
+        Histograms current = histograms;
+
+        Map<String, Object> byTeacher = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        current.byTeacher.forEach((key, sizes) -> byTeacher.put(current.teacherNames.get(key), sorted(sizes)));
+
+        Map<String, Object> byLocation = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        current.byLocation.forEach((key, sizes) -> byLocation.put(current.locationNames.get(key), sorted(sizes)));
+
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("totalStudents", current.byRow.size());
+        snapshot.put("overall", sorted(current.overall));
+        snapshot.put("byTeacher", byTeacher);
+        snapshot.put("byMadrassaLocation", byLocation);
+        // Raw values that could not be read as a size, so they can be corrected at the source
+        snapshot.put("unparsedValues", new TreeMap<>(current.unparsedValues));
+        snapshot.put("generatedAt", LocalDateTime.now());
+        return snapshot;
+    }
+
+    private static Map<String, Integer> sorted(Map<String, Integer> sizes) {
+        Map<String, Integer> sorted = new TreeMap<>(SIZE_ORDER);
+        sorted.putAll(sizes);
+        return sorted;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getTable() != TrackedTable.STUDENTS) {
+            return;
+        }
+        if (event.getType() == EntityChangeEvent.ChangeType.BULK) {
+            rebuild();
+            return;
+        }
+        builds.apply(event, this::apply);
+    }
+
+    // Reload every student's (id, shoeSize, ustadh, madrassaLocation)
+    private void rebuild() {
+        builds.rebuild(() -> {
+            Histograms rebuilt = new Histograms();
+            for (Object[] row : studentRepository.findAllShoeSizes()) {
+                rebuilt.put((Long) row[0], contribution((String) row[1], (String) row[2], (String) row[3]));
+            }
+            synchronized (this) {
+                histograms = rebuilt;
+            }
+        }, event -> true, this::apply);
+    }
+
+    private synchronized void apply(EntityChangeEvent event) {
+        if (event.getType() == EntityChangeEvent.ChangeType.DELETED) {
+            histograms.remove(event.getEntityId());
+        } else if (event.getEntity() instanceof Student student) {
+            histograms.put(student.getId(),
+                    contribution(student.getShoeSize(), student.getUstadh(), student.getMadrassaLocation()));
+        }
+    }
+
+    private static Contribution contribution(String shoeSize, String ustadh, String madrassaLocation) {
+        String teacher = ustadh != null ? ustadh.trim() : "";
+        String location = madrassaLocation != null ? madrassaLocation.trim() : "";
+        return new Contribution(normalize(shoeSize),
+                LookupKey.of(teacher), teacher,
+                LookupKey.of(location), location,
+                shoeSize != null ? shoeSize.trim() : "");
+    }
+
+    // Free-text shoe size -> "5", "5.5", "C10", UNKNOWN (blank) or UNPARSED (no number)
+    static String normalize(String raw) {
+        if (raw == null || raw.isBlank()) {
+            return UNKNOWN;
+        }
+        String text = raw.trim().toUpperCase(Locale.ROOT).replace("½", ".5").replace(',', '.');
+        Matcher number = NUMBER.matcher(text);
+        if (!number.find()) {
+            return UNPARSED;
+        }
+
+        // Round to the nearest half size and drop trailing zeros ("5.0" -> "5", "5.50" -> "5.5")
+        BigDecimal value = new BigDecimal(number.group(1))
+                .multiply(BigDecimal.valueOf(2))
+                .setScale(0, RoundingMode.HALF_UP)
+                .divide(BigDecimal.valueOf(2));
+        String size = value.stripTrailingZeros().toPlainString();
+        return CHILD_MARKER.matcher(text).find() ? "C" + size : size;
+    }
+
+    private static int sizeGroup(String size) {
+        if (UNKNOWN.equals(size) || UNPARSED.equals(size)) {
+            return 2;
+        }
+        return size.startsWith("C") ? 0 : 1;
+    }
+
+    private static double sizeNumber(String size) {
+        try {
+            return Double.parseDouble(size.startsWith("C") ? size.substring(1) : size);
+        } catch (NumberFormatException e) {
+            return Double.MAX_VALUE;
+        }
+    }
+}
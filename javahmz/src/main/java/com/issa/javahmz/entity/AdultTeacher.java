@@ -1,10 +1,14 @@
 package com.issa.javahmz.entity;
 
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "adult_teachers")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "adult_teachers", indexes = {
+    @Index(name = "idx_adult_teachers_updated_at", columnList = "updated_at")
+})
 public class AdultTeacher {
     
     @Id
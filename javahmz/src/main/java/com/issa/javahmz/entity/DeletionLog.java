@@ -0,0 +1,67 @@
+package com.issa.javahmz.entity;
+
+import com.issa.javahmz.event.TrackedTable;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Tombstone of a deleted roster/teacher row, so /api/sync can tell clients what to drop
+@Entity
+@Table(name = "deletion_log", indexes = {
+    @Index(name = "idx_deletion_log_deleted_at", columnList = "deleted_at")
+})
+public class DeletionLog {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Table the row was deleted from, e.g. STUDENTS
+    @Enumerated(EnumType.STRING)
+    @Column(name = "table_name", nullable = false)
+    private TrackedTable table;
+    
+    // Primary key (id) of the deleted row
+    @Column(name = "row_id", nullable = false)
+    private Long rowId;
+    
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+    
+    // Default constructor
+    public DeletionLog() {
+        this.deletedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public TrackedTable getTable() {
+        return table;
+    }
+    
+    public void setTable(TrackedTable table) {
+        this.table = table;
+    }
+    
+    public Long getRowId() {
+        return rowId;
+    }
+    
+    public void setRowId(Long rowId) {
+        this.rowId = rowId;
+    }
+    
+    public LocalDateTime getDeletedAt() {
+        return deletedAt;
+    }
+    
+    public void setDeletedAt(LocalDateTime deletedAt) {
+        this.deletedAt = deletedAt;
+    }
+}
@@ -0,0 +1,83 @@
+package com.issa.javahmz.entity;
+
+import com.issa.javahmz.event.TrackedTable;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "distribution_campaigns")
+public class DistributionCampaign {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(nullable = false)
+    private String name;
+    
+    // Which roster the campaign hands out to: STUDENTS, ADULT_STUDENTS or MEN_STUDENTS
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TrackedTable roster;
+    
+    // food_hamper or shoes
+    @Column(name = "distribution_type", nullable = false)
+    private String distributionType;
+    
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+    
+    // Default constructor
+    public DistributionCampaign() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Parameterized constructor
+    public DistributionCampaign(String name, TrackedTable roster, String distributionType) {
+        this.name = name;
+        this.roster = roster;
+        this.distributionType = distributionType;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public TrackedTable getRoster() {
+        return roster;
+    }
+    
+    public void setRoster(TrackedTable roster) {
+        this.roster = roster;
+    }
+    
+    public String getDistributionType() {
+        return distributionType;
+    }
+    
+    public void setDistributionType(String distributionType) {
+        this.distributionType = distributionType;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+}
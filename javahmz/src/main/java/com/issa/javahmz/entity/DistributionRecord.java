@@ -0,0 +1,83 @@
+package com.issa.javahmz.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// One student who received the item of one campaign
+@Entity
+@Table(name = "distribution_records", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_distribution_records_campaign_student", columnNames = {"campaign_id", "student_row_id"})
+})
+public class DistributionRecord {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "campaign_id", nullable = false)
+    private Long campaignId;
+    
+    // Primary key (id) of the row in the campaign's roster table
+    @Column(name = "student_row_id", nullable = false)
+    private Long studentRowId;
+    
+    @Column(name = "distributed_at", nullable = false)
+    private LocalDateTime distributedAt;
+    
+    @Column(name = "distributed_by")
+    private String distributedBy;
+    
+    // Default constructor
+    public DistributionRecord() {
+        this.distributedAt = LocalDateTime.now();
+    }
+    
+    // Parameterized constructor
+    public DistributionRecord(Long campaignId, Long studentRowId, String distributedBy) {
+        this.campaignId = campaignId;
+        this.studentRowId = studentRowId;
+        this.distributedBy = distributedBy;
+        this.distributedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public Long getCampaignId() {
+        return campaignId;
+    }
+    
+    public void setCampaignId(Long campaignId) {
+        this.campaignId = campaignId;
+    }
+    
+    public Long getStudentRowId() {
+        return studentRowId;
+    }
+    
+    public void setStudentRowId(Long studentRowId) {
+        this.studentRowId = studentRowId;
+    }
+    
+    public LocalDateTime getDistributedAt() {
+        return distributedAt;
+    }
+    
+    public void setDistributedAt(LocalDateTime distributedAt) {
+        this.distributedAt = distributedAt;
+    }
+    
+    public String getDistributedBy() {
+        return distributedBy;
+    }
+    
+    public void setDistributedBy(String distributedBy) {
+        this.distributedBy = distributedBy;
+    }
+}
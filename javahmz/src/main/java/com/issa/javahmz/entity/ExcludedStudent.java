@@ -1,11 +1,18 @@
 package com.issa.javahmz.entity;
 
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
+// Excluded students are students rows with status EXCLUDED, so this entity and Student
+// share one table and one id sequence. Rows get here through StudentRepository.markExcluded
+// and leave through StudentRepository.restoreExcluded; they are never inserted as ExcludedStudent.
 @Entity
-@Table(name = "excluded_students")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "students")
+@SQLRestriction("status = 'EXCLUDED'")
 public class ExcludedStudent {
     
     @Id
@@ -43,17 +50,17 @@ public class ExcludedStudent {
     @Column(name = "class_teaching", nullable = false)
     private String classTeaching;
     
-    // Exclusion information
-    @Column(name = "excluded_date", nullable = false)
+    // Exclusion information (null while the row is active)
+    @Column(name = "excluded_date")
     private LocalDate excludedDate;
     
-    @Column(name = "excluded_by", nullable = false)
+    @Column(name = "excluded_by")
     private String excludedBy;
     
-    @Column(nullable = false)
+    @Column(name = "reason")
     private String reason;
     
-    @Column(name = "exclusion_type", nullable = false)
+    @Column(name = "exclusion_type")
     private String exclusionType;
     
     @Column(name = "additional_notes", columnDefinition = "TEXT")
@@ -68,28 +75,6 @@ public class ExcludedStudent {
         this.excludedDate = LocalDate.now();
     }
     
-    // Constructor from Student entity
-    public ExcludedStudent(Student student, String excludedBy, String reason, 
-                          String exclusionType, String additionalNotes) {
-        this.studentId = student.getStudentId();
-        this.name = student.getName();
-        this.gender = student.getGender();
-        this.dateJoined = student.getDateJoined();
-        this.location = student.getLocation();
-        this.madrassaLocation = student.getMadrassaLocation();
-        this.shoeSize = student.getShoeSize();
-        this.cell = student.getCell();
-        this.ustadh = student.getUstadh();
-        this.classTeaching = student.getClassTeaching();
-        
-        this.excludedBy = excludedBy;
-        this.reason = reason;
-        this.exclusionType = exclusionType;
-        this.additionalNotes = additionalNotes;
-        this.excludedDate = LocalDate.now();
-        this.createdAt = LocalDateTime.now();
-    }
-    
     // Getters and Setters
     public Long getId() {
         return id;
@@ -0,0 +1,79 @@
+package com.issa.javahmz.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDate;
+
+// Number of excluded students per (month excluded, exclusion type, teacher). It always equals a
+// GROUP BY over the excluded rows: exclusions add to it and restores, permanent deletes and the
+// retention cleanup subtract from it, in the same transaction (ExclusionRollupRepository.adjust*).
+// Trend charts read these few rows instead of the students table.
+@Entity
+@Table(name = "exclusion_monthly_rollup", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_exclusion_rollup_month_type_teacher", columnNames = {"month_start", "exclusion_type", "ustadh_key"})
+})
+public class ExclusionMonthlyRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // First day of the month the students were excluded in
+    @Column(name = "month_start", nullable = false)
+    private LocalDate monthStart;
+    
+    // Exclusion type as entered, or "unspecified" for records without one
+    @Column(name = "exclusion_type", nullable = false)
+    private String exclusionType;
+    
+    // Teacher lookup key (LookupKey.of(ustadh)), so spellings of one teacher share a row
+    @Column(name = "ustadh_key", nullable = false)
+    private String ustadhKey;
+    
+    @Column(name = "excluded_count", nullable = false)
+    private long excludedCount;
+    
+    // Default constructor
+    public ExclusionMonthlyRollup() {
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public LocalDate getMonthStart() {
+        return monthStart;
+    }
+    
+    public void setMonthStart(LocalDate monthStart) {
+        this.monthStart = monthStart;
+    }
+    
+    public String getExclusionType() {
+        return exclusionType;
+    }
+    
+    public void setExclusionType(String exclusionType) {
+        this.exclusionType = exclusionType;
+    }
+    
+    public String getUstadhKey() {
+        return ustadhKey;
+    }
+    
+    public void setUstadhKey(String ustadhKey) {
+        this.ustadhKey = ustadhKey;
+    }
+    
+    public long getExcludedCount() {
+        return excludedCount;
+    }
+    
+    public void setExcludedCount(long excludedCount) {
+        this.excludedCount = excludedCount;
+    }
+}
@@ -1,10 +1,14 @@
 package com.issa.javahmz.entity;
 
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "men_teachers")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "men_teachers", indexes = {
+    @Index(name = "idx_men_teachers_updated_at", columnList = "updated_at")
+})
 public class MenTeacher {
     
     @Id
@@ -1,31 +1,38 @@
 package com.issa.javahmz.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "students")
-public class Student {
-    
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    private Long id;
-    
-    @Column(name = "student_id", nullable = false, unique = true)
-    private String studentId;
-    
-    @Column(nullable = false)
-    private String name;
-    
-    @Column(nullable = false)
-    private String gender;
-    
-    @Column(name = "date_joined", nullable = false)
-    private LocalDate dateJoined;
-    
-    @Column(nullable = false)
-    private String location;
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "students", indexes = {
+    @Index(name = "idx_students_name_id", columnList = "name, id"),
+    @Index(name = "idx_students_teacher_key", columnList = "ustadh_key, class_teaching_key"),
+    @Index(name = "idx_students_updated_at", columnList = "updated_at")
+})
+@AttributeOverride(name = "studentId", column = @Column(name = "student_id", nullable = false, unique = true))
+@SQLRestriction("status = 'ACTIVE'")
+public class Student extends RosterMember {
+    
+    // Lifecycle of a students row. Excluded students stay in the table (read through
+    // ExcludedStudent), so their student ID stays taken. The restriction below applies to every
+    // JPQL read and bulk UPDATE/DELETE, so this entity only ever sees ACTIVE rows.
+    // Production has partial indexes on status (db/005-student-status.sql).
+    public enum Status {
+        ACTIVE,
+        EXCLUDED
+    }
+    
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'ACTIVE'")
+    @Column(nullable = false, length = 16)
+    private Status status = Status.ACTIVE;
     
     @Column(name = "madrassa_location", nullable = false)
     private String madrassaLocation;
@@ -33,97 +40,23 @@ public class Student {
     @Column(name = "shoe_size")
     private String shoeSize;
     
-    @Column(nullable = false)
-    private String cell;
-    
-    @Column(name = "ustadh", nullable = false)
-    private String ustadh;
-    
-    @Column(name = "class_teaching", nullable = false)
-    private String classTeaching;
-    
-    @Column(name = "created_at")
-    private LocalDateTime createdAt;
-    
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt;
-    
     // Default constructor
     public Student() {
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
+        super();
     }
     
     // Parameterized constructor
     public Student(String studentId, String name, String gender, LocalDate dateJoined, 
                    String location, String madrassaLocation, String shoeSize, String cell,
                    String ustadh, String classTeaching) {
-        this.studentId = studentId;
-        this.name = name;
-        this.gender = gender;
-        this.dateJoined = dateJoined;
-        this.location = location;
+        super(studentId, name, gender, dateJoined, location, cell, ustadh, classTeaching);
         this.madrassaLocation = madrassaLocation;
         this.shoeSize = shoeSize;
-        this.cell = cell;
-        this.ustadh = ustadh;
-        this.classTeaching = classTeaching;
-        this.createdAt = LocalDateTime.now();
-        this.updatedAt = LocalDateTime.now();
     }
     
     // Getters and Setters
-    public Long getId() {
-        return id;
-    }
-    
-    public void setId(Long id) {
-        this.id = id;
-    }
-    
-    public String getStudentId() {
-        return studentId;
-    }
-    
-    public void setStudentId(String studentId) {
-        this.studentId = studentId;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getName() {
-        return name;
-    }
-    
-    public void setName(String name) {
-        this.name = name;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getGender() {
-        return gender;
-    }
-    
-    public void setGender(String gender) {
-        this.gender = gender;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public LocalDate getDateJoined() {
-        return dateJoined;
-    }
-    
-    public void setDateJoined(LocalDate dateJoined) {
-        this.dateJoined = dateJoined;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getLocation() {
-        return location;
-    }
-    
-    public void setLocation(String location) {
-        this.location = location;
-        this.updatedAt = LocalDateTime.now();
+    public Status getStatus() {
+        return status;
     }
     
     public String getMadrassaLocation() {
@@ -132,7 +65,7 @@ public class Student {
     
     public void setMadrassaLocation(String madrassaLocation) {
         this.madrassaLocation = madrassaLocation;
-        this.updatedAt = LocalDateTime.now();
+        setUpdatedAt(LocalDateTime.now());
     }
     
     public String getShoeSize() {
@@ -141,54 +74,6 @@ public class Student {
     
     public void setShoeSize(String shoeSize) {
         this.shoeSize = shoeSize;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getCell() {
-        return cell;
-    }
-    
-    public void setCell(String cell) {
-        this.cell = cell;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getUstadh() {
-        return ustadh;
-    }
-    
-    public void setUstadh(String ustadh) {
-        this.ustadh = ustadh;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public String getClassTeaching() {
-        return classTeaching;
-    }
-    
-    public void setClassTeaching(String classTeaching) {
-        this.classTeaching = classTeaching;
-        this.updatedAt = LocalDateTime.now();
-    }
-    
-    public LocalDateTime getCreatedAt() {
-        return createdAt;
-    }
-    
-    public void setCreatedAt(LocalDateTime createdAt) {
-        this.createdAt = createdAt;
-    }
-    
-    public LocalDateTime getUpdatedAt() {
-        return updatedAt;
-    }
-    
-    public void setUpdatedAt(LocalDateTime updatedAt) {
-        this.updatedAt = updatedAt;
-    }
-    
-    @PreUpdate
-    protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        setUpdatedAt(LocalDateTime.now());
     }
 }
\ No newline at end of file
@@ -1,10 +1,14 @@
 package com.issa.javahmz.entity;
 
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "teachers")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "teachers", indexes = {
+    @Index(name = "idx_teachers_updated_at", columnList = "updated_at")
+})
 public class Teacher {
     
     @Id
@@ -1,10 +1,14 @@
 package com.issa.javahmz.entity;
 
+import com.issa.javahmz.event.EntityChangeListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "ustaads")
+@EntityListeners(EntityChangeListener.class)
+@Table(name = "ustaads", indexes = {
+    @Index(name = "idx_ustaads_updated_at", columnList = "updated_at")
+})
 public class Ustaad {
     
     @Id
@@ -0,0 +1,68 @@
+package com.issa.javahmz.event;
+
+// Published when a tracked row is created, updated or deleted.
+// BULK means many rows changed through a set-based statement and
+// listeners holding derived state should reload the whole table.
+public class EntityChangeEvent {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED,
+        BULK
+    }
+
+    private final TrackedTable table;
+    private final ChangeType type;
+    private final Long entityId;
+    private final Object entity;
+    private final boolean fromBulkStatement;
+
+    public EntityChangeEvent(TrackedTable table, ChangeType type, Long entityId, Object entity) {
+        this(table, type, entityId, entity, false);
+    }
+
+    private EntityChangeEvent(TrackedTable table, ChangeType type, Long entityId, Object entity, boolean fromBulkStatement) {
+        this.table = table;
+        this.type = type;
+        this.entityId = entityId;
+        this.entity = entity;
+        this.fromBulkStatement = fromBulkStatement;
+    }
+
+    // Event for one known row changed by a set-based statement. No entity callbacks ran for it,
+    // so the caller has already written what they would have (e.g. the deletion tombstone).
+    public static EntityChangeEvent fromBulkStatement(TrackedTable table, ChangeType type, Long entityId, Object entity) {
+        return new EntityChangeEvent(table, type, entityId, entity, true);
+    }
+
+    // Event for a set-based change that touched an unknown set of rows
+    public static EntityChangeEvent bulk(TrackedTable table) {
+        return new EntityChangeEvent(table, ChangeType.BULK, null, null);
+    }
+
+    public TrackedTable getTable() {
+        return table;
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+
+    public Object getEntity() {
+        return entity;
+    }
+
+    public boolean isFromBulkStatement() {
+        return fromBulkStatement;
+    }
+
+    @Override
+    public String toString() {
+        return "EntityChangeEvent{" + table + " " + type + " id=" + entityId + "}";
+    }
+}
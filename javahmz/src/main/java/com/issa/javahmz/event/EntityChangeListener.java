@@ -0,0 +1,59 @@
+package com.issa.javahmz.event;
+
+import com.issa.javahmz.entity.AdultStudent;
+import com.issa.javahmz.entity.AdultTeacher;
+import com.issa.javahmz.entity.ExcludedStudent;
+import com.issa.javahmz.entity.MenStudent;
+import com.issa.javahmz.entity.MenTeacher;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.entity.Teacher;
+import com.issa.javahmz.entity.Ustaad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+
+// JPA entity listener that turns row lifecycle callbacks into EntityChangeEvents.
+// Hibernate creates it through Spring's bean container, so injection works here.
+// Consumers should use @TransactionalEventListener so rolled-back writes are never seen.
+public class EntityChangeListener {
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void afterCreate(Object entity) {
+        publish(entity, EntityChangeEvent.ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void afterUpdate(Object entity) {
+        publish(entity, EntityChangeEvent.ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void afterDelete(Object entity) {
+        publish(entity, EntityChangeEvent.ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, EntityChangeEvent.ChangeType type) {
+        if (entity instanceof Student student) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.STUDENTS, type, student.getId(), student));
+        } else if (entity instanceof AdultStudent adultStudent) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.ADULT_STUDENTS, type, adultStudent.getId(), adultStudent));
+        } else if (entity instanceof MenStudent menStudent) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.MEN_STUDENTS, type, menStudent.getId(), menStudent));
+        } else if (entity instanceof ExcludedStudent excludedStudent) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.EXCLUDED_STUDENTS, type, excludedStudent.getId(), excludedStudent));
+        } else if (entity instanceof Teacher teacher) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.TEACHERS, type, teacher.getId(), teacher));
+        } else if (entity instanceof AdultTeacher adultTeacher) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.ADULT_TEACHERS, type, adultTeacher.getId(), adultTeacher));
+        } else if (entity instanceof MenTeacher menTeacher) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.MEN_TEACHERS, type, menTeacher.getId(), menTeacher));
+        } else if (entity instanceof Ustaad ustaad) {
+            eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.USTAADS, type, ustaad.getId(), ustaad));
+        }
+    }
+}
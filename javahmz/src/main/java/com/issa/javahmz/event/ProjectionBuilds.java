@@ -0,0 +1,52 @@
+package com.issa.javahmz.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+// Reload bookkeeping shared by the in-memory projections kept current from EntityChangeEvents
+// (RosterSearchIndex, RosterMembership, ShoeSizeHistogram, StudentIdRegistry).
+// A reload reads the table and then swaps the result in, so a change committed in between
+// would be lost. Every change that arrives while a reload runs is recorded before it is
+// applied and replayed once the reload has swapped, whichever finishes first.
+public final class ProjectionBuilds {
+
+    private final Object monitor = new Object();
+    private int activeBuilds;
+    private final List<EntityChangeEvent> eventsDuringBuild = new ArrayList<>();
+
+    // Apply one change, recording it first for any reload in progress
+    public void apply(EntityChangeEvent event, Consumer<EntityChangeEvent> apply) {
+        synchronized (monitor) {
+            if (activeBuilds > 0) {
+                eventsDuringBuild.add(event);
+            }
+        }
+        apply.accept(event);
+    }
+
+    // Run a reload, then re-apply the recorded changes it covers (affected) on top of it
+    public void rebuild(Runnable build, Predicate<EntityChangeEvent> affected, Consumer<EntityChangeEvent> apply) {
+        synchronized (monitor) {
+            activeBuilds++;
+        }
+        try {
+            build.run();
+        } finally {
+            List<EntityChangeEvent> replay;
+            synchronized (monitor) {
+                activeBuilds--;
+                replay = new ArrayList<>(eventsDuringBuild);
+                if (activeBuilds == 0) {
+                    eventsDuringBuild.clear();
+                }
+            }
+            for (EntityChangeEvent event : replay) {
+                if (affected.test(event)) {
+                    apply.accept(event);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.issa.javahmz.event;
+
+// What a roster service did, in the terms a screen showing a class cares about.
+// Published by the Student/AdultStudent/MenStudent services (and exclude/import) after
+// the change; RosterFeed pushes it to SSE subscribers once the transaction commits.
+// Unlike EntityChangeEvent it carries the teacher/class the row came from, so a
+// screen filtered on the old class also sees a transfer or rename leave it.
+public class RosterActivityEvent {
+
+    public enum Action {
+        CREATED,
+        UPDATED,
+        DELETED,
+        TRANSFERRED,
+        EXCLUDED,
+        RESTORED,
+        CLASS_RENAMED,      // every row of (ustadh, fromClassTeaching) moved to classTeaching
+        TEACHER_CLEARED,    // every row of ustadh deleted
+        IMPORTED            // rows bulk-loaded; no single teacher
+    }
+
+    private final TrackedTable roster;
+    private final Action action;
+    private final Long id;
+    private final String studentId;
+    private final String name;
+    private final String ustadh;
+    private final String classTeaching;
+    private String fromUstadh;
+    private String fromClassTeaching;
+    private Integer count;
+
+    public RosterActivityEvent(TrackedTable roster, Action action, Long id, String studentId, String name,
+                               String ustadh, String classTeaching) {
+        this.roster = roster;
+        this.action = action;
+        this.id = id;
+        this.studentId = studentId;
+        this.name = name;
+        this.ustadh = ustadh;
+        this.classTeaching = classTeaching;
+    }
+
+    // Event about many rows of one teacher/class at once
+    public static RosterActivityEvent bulk(TrackedTable roster, Action action, String ustadh, String classTeaching, int count) {
+        return new RosterActivityEvent(roster, action, null, null, null, ustadh, classTeaching).count(count);
+    }
+
+    // Teacher/class the row(s) had before the change
+    public RosterActivityEvent from(String fromUstadh, String fromClassTeaching) {
+        this.fromUstadh = fromUstadh;
+        this.fromClassTeaching = fromClassTeaching;
+        return this;
+    }
+
+    public RosterActivityEvent count(int count) {
+        this.count = count;
+        return this;
+    }
+
+    public TrackedTable getRoster() {
+        return roster;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getStudentId() {
+        return studentId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getUstadh() {
+        return ustadh;
+    }
+
+    public String getClassTeaching() {
+        return classTeaching;
+    }
+
+    public String getFromUstadh() {
+        return fromUstadh;
+    }
+
+    public String getFromClassTeaching() {
+        return fromClassTeaching;
+    }
+
+    public Integer getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "RosterActivityEvent{" + roster + " " + action + " id=" + id + " ustadh=" + ustadh + "}";
+    }
+}
@@ -0,0 +1,44 @@
+package com.issa.javahmz.event;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Write counter per tracked table, bumped after every committed change (BULK included).
+// List endpoints turn it into a strong ETag, so an unchanged list is answered with
+// 304 Not Modified before any query runs. The epoch changes on every restart, so
+// tags handed out by an earlier process never match. Like the other in-process
+// projections, this only sees writes made through this app.
+@Component
+public class TableVersions {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Map<TrackedTable, AtomicLong> versions = new EnumMap<>(TrackedTable.class);
+
+    public TableVersions() {
+        for (TrackedTable table : TrackedTable.values()) {
+            versions.put(table, new AtomicLong());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        versions.get(event.getTable()).incrementAndGet();
+    }
+
+    public long version(TrackedTable table) {
+        return versions.get(table).get();
+    }
+
+    // Strong ETag over one or more tables, e.g. "lq3k2x9a-17"
+    public String etag(TrackedTable... tables) {
+        StringBuilder etag = new StringBuilder("\"").append(epoch);
+        for (TrackedTable table : tables) {
+            etag.append('-').append(version(table));
+        }
+        return etag.append('"').toString();
+    }
+}
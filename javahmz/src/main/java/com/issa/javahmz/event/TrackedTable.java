@@ -0,0 +1,13 @@
+package com.issa.javahmz.event;
+
+// Tables whose changes are published as EntityChangeEvents
+public enum TrackedTable {
+    STUDENTS,
+    ADULT_STUDENTS,
+    MEN_STUDENTS,
+    EXCLUDED_STUDENTS,
+    TEACHERS,
+    ADULT_TEACHERS,
+    MEN_TEACHERS,
+    USTAADS
+}
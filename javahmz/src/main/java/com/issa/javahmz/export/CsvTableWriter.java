@@ -0,0 +1,61 @@
+package com.issa.javahmz.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// RFC 4180 CSV with a UTF-8 byte order mark so Excel opens names with accents correctly.
+// The same layout CsvReader accepts on import.
+class CsvTableWriter implements TableWriter {
+
+    private final Writer writer;
+
+    CsvTableWriter(OutputStream out) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void start(String title, List<Column> columns) throws IOException {
+        writer.write('\uFEFF');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(columns.get(i).header());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void row(List<String> cells) throws IOException {
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeField(cells.get(i));
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish(String footer) throws IOException {
+        writer.flush();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,51 @@
+package com.issa.javahmz.export;
+
+import java.io.OutputStream;
+import java.util.Locale;
+
+// Output formats of the class list export
+public enum ExportFormat {
+    CSV("csv", "text/csv;charset=UTF-8"),
+    XLSX("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet"),
+    PDF("pdf", "application/pdf");
+
+    private final String extension;
+    private final String contentType;
+
+    ExportFormat(String extension, String contentType) {
+        this.extension = extension;
+        this.contentType = contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    // New writer for one table; it never closes the stream it writes to
+    public TableWriter open(OutputStream out) {
+        switch (this) {
+            case XLSX:
+                return new XlsxTableWriter(out);
+            case PDF:
+                return new PdfTableWriter(out);
+            default:
+                return new CsvTableWriter(out);
+        }
+    }
+
+    // "csv" / "xlsx" / "pdf" (case-insensitive); CSV when blank
+    public static ExportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            return CSV;
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("format must be one of csv, xlsx, pdf");
+        }
+    }
+}
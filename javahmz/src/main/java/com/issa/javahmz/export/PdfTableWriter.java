@@ -0,0 +1,225 @@
+package com.issa.javahmz.export;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.Font;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.Paragraph;
+import com.lowagie.text.Phrase;
+import com.lowagie.text.Rectangle;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.ColumnText;
+import com.lowagie.text.pdf.PdfPCell;
+import com.lowagie.text.pdf.PdfPTable;
+import com.lowagie.text.pdf.PdfPageEventHelper;
+import com.lowagie.text.pdf.PdfWriter;
+
+import java.awt.Color;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.List;
+
+// Landscape A4 class roster written with OpenPDF. Text is set in DejaVu Sans, embedded as a
+// Unicode subset, so Arabic names, accents and typographic quotes print as typed; OpenPDF joins
+// Arabic letters and lays them out right to left. Rows are handed to the document every
+// FLUSH_ROWS rows, so finished pages go out to the stream instead of piling up in memory.
+// Characters the font lacks are printed as '?', and cells that do not fit are cut with "...".
+class PdfTableWriter implements TableWriter {
+
+    private static final float MARGIN = 28;
+    private static final float BOTTOM = 40;
+    private static final float CONTINUED_TOP = 44;
+    private static final float ROW_HEIGHT = 12;
+    private static final float FONT_SIZE = 8;
+    private static final float PADDING = 3;
+    private static final int FLUSH_ROWS = 100;
+
+    // Windows-1252 meaning of 0x80-0x9F: text decoded as Latin-1 carries these as C1 controls
+    private static final String WIN_ANSI_C1 =
+            "\u20AC\uFFFD\u201A\u0192\u201E\u2026\u2020\u2021\u02C6\u2030\u0160\u2039\u0152\uFFFD\u017D\uFFFD" +
+            "\uFFFD\u2018\u2019\u201C\u201D\u2022\u2013\u2014\u02DC\u2122\u0161\u203A\u0153\uFFFD\u017E\u0178";
+
+    private static final Color STRIPE = new Color(242, 242, 242);
+    private static final Color RULE = new Color(204, 204, 204);
+
+    // Loaded once, on the first PDF export; bold is drawn by OpenPDF from the regular face
+    private static final class Fonts {
+        static final BaseFont DEJAVU_SANS = load("/fonts/DejaVuSans.ttf");
+
+        private static BaseFont load(String resource) {
+            try (InputStream in = PdfTableWriter.class.getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalStateException("Font " + resource + " is missing from the classpath");
+                }
+                return BaseFont.createFont("DejaVuSans.ttf", BaseFont.IDENTITY_H, BaseFont.EMBEDDED, true, in.readAllBytes(), null);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not read font " + resource, e);
+            }
+        }
+    }
+
+    private final OutputStream out;
+
+    private Document document;
+    private PdfPTable table;
+    private int columnCount;
+    private float[] cellWidth;
+    private int rowsWritten;
+
+    private final Font regular = new Font(Fonts.DEJAVU_SANS, FONT_SIZE);
+    private final Font bold = new Font(Fonts.DEJAVU_SANS, FONT_SIZE, Font.BOLD);
+
+    PdfTableWriter(OutputStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public void start(String title, List<Column> columns) throws IOException {
+        columnCount = columns.size();
+        document = new Document(PageSize.A4.rotate(), MARGIN, MARGIN, MARGIN, BOTTOM);
+        try {
+            PdfWriter writer = PdfWriter.getInstance(document, out);
+            writer.setCloseStream(false);
+            writer.setPageEvent(new PageDecorations(clean(title)));
+            document.open();
+
+            Paragraph heading = new Paragraph(clean(title), new Font(Fonts.DEJAVU_SANS, 14, Font.BOLD));
+            heading.setRunDirection(PdfWriter.RUN_DIRECTION_LTR);
+            document.add(heading);
+            Paragraph date = new Paragraph("Date: " + LocalDate.now(), new Font(Fonts.DEJAVU_SANS, 9));
+            date.setSpacingAfter(6);
+            document.add(date);
+            // Later pages start lower, under the "(continued)" line drawn by PageDecorations
+            document.setMargins(MARGIN, MARGIN, CONTINUED_TOP, BOTTOM);
+        } catch (DocumentException e) {
+            throw new IOException("Could not start PDF", e);
+        }
+
+        float[] widths = new float[columnCount];
+        float total = 0;
+        for (int i = 0; i < columnCount; i++) {
+            widths[i] = columns.get(i).width();
+            total += widths[i];
+        }
+        float available = document.getPageSize().getWidth() - 2 * MARGIN;
+        cellWidth = new float[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            cellWidth[i] = available * widths[i] / total - 2 * PADDING;
+        }
+
+        table = new PdfPTable(widths);
+        table.setWidthPercentage(100);
+        table.setRunDirection(PdfWriter.RUN_DIRECTION_LTR);
+        table.setComplete(false);
+        // Header row: white bold text on black, repeated on every page
+        table.setHeaderRows(1);
+        for (int i = 0; i < columnCount; i++) {
+            PdfPCell cell = cell(columns.get(i).header(), bold, i);
+            cell.setBackgroundColor(Color.BLACK);
+            cell.getPhrase().getFont().setColor(Color.WHITE);
+            table.addCell(cell);
+        }
+    }
+
+    @Override
+    public void row(List<String> cells) throws IOException {
+        rowsWritten++;
+        for (int i = 0; i < columnCount; i++) {
+            PdfPCell cell = cell(i < cells.size() ? cells.get(i) : null, regular, i);
+            if (rowsWritten % 2 == 0) {
+                cell.setBackgroundColor(STRIPE);
+            }
+            table.addCell(cell);
+        }
+        if (rowsWritten % FLUSH_ROWS == 0) {
+            add(table);
+        }
+    }
+
+    @Override
+    public void finish(String footer) throws IOException {
+        table.setComplete(true);
+        add(table);
+        if (footer != null && !footer.isEmpty()) {
+            Paragraph closing = new Paragraph(clean(footer), regular);
+            closing.setAlignment(Element.ALIGN_RIGHT);
+            closing.setSpacingBefore(6);
+            add(closing);
+        }
+        document.close();
+        out.flush();
+    }
+
+    private void add(Element element) throws IOException {
+        try {
+            document.add(element);
+        } catch (DocumentException e) {
+            throw new IOException("Could not write PDF", e);
+        }
+    }
+
+    private PdfPCell cell(String value, Font font, int column) {
+        String text = value == null ? "" : fit(clean(value), cellWidth[column], font);
+        PdfPCell cell = new PdfPCell(new Phrase(text, new Font(font)));
+        cell.setFixedHeight(ROW_HEIGHT);
+        cell.setNoWrap(true);
+        cell.setPadding(PADDING);
+        cell.setPaddingTop(1);
+        cell.setBorder(Rectangle.BOTTOM);
+        cell.setBorderColor(RULE);
+        cell.setBorderWidth(0.4f);
+        return cell;
+    }
+
+    // Cut the value with "..." so it fits the column
+    private static String fit(String value, float width, Font font) {
+        BaseFont baseFont = font.getBaseFont();
+        if (baseFont.getWidthPoint(value, font.getSize()) <= width) {
+            return value;
+        }
+        int end = value.length();
+        while (end > 0 && baseFont.getWidthPoint(value.substring(0, end) + "...", font.getSize()) > width) {
+            end = value.offsetByCodePoints(end, -1);
+        }
+        return value.substring(0, end) + "...";
+    }
+
+    // Control characters become spaces; C1 controls are read as the Windows-1252 characters they
+    // usually are, and characters the font has no glyph for become '?'
+    private static String clean(String value) {
+        StringBuilder cleaned = new StringBuilder(value.length());
+        value.codePoints().forEach(c -> {
+            int replacement = c < 0x20 ? ' ' : c >= 0x80 && c <= 0x9F ? WIN_ANSI_C1.charAt(c - 0x80) : c;
+            cleaned.appendCodePoint(Fonts.DEJAVU_SANS.charExists(replacement) ? replacement : '?');
+        });
+        return cleaned.toString();
+    }
+
+    // "(continued)" title on every page after the first, page number at the bottom right
+    private static final class PageDecorations extends PdfPageEventHelper {
+        private final String title;
+        private final Font small = new Font(Fonts.DEJAVU_SANS, 8);
+        private final Font continued = new Font(Fonts.DEJAVU_SANS, 9, Font.BOLD);
+
+        PageDecorations(String title) {
+            this.title = title;
+        }
+
+        @Override
+        public void onEndPage(PdfWriter writer, Document document) {
+            Rectangle page = document.getPageSize();
+            int number = writer.getPageNumber();
+            if (number > 1) {
+                ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_LEFT,
+                        new Phrase(title + " (continued)", continued), MARGIN, page.getHeight() - MARGIN - 9, 0,
+                        PdfWriter.RUN_DIRECTION_LTR, 0);
+            }
+            ColumnText.showTextAligned(writer.getDirectContent(), Element.ALIGN_RIGHT,
+                    new Phrase("Page " + number, small), page.getWidth() - MARGIN, BOTTOM - 20, 0);
+        }
+    }
+}
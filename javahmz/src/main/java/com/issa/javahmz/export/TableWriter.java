@@ -0,0 +1,20 @@
+package com.issa.javahmz.export;
+
+import java.io.IOException;
+import java.util.List;
+
+// Writes one table row by row straight to an output stream, so memory does not
+// grow with the number of rows. Call start once, row for every row, then finish.
+public interface TableWriter {
+
+    // One column: header text and relative width (only the PDF layout uses the width)
+    record Column(String header, int width) {
+    }
+
+    void start(String title, List<Column> columns) throws IOException;
+
+    void row(List<String> cells) throws IOException;
+
+    // Flushes everything; footer is a closing line for formats that have one (PDF)
+    void finish(String footer) throws IOException;
+}
@@ -0,0 +1,228 @@
+package com.issa.javahmz.feed;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issa.javahmz.event.RosterActivityEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.util.LookupKey;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live roster changes for open class screens, as Server-Sent Events.
+// Writers never touch a socket: after commit the event is turned into JSON once and
+// offered to each matching subscriber's bounded queue, which a small sender pool
+// drains. A subscriber whose queue fills up (a client that stopped reading) gets its
+// backlog replaced by one "resync" event and is then closed; the browser reconnects
+// and reloads (or calls /api/sync).
+@Component
+public class RosterFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterFeed.class);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${events.max-subscribers:50}")
+    private int maxSubscribers;
+
+    @Value("${events.subscriber-buffer:256}")
+    private int subscriberBuffer;
+
+    @Value("${events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicInteger senderThreads = new AtomicInteger();
+    private final ExecutorService sender = Executors.newFixedThreadPool(2, runnable -> {
+        Thread thread = new Thread(runnable, "roster-feed-" + senderThreads.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Open a stream; null filters match everything. Throws IllegalStateException when full.
+    public SseEmitter subscribe(TrackedTable roster, String ustadh, String classTeaching) {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("Too many live roster connections, try again later");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Subscriber subscriber = new Subscriber(emitter, roster, key(ustadh), key(classTeaching), subscriberBuffer);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+
+        // Sent first so the client knows the stream is live (and proxies flush headers)
+        enqueue(subscriber, SseEmitter.event().name("ready").data("{}"));
+        return subscriber.emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRosterActivity(RosterActivityEvent event) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload(event));
+        } catch (JsonProcessingException e) {
+            log.warn("Could not serialize {}", event, e);
+            return;
+        }
+        String eventId = Long.toString(sequence.incrementAndGet());
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.matches(event)) {
+                enqueue(subscriber, SseEmitter.event().id(eventId).name("roster").data(json));
+            }
+        }
+    }
+
+    // Comment line every 25 s so idle streams are not cut by proxies
+    @Scheduled(fixedRate = 25000)
+    public void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            enqueue(subscriber, SseEmitter.event().comment("ping"));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sender.shutdownNow();
+        for (Subscriber subscriber : subscribers) {
+            subscriber.emitter.complete();
+        }
+        subscribers.clear();
+    }
+
+    // Never blocks: a full queue turns into a single resync event and a close
+    private void enqueue(Subscriber subscriber, SseEmitter.SseEventBuilder event) {
+        if (subscriber.overflowed) {
+            return;
+        }
+        if (!subscriber.queue.offer(event)) {
+            subscriber.overflowed = true;
+            subscriber.queue.clear();
+            subscriber.queue.offer(SseEmitter.event().name("resync").data("{}"));
+            log.debug("Live roster subscriber fell {} events behind, closing", subscriberBuffer);
+        }
+        if (subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            SseEmitter.SseEventBuilder next;
+            while ((next = subscriber.queue.poll()) != null) {
+                subscriber.emitter.send(next);
+            }
+            if (subscriber.overflowed) {
+                subscribers.remove(subscriber);
+                subscriber.emitter.complete();
+                return;
+            }
+        } catch (IOException | IllegalStateException e) {
+            // Client went away; the emitter callbacks may not fire for a broken pipe
+            subscribers.remove(subscriber);
+            subscriber.queue.clear();
+            return;
+        } finally {
+            subscriber.draining.set(false);
+        }
+        // Something arrived between the last poll and releasing the flag
+        if (!subscriber.queue.isEmpty() && subscriber.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    // Compact JSON: only the fields the event has
+    private static Map<String, Object> payload(RosterActivityEvent event) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("type", event.getAction().name().toLowerCase(Locale.ROOT));
+        payload.put("roster", event.getRoster().name());
+        putIfPresent(payload, "id", event.getId());
+        putIfPresent(payload, "studentId", event.getStudentId());
+        putIfPresent(payload, "name", event.getName());
+        putIfPresent(payload, "ustadh", event.getUstadh());
+        putIfPresent(payload, "classTeaching", event.getClassTeaching());
+        putIfPresent(payload, "fromUstadh", event.getFromUstadh());
+        putIfPresent(payload, "fromClassTeaching", event.getFromClassTeaching());
+        putIfPresent(payload, "count", event.getCount());
+        payload.put("at", LocalDateTime.now().toString());
+        return payload;
+    }
+
+    private static void putIfPresent(Map<String, Object> payload, String field, Object value) {
+        if (value != null) {
+            payload.put(field, value);
+        }
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? null : LookupKey.of(value.trim());
+    }
+
+    private static final class Subscriber {
+        final SseEmitter emitter;
+        final TrackedTable roster;
+        final String ustadhKey;
+        final String classTeachingKey;
+        final BlockingQueue<SseEmitter.SseEventBuilder> queue;
+        final AtomicBoolean draining = new AtomicBoolean();
+        volatile boolean overflowed;
+
+        Subscriber(SseEmitter emitter, TrackedTable roster, String ustadhKey, String classTeachingKey, int buffer) {
+            this.emitter = emitter;
+            this.roster = roster;
+            this.ustadhKey = ustadhKey;
+            this.classTeachingKey = classTeachingKey;
+            this.queue = new ArrayBlockingQueue<>(buffer);
+        }
+
+        // Matches on the row's current or previous teacher/class; events without a
+        // teacher (imports) reach every subscriber of the roster
+        boolean matches(RosterActivityEvent event) {
+            if (roster != null && roster != event.getRoster()) {
+                return false;
+            }
+            if (event.getUstadh() == null) {
+                return true;
+            }
+            return matchesTeacher(event.getUstadh(), event.getClassTeaching())
+                    || (event.getFromUstadh() != null && matchesTeacher(event.getFromUstadh(), event.getFromClassTeaching()));
+        }
+
+        private boolean matchesTeacher(String ustadh, String classTeaching) {
+            if (ustadhKey != null && !ustadhKey.equals(key(ustadh))) {
+                return false;
+            }
+            return classTeachingKey == null || classTeaching == null || classTeachingKey.equals(key(classTeaching));
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.issa.javahmz.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Adds a "handler" tag (Controller.method) to http.server.requests, so the latency
+// percentiles can be read per controller method rather than per URI pattern only
+public class HandlerObservationConvention extends DefaultServerRequestObservationConvention {
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        Object handler = context.getCarrier().getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        String name = handler instanceof HandlerMethod handlerMethod
+                ? RequestMetricsInterceptor.handlerName(handlerMethod)
+                : "none";
+        return super.getLowCardinalityKeyValues(context).and(KeyValue.of("handler", name));
+    }
+}
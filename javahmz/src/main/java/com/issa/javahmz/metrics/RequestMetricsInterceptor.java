@@ -0,0 +1,77 @@
+package com.issa.javahmz.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+// Records how many SQL statements each controller method issued per request
+// (http.server.requests.sql, tagged like the request timer with "handler").
+// Streamed responses (exports, SSE) only count the work done before streaming starts.
+// Handlers that go over their @SqlBudget are logged and counted.
+public class RequestMetricsInterceptor implements AsyncHandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsInterceptor.class);
+
+    static final String SQL_STATEMENTS = "http.server.requests.sql";
+
+    static final String SQL_OVER_BUDGET = "http.server.requests.sql.over.budget";
+
+    // Request attribute holding the statement count once the handler is done
+    public static final String SQL_STATEMENTS_ATTRIBUTE = RequestMetricsInterceptor.class.getName() + ".sqlStatements";
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            SqlStatementCounter.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        record(request, handler);
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        record(request, handler);
+    }
+
+    private void record(HttpServletRequest request, Object handler) {
+        int statements = SqlStatementCounter.stop();
+        if (statements < 0 || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        request.setAttribute(SQL_STATEMENTS_ATTRIBUTE, statements);
+        String name = handlerName(handlerMethod);
+        DistributionSummary.builder(SQL_STATEMENTS)
+                .description("SQL statements issued per request")
+                .baseUnit("statements")
+                .tag("handler", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry)
+                .record(statements);
+
+        SqlBudget budget = handlerMethod.getMethodAnnotation(SqlBudget.class);
+        if (budget != null && statements > budget.value()) {
+            meterRegistry.counter(SQL_OVER_BUDGET, "handler", name).increment();
+            log.warn("{} issued {} SQL statements, budget is {}", name, statements, budget.value());
+        }
+    }
+
+    // e.g. "StudentController.getAllStudents"
+    public static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+}
@@ -0,0 +1,22 @@
+package com.issa.javahmz.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Most SQL statements one call of this endpoint may issue, counted the same way as
+// http.server.requests.sql (statements executed on the DataSource, Hibernate and JDBC alike,
+// before the response starts streaming).
+// Budgets do not depend on table size: an endpoint whose statement count grows with the
+// number of rows it touches is an N+1 and should be fixed, not given a bigger budget.
+// Overruns are logged and counted at runtime (http.server.requests.sql.over.budget) and
+// fail SqlBudgetTest on the H2 dataset.
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface SqlBudget {
+
+    int value();
+}
@@ -0,0 +1,38 @@
+package com.issa.javahmz.metrics;
+
+// Counts the SQL statements executed on the current thread between start() and stop().
+// CountingDataSource reports every statement run on a pooled connection, so JPQL, derived and
+// native queries, flushes and JdbcTemplate work are all included (a JDBC batch counts once).
+public final class SqlStatementCounter {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    private SqlStatementCounter() {
+    }
+
+    // One statement executed on this thread
+    static void increment() {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+    }
+
+    // Start counting on this thread (restarts from zero if already counting)
+    public static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    // Statements so far on this thread, or -1 when not counting
+    public static int current() {
+        int[] count = COUNT.get();
+        return count == null ? -1 : count[0];
+    }
+
+    // Stop counting and return the total (-1 when start() was not called)
+    public static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count == null ? -1 : count[0];
+    }
+}
@@ -0,0 +1,239 @@
+package com.issa.javahmz.registry;
+
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.entity.AdultStudent;
+import com.issa.javahmz.entity.ExcludedStudent;
+import com.issa.javahmz.entity.MenStudent;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.ProjectionBuilds;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process map of every student ID to the rows that use it (regular, adult, men, excluded).
+// Loaded at startup, updated from committed EntityChangeEvents and periodically
+// reconciled against the tables to repair drift from writes made outside this app.
+@Component
+public class StudentIdRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(StudentIdRegistry.class);
+
+    // One row using a student ID; excludedDate is only set for EXCLUDED_STUDENTS
+    public record Registration(TrackedTable table, Long rowId, LocalDate excludedDate) {
+    }
+
+    private record RowKey(TrackedTable table, Long id) {
+    }
+
+    private record Row(String studentId, LocalDate excludedDate) {
+    }
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private ExcludedStudentRepository excludedStudentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<RowKey, Row> rows = new HashMap<>();
+    private Map<String, Set<RowKey>> byStudentId = new HashMap<>();
+    private volatile boolean ready;
+
+    // Events that arrive while the tables are being reloaded are replayed after the swap
+    private final ProjectionBuilds reloads = new ProjectionBuilds();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        reconcile();
+        ready = true;
+    }
+
+    // Rows using this student ID; empty Optional when the registry is not loaded yet
+    public Optional<List<Registration>> lookup(String studentId) {
+        if (!ready) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            List<Registration> registrations = new ArrayList<>();
+            for (RowKey key : byStudentId.getOrDefault(studentId, Set.of())) {
+                registrations.add(new Registration(key.table(), key.id(), rows.get(key).excludedDate()));
+            }
+            return Optional.of(registrations);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of rows tracked across all tables
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return rows.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reload all student IDs from the tables and swap them in, as a background job
+    @Scheduled(fixedDelayString = "${registry.reconcile-interval-ms:900000}",
+               initialDelayString = "${registry.reconcile-interval-ms:900000}")
+    public void reconcile() {
+        admissionGate.runInBackground(this::reload);
+    }
+
+    // On the caller's permit: a request's, or a job's after a bulk change
+    private void reload() {
+        reloads.rebuild(() -> {
+            Map<RowKey, Row> loaded = loadAll();
+
+            lock.writeLock().lock();
+            try {
+                int drift = countDrift(rows, loaded);
+                rows = loaded;
+                byStudentId = new HashMap<>();
+                for (Map.Entry<RowKey, Row> entry : loaded.entrySet()) {
+                    byStudentId.computeIfAbsent(entry.getValue().studentId(), id -> new HashSet<>()).add(entry.getKey());
+                }
+                if (ready && drift > 0) {
+                    log.info("Student ID registry reconciled: {} rows differed from the tables", drift);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, event -> true, this::apply);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (!hasStudentIds(event.getTable())) {
+            return;
+        }
+        if (event.getType() == EntityChangeEvent.ChangeType.BULK) {
+            reload();
+            return;
+        }
+        reloads.apply(event, this::apply);
+    }
+
+    // Teacher and ustaad tables are tracked too, but carry no student IDs
+    private static boolean hasStudentIds(TrackedTable table) {
+        return table == TrackedTable.STUDENTS || table == TrackedTable.ADULT_STUDENTS
+                || table == TrackedTable.MEN_STUDENTS || table == TrackedTable.EXCLUDED_STUDENTS;
+    }
+
+    private void apply(EntityChangeEvent event) {
+        RowKey key = new RowKey(event.getTable(), event.getEntityId());
+        lock.writeLock().lock();
+        try {
+            remove(key);
+            if (event.getType() != EntityChangeEvent.ChangeType.DELETED) {
+                Row row = toRow(event.getEntity());
+                if (row != null && row.studentId() != null) {
+                    rows.put(key, row);
+                    byStudentId.computeIfAbsent(row.studentId(), id -> new HashSet<>()).add(key);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(RowKey key) {
+        Row previous = rows.remove(key);
+        if (previous != null) {
+            Set<RowKey> keys = byStudentId.get(previous.studentId());
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    byStudentId.remove(previous.studentId());
+                }
+            }
+        }
+    }
+
+    private static Row toRow(Object entity) {
+        if (entity instanceof Student student) {
+            return new Row(student.getStudentId(), null);
+        } else if (entity instanceof AdultStudent adultStudent) {
+            return new Row(adultStudent.getStudentId(), null);
+        } else if (entity instanceof MenStudent menStudent) {
+            return new Row(menStudent.getStudentId(), null);
+        } else if (entity instanceof ExcludedStudent excludedStudent) {
+            return new Row(excludedStudent.getStudentId(), excludedStudent.getExcludedDate());
+        }
+        return null;
+    }
+
+    // Read the four tables' IDs on one connection
+    private Map<RowKey, Row> loadAll() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(status -> {
+            Map<RowKey, Row> loaded = new HashMap<>();
+            addRows(loaded, TrackedTable.STUDENTS, studentRepository.findAllStudentIds());
+            addRows(loaded, TrackedTable.ADULT_STUDENTS, adultStudentRepository.findAllStudentIds());
+            addRows(loaded, TrackedTable.MEN_STUDENTS, menStudentRepository.findAllStudentIds());
+            addRows(loaded, TrackedTable.EXCLUDED_STUDENTS, excludedStudentRepository.findAllStudentIds());
+            return loaded;
+        });
+    }
+
+    private static void addRows(Map<RowKey, Row> target, TrackedTable table, List<Object[]> idRows) {
+        for (Object[] idRow : idRows) {
+            LocalDate excludedDate = idRow.length > 2 ? (LocalDate) idRow[2] : null;
+            target.put(new RowKey(table, (Long) idRow[0]), new Row((String) idRow[1], excludedDate));
+        }
+    }
+
+    private static int countDrift(Map<RowKey, Row> current, Map<RowKey, Row> loaded) {
+        int drift = 0;
+        for (Map.Entry<RowKey, Row> entry : loaded.entrySet()) {
+            if (!entry.getValue().equals(current.get(entry.getKey()))) {
+                drift++;
+            }
+        }
+        for (RowKey key : current.keySet()) {
+            if (!loaded.containsKey(key)) {
+                drift++;
+            }
+        }
+        return drift;
+    }
+}
@@ -0,0 +1,62 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.DeletionLog;
+import com.issa.javahmz.event.TrackedTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DeletionLogRepository extends JpaRepository<DeletionLog, Long> {
+    
+    // Tombstones written after the given time
+    List<DeletionLog> findByDeletedAtAfter(LocalDateTime since);
+    
+    // Tombstones for students leaving the active roster in a bulk exclusion; same transaction as the UPDATEs
+    @Modifying
+    @Query(value = "INSERT INTO deletion_log (table_name, row_id, deleted_at) " +
+           "SELECT 'STUDENTS', s.id, :deletedAt FROM students s WHERE s.id IN :ids", nativeQuery = true)
+    int logStudents(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Tombstones for a bulk delete by teacher; run in the same transaction just before the DELETE.
+    // Native because JPQL cannot INSERT ... SELECT into an IDENTITY table on every database.
+    @Modifying
+    @Query(value = "INSERT INTO deletion_log (table_name, row_id, deleted_at) " +
+           "SELECT 'ADULT_STUDENTS', s.id, :deletedAt FROM adult_students s WHERE s.id IN :ids", nativeQuery = true)
+    int logAdultStudents(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    @Modifying
+    @Query(value = "INSERT INTO deletion_log (table_name, row_id, deleted_at) " +
+           "SELECT 'MEN_STUDENTS', s.id, :deletedAt FROM men_students s WHERE s.id IN :ids", nativeQuery = true)
+    int logMenStudents(@Param("ids") Collection<Long> ids, @Param("deletedAt") LocalDateTime deletedAt);
+    
+    // Tombstones for a bulk delete of the given rows on any roster table
+    default int logRoster(TrackedTable table, Collection<Long> ids, LocalDateTime deletedAt) {
+        switch (table) {
+            case STUDENTS:
+                return logStudents(ids, deletedAt);
+            case ADULT_STUDENTS:
+                return logAdultStudents(ids, deletedAt);
+            case MEN_STUDENTS:
+                return logMenStudents(ids, deletedAt);
+            default:
+                throw new IllegalArgumentException("Not a roster table: " + table);
+        }
+    }
+    
+    // A restored student comes back with the same id; its exclusion tombstone must not delete it again
+    @Modifying
+    @Query("DELETE FROM DeletionLog d WHERE d.table = :table AND d.rowId = :rowId")
+    int deleteByTableAndRowId(@Param("table") TrackedTable table, @Param("rowId") Long rowId);
+    
+    // Drop tombstones older than the retention window (clients that far behind do a full resync)
+    @Modifying
+    @Query("DELETE FROM DeletionLog d WHERE d.deletedAt < :before")
+    int deleteOlderThan(@Param("before") LocalDateTime before);
+}
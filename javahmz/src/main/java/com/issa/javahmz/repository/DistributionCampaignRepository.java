@@ -0,0 +1,22 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.DistributionCampaign;
+import com.issa.javahmz.event.TrackedTable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface DistributionCampaignRepository extends JpaRepository<DistributionCampaign, Long> {
+    
+    // Campaigns of one roster, newest first
+    List<DistributionCampaign> findByRosterOrderByCreatedAtDesc(TrackedTable roster);
+    
+    // Newest campaign of one roster and distribution type
+    Optional<DistributionCampaign> findFirstByRosterAndDistributionTypeOrderByCreatedAtDesc(TrackedTable roster, String distributionType);
+    
+    // All campaigns, newest first
+    List<DistributionCampaign> findAllByOrderByCreatedAtDesc();
+}
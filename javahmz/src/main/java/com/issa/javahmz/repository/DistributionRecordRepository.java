@@ -0,0 +1,37 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.DistributionRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DistributionRecordRepository extends JpaRepository<DistributionRecord, Long> {
+    
+    // Records of one campaign
+    List<DistributionRecord> findByCampaignId(Long campaignId);
+    
+    // Startup load of the in-memory bitsets: (campaignId, studentRowId) of every record
+    @Query("SELECT r.campaignId, r.studentRowId FROM DistributionRecord r")
+    List<Object[]> findAllMarks();
+    
+    // Unmark one student
+    @Modifying
+    @Query("DELETE FROM DistributionRecord r WHERE r.campaignId = :campaignId AND r.studentRowId = :studentRowId")
+    int deleteMark(@Param("campaignId") Long campaignId, @Param("studentRowId") Long studentRowId);
+    
+    // Unmark many students of one campaign
+    @Modifying
+    @Query("DELETE FROM DistributionRecord r WHERE r.campaignId = :campaignId AND r.studentRowId IN :studentRowIds")
+    int deleteMarks(@Param("campaignId") Long campaignId, @Param("studentRowIds") Collection<Long> studentRowIds);
+    
+    // Remove every record of a campaign
+    @Modifying
+    @Query("DELETE FROM DistributionRecord r WHERE r.campaignId = :campaignId")
+    int deleteByCampaign(@Param("campaignId") Long campaignId);
+}
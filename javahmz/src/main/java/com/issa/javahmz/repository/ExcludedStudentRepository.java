@@ -1,6 +1,7 @@
 package com.issa.javahmz.repository;
 
 import com.issa.javahmz.entity.ExcludedStudent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -8,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -32,11 +34,15 @@ public interface ExcludedStudentRepository extends JpaRepository<ExcludedStudent
     @Query("SELECT COUNT(e) FROM ExcludedStudent e WHERE e.ustadh = :ustadh")
     Long countByUstadh(@Param("ustadh") String ustadh);
     
-    // Count excluded students this month
-    @Query("SELECT COUNT(e) FROM ExcludedStudent e " +
-           "WHERE FUNCTION('YEAR', e.excludedDate) = :year " +
-           "AND FUNCTION('MONTH', e.excludedDate) = :month")
-    Long countByMonth(@Param("year") int year, @Param("month") int month);
+    // Count excluded students with from <= excludedDate < to; a plain range on the column,
+    // so the excluded_date index applies (a month is [first day, first day of next month))
+    @Query("SELECT COUNT(e) FROM ExcludedStudent e WHERE e.excludedDate >= :from AND e.excludedDate < :to")
+    Long countByExcludedDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
+    
+    // Excluded students with from <= excludedDate < to, newest first
+    @Query("SELECT e FROM ExcludedStudent e WHERE e.excludedDate >= :from AND e.excludedDate < :to " +
+           "ORDER BY e.excludedDate DESC, e.id DESC")
+    List<ExcludedStudent> findByExcludedDateRange(@Param("from") LocalDate from, @Param("to") LocalDate to);
     
     // Count excluded students by exclusion type - ADDED THIS METHOD
     @Query("SELECT COUNT(e) FROM ExcludedStudent e WHERE e.exclusionType = :exclusionType")
@@ -56,11 +62,26 @@ public interface ExcludedStudentRepository extends JpaRepository<ExcludedStudent
     boolean existsByStudentIdAndUstadhAndClassTeaching(
             String studentId, String ustadh, String classTeaching);
     
-    // NEW: Delete all records older than a given date (used for 3-year cleanup)
+    // Retention cleanup: how many records are past the cutoff
+    long countByExcludedDateBefore(LocalDate date);
+    
+    // Retention cleanup: the oldest records past the cutoff, one chunk at a time
+    @Query("SELECT e FROM ExcludedStudent e WHERE e.excludedDate < :date ORDER BY e.excludedDate, e.id")
+    List<ExcludedStudent> findChunkExcludedBefore(@Param("date") LocalDate date, Pageable limit);
+    
+    // Retention cleanup: delete one chunk by id
     @Modifying
-    @Query("DELETE FROM ExcludedStudent e WHERE e.excludedDate < :date")
-    long deleteByExcludedDateBefore(@Param("date") LocalDate date);
+    @Query("DELETE FROM ExcludedStudent e WHERE e.id IN :ids")
+    int deleteChunk(@Param("ids") Collection<Long> ids);
 
     // Check if student ID exists in excluded students
     boolean existsByStudentId(String studentId);
+    
+    // Student-ID registry: (id, studentId, excludedDate) of every excluded row
+    @Query("SELECT e.id, e.studentId, e.excludedDate FROM ExcludedStudent e")
+    List<Object[]> findAllStudentIds();
+    
+    // Bulk import: which of these student IDs already exist (one IN lookup per chunk)
+    @Query("SELECT e.studentId FROM ExcludedStudent e WHERE e.studentId IN :studentIds")
+    List<String> findExistingStudentIds(@Param("studentIds") Collection<String> studentIds);
 }
\ No newline at end of file
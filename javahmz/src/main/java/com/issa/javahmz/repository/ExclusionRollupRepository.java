@@ -0,0 +1,27 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.ExclusionMonthlyRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ExclusionRollupRepository extends JpaRepository<ExclusionMonthlyRollup, Long>, ExclusionRollupRepositoryCustom {
+    
+    // Rollup rows for the months in [from, to], oldest first
+    List<ExclusionMonthlyRollup> findByMonthStartBetweenOrderByMonthStart(LocalDate from, LocalDate to);
+    
+    // Same for one teacher, by lookup key
+    List<ExclusionMonthlyRollup> findByUstadhKeyAndMonthStartBetweenOrderByMonthStart(String ustadhKey, LocalDate from, LocalDate to);
+    
+    default int addExcluded(Collection<Long> ids) {
+        return adjustForIds(ids, 1);
+    }
+    
+    default int removeExcluded(Collection<Long> ids) {
+        return adjustForIds(ids, -1);
+    }
+}
@@ -0,0 +1,15 @@
+package com.issa.javahmz.repository;
+
+import java.util.Collection;
+
+// Rollup adjustments, written as one upsert per call. Implemented in plain JDBC because the
+// upsert syntax differs between PostgreSQL and the H2 test database.
+public interface ExclusionRollupRepositoryCustom {
+    
+    // Add delta per excluded row among these ids to its (month, type, teacher) count; one statement
+    // whatever the number of ids. Call after rows become EXCLUDED, before they stop being EXCLUDED.
+    int adjustForIds(Collection<Long> ids, int delta);
+    
+    // Same for the excluded row holding this student ID (restore)
+    int adjustForStudentId(String studentId, int delta);
+}
@@ -0,0 +1,73 @@
+package com.issa.javahmz.repository;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.util.Collection;
+
+// PostgreSQL gets INSERT ... ON CONFLICT DO UPDATE, which takes the row lock on the unique key, so
+// two transactions adjusting the same (month, type, teacher) never both insert or overwrite each
+// other's count (a MERGE can still fail or lose an update under concurrent inserts). H2 has no
+// ON CONFLICT ... DO UPDATE, so the tests run the equivalent MERGE; both compute the same deltas.
+public class ExclusionRollupRepositoryCustomImpl implements ExclusionRollupRepositoryCustom {
+    
+    private static final String BY_IDS = "s.id IN (:ids)";
+    
+    private static final String BY_STUDENT_ID = "s.student_id = :studentId";
+    
+    // (month, type, teacher, count) of the excluded rows matching where
+    private static String deltas(String where) {
+        return "SELECT CAST(DATE_TRUNC('MONTH', s.excluded_date) AS DATE) AS month_start, " +
+                "COALESCE(s.exclusion_type, 'unspecified') AS exclusion_type, s.ustadh_key AS ustadh_key, " +
+                ":delta * COUNT(*) AS excluded_count " +
+                "FROM students s WHERE " + where + " AND s.status = 'EXCLUDED' AND s.excluded_date IS NOT NULL " +
+                "GROUP BY CAST(DATE_TRUNC('MONTH', s.excluded_date) AS DATE), COALESCE(s.exclusion_type, 'unspecified'), s.ustadh_key";
+    }
+    
+    // PostgreSQL; the statements are package-private for the tests
+    static String upsert(String where) {
+        return "INSERT INTO exclusion_monthly_rollup (month_start, exclusion_type, ustadh_key, excluded_count) " + deltas(where) + " " +
+                "ON CONFLICT (month_start, exclusion_type, ustadh_key) " +
+                "DO UPDATE SET excluded_count = exclusion_monthly_rollup.excluded_count + EXCLUDED.excluded_count";
+    }
+    
+    // H2
+    static String merge(String where) {
+        return "MERGE INTO exclusion_monthly_rollup r USING (" + deltas(where) + ") d " +
+                "ON (r.month_start = d.month_start AND r.exclusion_type = d.exclusion_type AND r.ustadh_key = d.ustadh_key) " +
+                "WHEN MATCHED THEN UPDATE SET excluded_count = r.excluded_count + d.excluded_count " +
+                "WHEN NOT MATCHED THEN INSERT (month_start, exclusion_type, ustadh_key, excluded_count) " +
+                "VALUES (d.month_start, d.exclusion_type, d.ustadh_key, d.excluded_count)";
+    }
+    
+    @Autowired
+    private NamedParameterJdbcTemplate jdbcTemplate;
+    
+    private volatile Boolean postgres;
+    
+    @Override
+    public int adjustForIds(Collection<Long> ids, int delta) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(statement(BY_IDS),
+                new MapSqlParameterSource("ids", ids).addValue("delta", delta));
+    }
+    
+    @Override
+    public int adjustForStudentId(String studentId, int delta) {
+        return jdbcTemplate.update(statement(BY_STUDENT_ID),
+                new MapSqlParameterSource("studentId", studentId).addValue("delta", delta));
+    }
+    
+    private String statement(String where) {
+        if (postgres == null) {
+            String product = jdbcTemplate.getJdbcTemplate().execute(
+                    (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName());
+            postgres = "PostgreSQL".equals(product);
+        }
+        return postgres ? upsert(where) : merge(where);
+    }
+}
@@ -0,0 +1,153 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.RosterMember;
+import com.issa.javahmz.util.LookupKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+// Queries shared by the three roster repositories, written once against #{#entityName}
+// so every roster gets the same indexed lookups, keyset pages, cursors and bulk statements.
+@NoRepositoryBean
+public interface RosterRepository<T extends RosterMember> extends JpaRepository<T, Long> {
+    
+    // Find a student by student ID
+    Optional<T> findByStudentId(String studentId);
+    
+    // Find students by teacher name → case-insensitive (ustadh_key index)
+    default List<T> findByUstadh(String ustadh) {
+        return findByUstadhKey(LookupKey.of(ustadh));
+    }
+    
+    @Query("SELECT s FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey")
+    List<T> findByUstadhKey(@Param("ustadhKey") String ustadhKey);
+    
+    // Find students by teacher name and class → case-insensitive (ustadh_key, class_teaching_key index)
+    default List<T> findByUstadhAndClassTeaching(String ustadh, String classTeaching) {
+        return findByUstadhKeyAndClassTeachingKey(LookupKey.of(ustadh), LookupKey.of(classTeaching));
+    }
+    
+    @Query("SELECT s FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey AND s.classTeachingKey = :classTeachingKey")
+    List<T> findByUstadhKeyAndClassTeachingKey(@Param("ustadhKey") String ustadhKey, @Param("classTeachingKey") String classTeachingKey);
+    
+    // Check if student with ID exists
+    boolean existsByStudentId(String studentId);
+    
+    // Check if student with name and ID exists (case insensitive)
+    @Query("SELECT COUNT(s) > 0 FROM #{#entityName} s WHERE LOWER(s.name) = LOWER(:name) AND s.studentId = :studentId")
+    boolean existsByNameAndStudentId(@Param("name") String name, @Param("studentId") String studentId);
+    
+    // Find all students ordered by name
+    List<T> findAllByOrderByNameAsc();
+    
+    // Find students ordered by name, limited to one page (used to cap the unpaged list)
+    List<T> findAllByOrderByNameAsc(Pageable pageable);
+    
+    // Keyset pagination: first page ordered by (name, id)
+    @Query("SELECT s FROM #{#entityName} s ORDER BY s.name ASC, s.id ASC")
+    List<T> findFirstPage(Pageable pageable);
+    
+    // Keyset pagination: next page after the (name, id) of the last row already returned
+    @Query("SELECT s FROM #{#entityName} s WHERE s.name > :name OR (s.name = :name AND s.id > :id) ORDER BY s.name ASC, s.id ASC")
+    List<T> findPageAfter(@Param("name") String name, @Param("id") Long id, Pageable pageable);
+    
+    // Count students by teacher → case-insensitive
+    default Long countByUstadh(String ustadh) {
+        return countByUstadhKey(LookupKey.of(ustadh));
+    }
+    
+    @Query("SELECT COUNT(s) FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey")
+    Long countByUstadhKey(@Param("ustadhKey") String ustadhKey);
+    
+    // Dashboard: count students grouped by teacher and gender (one row per pair)
+    @Query("SELECT s.ustadh, s.gender, COUNT(s) FROM #{#entityName} s GROUP BY s.ustadh, s.gender")
+    List<Object[]> countGroupedByUstadhAndGender();
+    
+    // Student-ID registry: (id, studentId) of every row
+    @Query("SELECT s.id, s.studentId FROM #{#entityName} s")
+    List<Object[]> findAllStudentIds();
+    
+    // Distribution counts: (id, ustadh) of every row
+    @Query("SELECT s.id, s.ustadh FROM #{#entityName} s")
+    List<Object[]> findAllTeacherAssignments();
+    
+    // Export: one teacher's students ordered by name, read through a database cursor
+    default Stream<T> streamByUstadh(String ustadh) {
+        return streamByUstadhKey(LookupKey.of(ustadh));
+    }
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey ORDER BY s.name ASC, s.id ASC")
+    Stream<T> streamByUstadhKey(@Param("ustadhKey") String ustadhKey);
+    
+    // Export: one teacher's students of one class ordered by name, read through a database cursor
+    default Stream<T> streamByUstadhAndClassTeaching(String ustadh, String classTeaching) {
+        return streamByUstadhKeyAndClassTeachingKey(LookupKey.of(ustadh), LookupKey.of(classTeaching));
+    }
+    
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey AND s.classTeachingKey = :classTeachingKey " +
+           "ORDER BY s.name ASC, s.id ASC")
+    Stream<T> streamByUstadhKeyAndClassTeachingKey(@Param("ustadhKey") String ustadhKey,
+                                                   @Param("classTeachingKey") String classTeachingKey);
+    
+    // Export: every student grouped by teacher, ordered by name within a teacher
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT s FROM #{#entityName} s ORDER BY s.ustadhKey ASC, s.name ASC, s.id ASC")
+    Stream<T> streamAllOrderByTeacher();
+    
+    // Bulk import: which of these student IDs already exist (one IN lookup per chunk)
+    @Query("SELECT s.studentId FROM #{#entityName} s WHERE s.studentId IN :studentIds")
+    List<String> findExistingStudentIds(@Param("studentIds") Collection<String> studentIds);
+    
+    // Search students by name or ID
+    @Query("SELECT s FROM #{#entityName} s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR s.studentId LIKE CONCAT('%', :searchTerm, '%')")
+    List<T> searchByNameOrId(@Param("searchTerm") String searchTerm);
+    
+    // Ids of a teacher's students → case-insensitive; bulk deletes select them first so they
+    // can publish one change event per removed row
+    default List<Long> findIdsByUstadh(String ustadh) {
+        return findIdsByUstadhKey(LookupKey.of(ustadh));
+    }
+    
+    @Query("SELECT s.id FROM #{#entityName} s WHERE s.ustadhKey = :ustadhKey")
+    List<Long> findIdsByUstadhKey(@Param("ustadhKey") String ustadhKey);
+    
+    // Move the given rows to another class in one UPDATE; returns the number of rows changed.
+    // @PreUpdate does not run for bulk statements, so updatedAt and classTeachingKey are set here.
+    default int updateClassTeaching(Collection<Long> ids, String newClassTeaching, LocalDateTime updatedAt) {
+        return updateClassTeaching(ids, newClassTeaching, LookupKey.of(newClassTeaching), updatedAt);
+    }
+    
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE #{#entityName} s SET s.classTeaching = :newClassTeaching, s.classTeachingKey = :newClassTeachingKey, " +
+           "s.updatedAt = :updatedAt WHERE s.id IN :ids")
+    int updateClassTeaching(@Param("ids") Collection<Long> ids,
+                            @Param("newClassTeaching") String newClassTeaching,
+                            @Param("newClassTeachingKey") String newClassTeachingKey,
+                            @Param("updatedAt") LocalDateTime updatedAt);
+    
+    // Delete the given rows in one DELETE; returns the number of rows removed.
+    // @PostRemove does not run for bulk statements; callers publish the change events.
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM #{#entityName} s WHERE s.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Rows created or changed after the given time (delta sync); uses the updated_at index
+    List<T> findByUpdatedAtAfter(LocalDateTime since);
+}
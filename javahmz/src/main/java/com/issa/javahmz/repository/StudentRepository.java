@@ -1,46 +1,73 @@
 package com.issa.javahmz.repository;
 
 import com.issa.javahmz.entity.Student;
-import org.springframework.data.jpa.repository.JpaRepository;
+import com.issa.javahmz.util.LookupKey;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+// Shared roster queries live in RosterRepository; only the student-only columns are queried here.
+// Every JPQL query sees ACTIVE rows only (see Student); the lifecycle statements below are native
+// because they cross between ACTIVE and EXCLUDED rows.
 @Repository
-public interface StudentRepository extends JpaRepository<Student, Long> {
-    
-    // Find student by student ID
-    Optional<Student> findByStudentId(String studentId);
-    
-    // Find students by teacher name → case-insensitive
-    @Query("SELECT s FROM Student s WHERE UPPER(s.ustadh) = UPPER(:ustadh)")
-    List<Student> findByUstadh(@Param("ustadh") String ustadh);
-    
-    // Find students by teacher name and class → case-insensitive
-    @Query("SELECT s FROM Student s WHERE UPPER(s.ustadh) = UPPER(:ustadh) AND UPPER(s.classTeaching) = UPPER(:classTeaching)")
-    List<Student> findByUstadhAndClassTeaching(
-            @Param("ustadh") String ustadh, 
-            @Param("classTeaching") String classTeaching
-    );
-    
-    // Check if student with ID exists
-    boolean existsByStudentId(String studentId);
-    
-    // Check if student with name and ID exists (case insensitive for name)
-    @Query("SELECT COUNT(s) > 0 FROM Student s WHERE LOWER(s.name) = LOWER(:name) AND s.studentId = :studentId")
-    boolean existsByNameAndStudentId(@Param("name") String name, @Param("studentId") String studentId);
-    
-    // Find all students ordered by name
-    List<Student> findAllByOrderByNameAsc();
-    
-    // Count students by teacher → case-insensitive
-    @Query("SELECT COUNT(s) FROM Student s WHERE UPPER(s.ustadh) = UPPER(:ustadh)")
-    Long countByUstadh(@Param("ustadh") String ustadh);
-    
-    // Search students by name or ID
-    @Query("SELECT s FROM Student s WHERE LOWER(s.name) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR s.studentId LIKE CONCAT('%', :searchTerm, '%')")
-    List<Student> searchByNameOrId(@Param("searchTerm") String searchTerm);
+public interface StudentRepository extends RosterRepository<Student> {
+
+    // Shoe-size histogram: (id, shoeSize, ustadh, madrassaLocation) of every student row
+    @Query("SELECT s.id, s.shoeSize, s.ustadh, s.madrassaLocation FROM Student s")
+    List<Object[]> findAllShoeSizes();
+
+    // Status of the row holding this student ID, active or excluded; empty when the ID is free
+    @Query(value = "SELECT s.status FROM students s WHERE s.student_id = :studentId", nativeQuery = true)
+    Optional<String> findStatusByStudentId(@Param("studentId") String studentId);
+
+    // Exclude an active student in one UPDATE; returns 0 when no active row has this id
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE students SET status = 'EXCLUDED', excluded_date = :excludedDate, excluded_by = :excludedBy, " +
+           "reason = :reason, exclusion_type = :exclusionType, additional_notes = :additionalNotes, updated_at = :updatedAt " +
+           "WHERE id = :id AND status = 'ACTIVE'", nativeQuery = true)
+    int markExcluded(@Param("id") Long id,
+                     @Param("excludedDate") LocalDate excludedDate,
+                     @Param("excludedBy") String excludedBy,
+                     @Param("reason") String reason,
+                     @Param("exclusionType") String exclusionType,
+                     @Param("additionalNotes") String additionalNotes,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Put an excluded student back under a teacher and class in one UPDATE, clearing the exclusion;
+    // returns 0 when the student ID is not excluded
+    default int restoreExcluded(String studentId, String ustadh, String classTeaching, LocalDateTime updatedAt) {
+        return restoreExcluded(studentId, ustadh, LookupKey.of(ustadh), classTeaching, LookupKey.of(classTeaching), updatedAt);
+    }
+
+    @Modifying(clearAutomatically = true)
+    @Query(value = "UPDATE students SET status = 'ACTIVE', ustadh = :ustadh, ustadh_key = :ustadhKey, " +
+           "class_teaching = :classTeaching, class_teaching_key = :classTeachingKey, excluded_date = NULL, " +
+           "excluded_by = NULL, reason = NULL, exclusion_type = NULL, additional_notes = NULL, updated_at = :updatedAt " +
+           "WHERE student_id = :studentId AND status = 'EXCLUDED'", nativeQuery = true)
+    int restoreExcluded(@Param("studentId") String studentId,
+                        @Param("ustadh") String ustadh,
+                        @Param("ustadhKey") String ustadhKey,
+                        @Param("classTeaching") String classTeaching,
+                        @Param("classTeachingKey") String classTeachingKey,
+                        @Param("updatedAt") LocalDateTime updatedAt);
+
+    // Bulk exclusion: (id, studentId, name, ustadh, classTeaching, status) of these rows, active or excluded
+    @Query(value = "SELECT s.id, s.student_id, s.name, s.ustadh, s.class_teaching, s.status FROM students s WHERE s.id IN :ids",
+           nativeQuery = true)
+    List<Object[]> findLifecycleRows(@Param("ids") Collection<Long> ids);
+
+    // Exclusion statistics in one pass over the table: (status, ustadh, exclusionType, year, month, count).
+    // Active rows have no exclusion type or date, so they come back as one group per teacher.
+    @Query(value = "SELECT s.status, s.ustadh, s.exclusion_type, EXTRACT(YEAR FROM s.excluded_date), " +
+           "EXTRACT(MONTH FROM s.excluded_date), COUNT(*) FROM students s " +
+           "GROUP BY s.status, s.ustadh, s.exclusion_type, EXTRACT(YEAR FROM s.excluded_date), EXTRACT(MONTH FROM s.excluded_date)",
+           nativeQuery = true)
+    List<Object[]> countByStatusTeacherTypeAndMonth();
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,4 +28,7 @@ public interface TeacherRepository extends JpaRepository<Teacher, Long> {
     // Search teachers by name (case-insensitive)
     @Query("SELECT t FROM Teacher t WHERE LOWER(t.name) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Teacher> searchByName(@Param("name") String name);
+    
+    // Rows created or changed after the given time (delta sync); uses the updated_at index
+    List<Teacher> findByUpdatedAtAfter(LocalDateTime since);
 }
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,4 +25,7 @@ public interface UstaadRepository extends JpaRepository<Ustaad, Long> {
     // Search ustaads by name (case-insensitive)
     @Query("SELECT u FROM Ustaad u WHERE LOWER(u.fullName) LIKE LOWER(CONCAT('%', :name, '%'))")
     List<Ustaad> searchByFullName(@Param("name") String name);
+    
+    // Rows created or changed after the given time (delta sync); uses the updated_at index
+    List<Ustaad> findByUpdatedAtAfter(LocalDateTime since);
 }
\ No newline at end of file
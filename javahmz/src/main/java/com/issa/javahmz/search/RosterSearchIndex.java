@@ -0,0 +1,170 @@
+package com.issa.javahmz.search;
+
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.entity.AdultStudent;
+import com.issa.javahmz.entity.MenStudent;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.ProjectionBuilds;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram search over the three active rosters.
+// Built at startup, then kept current from committed EntityChangeEvents.
+// Callers fall back to the database LIKE query whenever search() returns empty.
+@Component
+public class RosterSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterSearchIndex.class);
+
+    private static final TrackedTable[] ROSTERS = {
+            TrackedTable.STUDENTS, TrackedTable.ADULT_STUDENTS, TrackedTable.MEN_STUDENTS
+    };
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final TrigramIndex index = new TrigramIndex();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    // Events that arrive while a table is being reloaded are replayed afterwards,
+    // so a write committed between the reload query and the swap is not lost
+    private final ProjectionBuilds builds = new ProjectionBuilds();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.nanoTime();
+        for (TrackedTable table : ROSTERS) {
+            admissionGate.runInBackground(() -> rebuild(table));
+        }
+        ready = true;
+        log.info("Roster search index built: {} rows in {} ms",
+                size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Search one roster; empty when the index cannot answer (disabled, not built, term too short)
+    public <T> Optional<List<T>> search(TrackedTable table, String term) {
+        if (!enabled || !ready || term == null || term.length() < TrigramIndex.GRAM_SIZE) {
+            return Optional.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return Optional.of(index.search(table, term));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Number of indexed rows across all rosters
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEntityChange(EntityChangeEvent event) {
+        if (!enabled || !isRoster(event.getTable())) {
+            return;
+        }
+        if (event.getType() == EntityChangeEvent.ChangeType.BULK) {
+            rebuild(event.getTable());
+            return;
+        }
+        builds.apply(event, this::apply);
+    }
+
+    private static boolean isRoster(TrackedTable table) {
+        for (TrackedTable roster : ROSTERS) {
+            if (roster == table) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Reload one roster from the database
+    private void rebuild(TrackedTable table) {
+        builds.rebuild(() -> {
+            List<?> rows = load(table);
+            lock.writeLock().lock();
+            try {
+                index.removeTable(table);
+                for (Object row : rows) {
+                    put(table, row);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }, event -> event.getTable() == table, this::apply);
+    }
+
+    private List<?> load(TrackedTable table) {
+        switch (table) {
+            case STUDENTS:
+                return studentRepository.findAll();
+            case ADULT_STUDENTS:
+                return adultStudentRepository.findAll();
+            case MEN_STUDENTS:
+                return menStudentRepository.findAll();
+            default:
+                return List.of();
+        }
+    }
+
+    private void apply(EntityChangeEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.getType() == EntityChangeEvent.ChangeType.DELETED) {
+                index.remove(event.getTable(), event.getEntityId());
+            } else {
+                put(event.getTable(), event.getEntity());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(TrackedTable table, Object row) {
+        if (row instanceof Student student) {
+            index.put(table, student.getId(), student.getName(), student.getStudentId(), student);
+        } else if (row instanceof AdultStudent adultStudent) {
+            index.put(table, adultStudent.getId(), adultStudent.getName(), adultStudent.getStudentId(), adultStudent);
+        } else if (row instanceof MenStudent menStudent) {
+            index.put(table, menStudent.getId(), menStudent.getName(), menStudent.getStudentId(), menStudent);
+        }
+    }
+}
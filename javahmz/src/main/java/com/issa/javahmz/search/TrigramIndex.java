@@ -0,0 +1,166 @@
+package com.issa.javahmz.search;
+
+import com.issa.javahmz.event.TrackedTable;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+// Trigram (3-gram) inverted index over student name and student ID.
+// Not thread-safe on its own; RosterSearchIndex guards it with a read/write lock.
+public class TrigramIndex {
+
+    public static final int GRAM_SIZE = 3;
+
+    record DocKey(TrackedTable table, Long id) {
+    }
+
+    private record Doc(DocKey key, Object entity, String name, String nameLower,
+                       String studentId, Set<String> grams) {
+    }
+
+    private record Match(Doc doc, int rank) {
+    }
+
+    private final Map<String, Set<DocKey>> postings = new HashMap<>();
+    private final Map<DocKey, Doc> docs = new HashMap<>();
+
+    // Add or replace one row
+    public void put(TrackedTable table, Long id, String name, String studentId, Object entity) {
+        DocKey key = new DocKey(table, id);
+        remove(table, id);
+
+        String safeName = name != null ? name : "";
+        String safeStudentId = studentId != null ? studentId : "";
+        String nameLower = safeName.toLowerCase(Locale.ROOT);
+
+        Set<String> grams = new HashSet<>();
+        addGrams(nameLower, grams);
+        addGrams(safeStudentId.toLowerCase(Locale.ROOT), grams);
+
+        docs.put(key, new Doc(key, entity, safeName, nameLower, safeStudentId, grams));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, g -> new HashSet<>()).add(key);
+        }
+    }
+
+    // Remove one row (no-op if it is not indexed)
+    public void remove(TrackedTable table, Long id) {
+        Doc doc = docs.remove(new DocKey(table, id));
+        if (doc == null) {
+            return;
+        }
+        for (String gram : doc.grams()) {
+            Set<DocKey> keys = postings.get(gram);
+            if (keys != null) {
+                keys.remove(doc.key());
+                if (keys.isEmpty()) {
+                    postings.remove(gram);
+                }
+            }
+        }
+    }
+
+    // Remove every row of one table
+    public void removeTable(TrackedTable table) {
+        List<DocKey> keys = docs.keySet().stream().filter(k -> k.table() == table).toList();
+        for (DocKey key : keys) {
+            remove(key.table(), key.id());
+        }
+    }
+
+    // Number of indexed rows
+    public int size() {
+        return docs.size();
+    }
+
+    // Rows of one table whose name (case-insensitive) or student ID (case-sensitive, as in the
+    // database LIKE query) contains the term, best matches first. The term must be at least
+    // GRAM_SIZE characters long.
+    @SuppressWarnings("unchecked")
+    public <T> List<T> search(TrackedTable table, String term) {
+        String termLower = term.toLowerCase(Locale.ROOT);
+
+        Set<String> queryGrams = new HashSet<>();
+        addGrams(termLower, queryGrams);
+
+        // Intersect posting lists, smallest first
+        List<Set<DocKey>> lists = new ArrayList<>();
+        for (String gram : queryGrams) {
+            Set<DocKey> keys = postings.get(gram);
+            if (keys == null) {
+                return List.of();
+            }
+            lists.add(keys);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<Match> matches = new ArrayList<>();
+        for (DocKey key : lists.get(0)) {
+            if (key.table() != table || !inAll(key, lists)) {
+                continue;
+            }
+            Doc doc = docs.get(key);
+            int rank = rank(doc, term, termLower);
+            if (rank >= 0) {
+                matches.add(new Match(doc, rank));
+            }
+        }
+
+        matches.sort(Comparator.comparingInt(Match::rank)
+                .thenComparing(m -> m.doc().name())
+                .thenComparing(m -> m.doc().key().id()));
+
+        List<T> results = new ArrayList<>(matches.size());
+        for (Match match : matches) {
+            results.add((T) match.doc().entity());
+        }
+        return results;
+    }
+
+    // Lower is better; -1 means the trigram candidate is not a real substring match
+    private static int rank(Doc doc, String term, String termLower) {
+        if (doc.studentId().equals(term)) {
+            return 0;
+        }
+        if (doc.studentId().startsWith(term)) {
+            return 1;
+        }
+        if (doc.nameLower().equals(termLower)) {
+            return 2;
+        }
+        if (doc.nameLower().startsWith(termLower)) {
+            return 3;
+        }
+        if (doc.nameLower().contains(" " + termLower)) {
+            return 4;
+        }
+        if (doc.studentId().contains(term)) {
+            return 5;
+        }
+        if (doc.nameLower().contains(termLower)) {
+            return 6;
+        }
+        return -1;
+    }
+
+    private static boolean inAll(DocKey key, List<Set<DocKey>> lists) {
+        for (int i = 1; i < lists.size(); i++) {
+            if (!lists.get(i).contains(key)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void addGrams(String text, Set<String> grams) {
+        for (int i = 0; i + GRAM_SIZE <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_SIZE));
+        }
+    }
+}
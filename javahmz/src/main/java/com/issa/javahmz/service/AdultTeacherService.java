@@ -1,5 +1,6 @@
 package com.issa.javahmz.service;
 
+import com.issa.javahmz.cache.TeacherAccessCache;
 import com.issa.javahmz.entity.AdultTeacher;
 import com.issa.javahmz.repository.AdultTeacherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,9 @@ public class AdultTeacherService {
     @Autowired
     private AdultTeacherRepository adultTeacherRepository;
     
+    @Autowired
+    private TeacherAccessCache teacherAccessCache;
+    
     // Get all adult teachers
     public List<AdultTeacher> getAllAdultTeachers() {
         return adultTeacherRepository.findAllByOrderByNameAsc();
@@ -26,7 +30,8 @@ public class AdultTeacherService {
     
     // Get adult teacher by name and class
     public Optional<AdultTeacher> getAdultTeacherByNameAndClass(String name, String classTeaching) {
-        return adultTeacherRepository.findByNameAndClassTeaching(name, classTeaching);
+        return teacherAccessCache.get(AdultTeacher.class, name, classTeaching,
+                () -> adultTeacherRepository.findByNameAndClassTeaching(name, classTeaching));
     }
     
     // Create new adult teacher
@@ -35,7 +40,9 @@ public class AdultTeacherService {
         if (adultTeacherRepository.existsByName(adultTeacher.getName())) {
             throw new RuntimeException("Adult teacher with name '" + adultTeacher.getName() + "' already exists");
         }
-        return adultTeacherRepository.save(adultTeacher);
+        AdultTeacher saved = adultTeacherRepository.save(adultTeacher);
+        teacherAccessCache.invalidate(AdultTeacher.class);
+        return saved;
     }
     
     // Update adult teacher
@@ -52,7 +59,9 @@ public class AdultTeacherService {
         adultTeacher.setName(adultTeacherDetails.getName());
         adultTeacher.setClassTeaching(adultTeacherDetails.getClassTeaching());
         
-        return adultTeacherRepository.save(adultTeacher);
+        AdultTeacher saved = adultTeacherRepository.save(adultTeacher);
+        teacherAccessCache.invalidate(AdultTeacher.class);
+        return saved;
     }
     
     // Delete adult teacher
@@ -60,6 +69,7 @@ public class AdultTeacherService {
         AdultTeacher adultTeacher = adultTeacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Adult teacher not found with id: " + id));
         adultTeacherRepository.delete(adultTeacher);
+        teacherAccessCache.invalidate(AdultTeacher.class);
     }
     
     // Search adult teachers by name
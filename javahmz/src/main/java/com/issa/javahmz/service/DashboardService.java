@@ -0,0 +1,125 @@
+package com.issa.javahmz.service;
+
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.repository.UstaadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@Service
+public class DashboardService {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private UstaadRepository ustaadRepository;
+
+    @Autowired
+    private ExcludedStudentRepository excludedStudentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private TableVersions tableVersions;
+
+    @Value("${dashboard.summary.cache-ttl-ms:30000}")
+    private long cacheTtlMs;
+
+    // Tables the summary counts; a committed write to any of them bumps the cache key
+    private static final TrackedTable[] SUMMARY_TABLES = {
+        TrackedTable.STUDENTS, TrackedTable.ADULT_STUDENTS, TrackedTable.MEN_STUDENTS,
+        TrackedTable.EXCLUDED_STUDENTS, TrackedTable.USTAADS
+    };
+
+    private record Cached(String versions, long cachedAtMillis, Map<String, Object> summary) {
+    }
+
+    private volatile Cached cached;
+
+    // Get the dashboard summary: reused until a write through this app changes one of the
+    // counted tables, and at most for the cache TTL (writes made outside the app)
+    public Map<String, Object> getSummary() {
+        String versions = tableVersions.etag(SUMMARY_TABLES);
+        Cached current = cached;
+        if (isFresh(current, versions)) {
+            return current.summary();
+        }
+
+        // Only one request recomputes; the others wait and reuse its result
+        synchronized (this) {
+            if (isFresh(cached, versions)) {
+                return cached.summary();
+            }
+            // Versions are read before the queries: a write that lands meanwhile makes this entry stale
+            Map<String, Object> summary = computeSummary();
+            cached = new Cached(versions, System.currentTimeMillis(), summary);
+            return summary;
+        }
+    }
+
+    private boolean isFresh(Cached entry, String versions) {
+        return entry != null && entry.versions().equals(versions)
+                && System.currentTimeMillis() - entry.cachedAtMillis() < cacheTtlMs;
+    }
+
+    // Run all aggregate queries in one read-only transaction (one pooled connection)
+    private Map<String, Object> computeSummary() {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(status -> {
+            Map<String, Object> summary = new HashMap<>();
+            summary.put("students", rosterSummary(studentRepository.countGroupedByUstadhAndGender()));
+            summary.put("adultStudents", rosterSummary(adultStudentRepository.countGroupedByUstadhAndGender()));
+            summary.put("menStudents", rosterSummary(menStudentRepository.countGroupedByUstadhAndGender()));
+            summary.put("totalUstaads", ustaadRepository.count());
+            summary.put("totalExcluded", excludedStudentRepository.count());
+            summary.put("generatedAt", LocalDateTime.now());
+            return summary;
+        });
+    }
+
+    // Fold (ustadh, gender, count) rows into total, byGender and byTeacher
+    private Map<String, Object> rosterSummary(List<Object[]> rows) {
+        long total = 0;
+        Map<String, Long> byGender = new TreeMap<>();
+        Map<String, Long> byTeacher = new TreeMap<>();
+
+        for (Object[] row : rows) {
+            String ustadh = (String) row[0];
+            String gender = (String) row[1];
+            long count = ((Number) row[2]).longValue();
+
+            total += count;
+            byGender.merge(gender, count, Long::sum);
+            byTeacher.merge(ustadh, count, Long::sum);
+        }
+
+        Map<String, Object> roster = new HashMap<>();
+        roster.put("total", total);
+        roster.put("byGender", byGender);
+        roster.put("byTeacher", byTeacher);
+        return roster;
+    }
+}
@@ -0,0 +1,255 @@
+package com.issa.javahmz.service;
+
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.distribution.RosterMembership;
+import com.issa.javahmz.entity.DistributionCampaign;
+import com.issa.javahmz.entity.DistributionRecord;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.DistributionCampaignRepository;
+import com.issa.javahmz.repository.DistributionRecordRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// Food hamper / shoe handouts per campaign.
+// Every campaign keeps a bitset of the roster row ids that received the item, so
+// "has this student received it" and mark/unmark are O(1) in memory; the records table
+// is the durable copy. All writes go through this service and are serialized on it,
+// so the bitsets and the table never disagree.
+@Service
+public class DistributionService {
+
+    private static final Logger log = LoggerFactory.getLogger(DistributionService.class);
+
+    public static final List<String> DISTRIBUTION_TYPES = List.of("food_hamper", "shoes");
+
+    @Autowired
+    private DistributionCampaignRepository campaignRepository;
+
+    @Autowired
+    private DistributionRecordRepository recordRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private RosterMembership rosterMembership;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    // campaign id -> roster row ids that received the item
+    private final Map<Long, BitSet> receivedByCampaign = new HashMap<>();
+    private final Map<Long, TrackedTable> rosterByCampaign = new HashMap<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        admissionGate.runInBackground(this::load);
+    }
+
+    private synchronized void load() {
+        long started = System.nanoTime();
+        for (DistributionCampaign campaign : campaignRepository.findAll()) {
+            receivedByCampaign.put(campaign.getId(), new BitSet());
+            rosterByCampaign.put(campaign.getId(), campaign.getRoster());
+        }
+        List<Object[]> marks = recordRepository.findAllMarks();
+        for (Object[] mark : marks) {
+            BitSet received = receivedByCampaign.get((Long) mark[0]);
+            if (received != null) {
+                received.set(Math.toIntExact((Long) mark[1]));
+            }
+        }
+        log.info("Distribution bitsets loaded: {} campaigns, {} records in {} ms",
+                receivedByCampaign.size(), marks.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // Get campaigns, optionally of one roster, newest first
+    public List<DistributionCampaign> getCampaigns(String roster) {
+        if (roster == null || roster.isBlank()) {
+            return campaignRepository.findAllByOrderByCreatedAtDesc();
+        }
+        return campaignRepository.findByRosterOrderByCreatedAtDesc(parseRoster(roster));
+    }
+
+    // Create a campaign
+    public synchronized DistributionCampaign createCampaign(String name, String roster, String distributionType) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Campaign name is required");
+        }
+        if (!DISTRIBUTION_TYPES.contains(distributionType)) {
+            throw new IllegalArgumentException("distributionType must be one of " + DISTRIBUTION_TYPES);
+        }
+        DistributionCampaign campaign = campaignRepository.save(
+                new DistributionCampaign(name.trim(), parseRoster(roster), distributionType));
+        receivedByCampaign.put(campaign.getId(), new BitSet());
+        rosterByCampaign.put(campaign.getId(), campaign.getRoster());
+        return campaign;
+    }
+
+    // Latest campaign of a roster and type, created on first use. Runs under the same lock as
+    // createCampaign, so screens opened at the same time share one campaign.
+    public synchronized DistributionCampaign currentCampaign(String name, String roster, String distributionType) {
+        return campaignRepository.findFirstByRosterAndDistributionTypeOrderByCreatedAtDesc(parseRoster(roster), distributionType)
+                .orElseGet(() -> createCampaign(name, roster, distributionType));
+    }
+
+    // Delete a campaign and all its records
+    public synchronized void deleteCampaign(Long campaignId) {
+        DistributionCampaign campaign = campaignRepository.findById(campaignId)
+                .orElseThrow(() -> new RuntimeException("Campaign not found with id: " + campaignId));
+        inTransaction(() -> {
+            recordRepository.deleteByCampaign(campaignId);
+            campaignRepository.delete(campaign);
+        });
+        receivedByCampaign.remove(campaignId);
+        rosterByCampaign.remove(campaignId);
+    }
+
+    // Records (who, when, by whom) of one campaign
+    public List<DistributionRecord> getRecords(Long campaignId) {
+        requireCampaign(campaignId);
+        return recordRepository.findByCampaignId(campaignId);
+    }
+
+    // Mark one student as received (now, unless distributedAt is given); returns false if they already were
+    public synchronized boolean mark(Long campaignId, Long studentRowId, String distributedBy, LocalDateTime distributedAt) {
+        BitSet received = requireCampaign(campaignId);
+        int bit = Math.toIntExact(studentRowId);
+        if (received.get(bit)) {
+            return false;
+        }
+        if (!studentExists(rosterByCampaign.get(campaignId), studentRowId)) {
+            throw new RuntimeException("Student not found with id: " + studentRowId);
+        }
+        try {
+            DistributionRecord record = new DistributionRecord(campaignId, studentRowId, distributedBy);
+            if (distributedAt != null) {
+                record.setDistributedAt(distributedAt);
+            }
+            recordRepository.save(record);
+        } catch (DataIntegrityViolationException e) {
+            // Already in the table (written by another instance); just catch up in memory
+            log.debug("Distribution record {}/{} already existed", campaignId, studentRowId);
+        }
+        received.set(bit);
+        return true;
+    }
+
+    // Unmark one student; returns false if they were not marked
+    public synchronized boolean unmark(Long campaignId, Long studentRowId) {
+        BitSet received = requireCampaign(campaignId);
+        int bit = Math.toIntExact(studentRowId);
+        if (!received.get(bit)) {
+            return false;
+        }
+        inTransaction(() -> recordRepository.deleteMark(campaignId, studentRowId));
+        received.clear(bit);
+        return true;
+    }
+
+    // Unmark every student of one teacher; returns how many were cleared
+    public synchronized int unmarkTeacher(Long campaignId, String ustadh) {
+        BitSet received = requireCampaign(campaignId);
+        BitSet toClear = rosterMembership.rowsOf(rosterByCampaign.get(campaignId), ustadh);
+        toClear.and(received);
+        if (toClear.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> rowIds = new ArrayList<>(toClear.cardinality());
+        toClear.stream().forEach(bit -> rowIds.add((long) bit));
+        inTransaction(() -> {
+            for (int from = 0; from < rowIds.size(); from += 1000) {
+                recordRepository.deleteMarks(campaignId, rowIds.subList(from, Math.min(from + 1000, rowIds.size())));
+            }
+        });
+        received.andNot(toClear);
+        return rowIds.size();
+    }
+
+    // Received / pending counts for one teacher, or for the whole roster with a per-teacher breakdown
+    public Map<String, Object> getCounts(Long campaignId, String ustadh) {
+        if (!rosterMembership.isReady()) {
+            throw new IllegalStateException("Distribution counts are still loading, try again shortly");
+        }
+        BitSet received;
+        TrackedTable roster;
+        synchronized (this) {
+            received = (BitSet) requireCampaign(campaignId).clone();
+            roster = rosterByCampaign.get(campaignId);
+        }
+
+        Map<String, Object> counts = ustadh != null && !ustadh.isBlank()
+                ? rosterMembership.countForTeacher(roster, received, ustadh)
+                : rosterMembership.countAll(roster, received);
+        counts.put("campaignId", campaignId);
+        return counts;
+    }
+
+    private synchronized BitSet requireCampaign(Long campaignId) {
+        BitSet received = receivedByCampaign.get(campaignId);
+        if (received == null) {
+            throw new RuntimeException("Campaign not found with id: " + campaignId);
+        }
+        return received;
+    }
+
+    private boolean studentExists(TrackedTable roster, Long studentRowId) {
+        if (rosterMembership.isReady()) {
+            return rosterMembership.contains(roster, studentRowId);
+        }
+        switch (roster) {
+            case STUDENTS:
+                return studentRepository.existsById(studentRowId);
+            case ADULT_STUDENTS:
+                return adultStudentRepository.existsById(studentRowId);
+            case MEN_STUDENTS:
+                return menStudentRepository.existsById(studentRowId);
+            default:
+                return false;
+        }
+    }
+
+    private void inTransaction(Runnable work) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> work.run());
+    }
+
+    private static TrackedTable parseRoster(String roster) {
+        try {
+            TrackedTable table = TrackedTable.valueOf(roster.trim().toUpperCase(Locale.ROOT));
+            if (RosterMembership.isRoster(table)) {
+                return table;
+            }
+        } catch (IllegalArgumentException | NullPointerException e) {
+            // fall through
+        }
+        throw new IllegalArgumentException("roster must be one of STUDENTS, ADULT_STUDENTS, MEN_STUDENTS");
+    }
+}
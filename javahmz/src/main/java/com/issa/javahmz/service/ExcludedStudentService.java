@@ -1,15 +1,38 @@
 package com.issa.javahmz.service;
 
 import com.issa.javahmz.entity.ExcludedStudent;
+import com.issa.javahmz.entity.ExclusionMonthlyRollup;
 import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.RosterActivityEvent;
+import com.issa.javahmz.event.TableVersions;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.DeletionLogRepository;
 import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.repository.ExclusionRollupRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.util.LookupKey;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Date;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 
 @Service
 public class ExcludedStudentService {
@@ -17,6 +40,40 @@ public class ExcludedStudentService {
     @Autowired
     private ExcludedStudentRepository excludedStudentRepository;
     
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private DeletionLogRepository deletionLogRepository;
+    
+    @Autowired
+    private ExclusionRollupRepository exclusionRollupRepository;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private TableVersions tableVersions;
+    
+    @Value("${exclude.bulk.max-students:500}")
+    private int bulkMaxStudents;
+    
+    // Same statement as StudentRepository.markExcluded, run as one JDBC batch for bulk exclusions
+    private static final String EXCLUDE_SQL =
+            "UPDATE students SET status = 'EXCLUDED', excluded_date = ?, excluded_by = ?, reason = ?, " +
+            "exclusion_type = ?, additional_notes = ?, updated_at = ? WHERE id = ? AND status = 'ACTIVE'";
+    
+    private static final int MAX_TREND_MONTHS = 120;
+    
+    // Last computed statistics and the table versions / month they were computed for
+    private record Statistics(long studentsVersion, long excludedVersion, YearMonth month, Map<String, Object> stats) {
+    }
+    
+    private volatile Statistics statistics;
+    
     // Get all excluded students
     public List<ExcludedStudent> getAllExcludedStudents() {
         return excludedStudentRepository.findAllByOrderByExcludedDateDesc();
@@ -28,31 +85,237 @@ public class ExcludedStudentService {
                 .orElseThrow(() -> new RuntimeException("Excluded student not found with id: " + id));
     }
     
-    // Exclude a student (create excluded record) - with stricter duplicate ID check
-    public ExcludedStudent excludeStudent(Student student, String excludedBy, String reason, 
+    // Exclude an active student: one UPDATE flips the students row to EXCLUDED with the exclusion
+    // details, then the row is read back through the excluded view. An ID already excluded has no
+    // active row left, so it cannot be excluded twice.
+    @Transactional
+    public ExcludedStudent excludeStudent(Long id, String excludedBy, String reason,
                                          String exclusionType, String additionalNotes) {
+        int excluded = studentRepository.markExcluded(id, LocalDate.now(), excludedBy, reason, exclusionType,
+                additionalNotes, LocalDateTime.now());
+        if (excluded == 0) {
+            throw new RuntimeException("Student not found with id: " + id);
+        }
+        exclusionRollupRepository.addExcluded(List.of(id));
+        ExcludedStudent saved = excludedStudentRepository.findById(id)
+                .orElseThrow(() -> new IllegalStateException("Excluded student not found with id: " + id));
         
-        String studentId = student.getStudentId();
+        // No JPA delete happened: the DELETED event makes DeletionRecorder write the /api/sync tombstone
+        // (same transaction) and drops the row from the in-memory roster consumers
+        eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.DELETED, id, null));
+        eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.EXCLUDED_STUDENTS, EntityChangeEvent.ChangeType.CREATED, id, saved));
+        eventPublisher.publishEvent(new RosterActivityEvent(TrackedTable.STUDENTS, RosterActivityEvent.Action.EXCLUDED,
+                id, saved.getStudentId(), saved.getName(), saved.getUstadh(), saved.getClassTeaching()));
+        return saved;
+    }
+    
+    // Exclude many students at once (end-of-term clear-outs). Request body:
+    //   { "excludedBy", "reason", "exclusionType", "additionalNotes",   <- shared defaults
+    //     "ids": [12, 13],                                               <- use the shared values
+    //     "students": [{ "id": 14, "reason": "...", "exclusionType": "...", "additionalNotes": "..." }] }
+    // One query classifies every id, then one batch of UPDATEs and one tombstone insert run in this
+    // transaction. Rows that cannot be excluded are reported and skipped; the rest still go through.
+    @Transactional
+    public Map<String, Object> excludeStudents(Map<String, Object> request) {
+        String excludedBy = text(request.get("excludedBy"));
+        if (excludedBy == null) {
+            throw new IllegalArgumentException("excludedBy is required");
+        }
+        String sharedReason = text(request.get("reason"));
+        String sharedType = text(request.get("exclusionType"));
+        String sharedNotes = text(request.get("additionalNotes"));
+        
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<BulkExclusion> candidates = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        
+        List<Object> entries = new ArrayList<>();
+        entries.addAll(list(request.get("ids"), "ids"));
+        entries.addAll(list(request.get("students"), "students"));
+        if (entries.isEmpty()) {
+            throw new IllegalArgumentException("No students to exclude: send \"ids\" and/or \"students\"");
+        }
+        if (entries.size() > bulkMaxStudents) {
+            throw new IllegalArgumentException("Too many students in one request (" + entries.size()
+                    + "), the limit is " + bulkMaxStudents);
+        }
         
-        // NEW: Prevent re-excluding the same ID (permanent block)
-        if (excludedStudentRepository.existsByStudentId(studentId)) {
-            throw new IllegalArgumentException(
-                "Cannot exclude student: ID '" + studentId + "' is already excluded " +
-                "(this ID is permanently blocked and cannot be reused or re-excluded)"
-            );
+        for (Object entry : entries) {
+            Map<?, ?> fields = entry instanceof Map<?, ?> map ? map : Map.of();
+            Long id = id(entry instanceof Map<?, ?> ? fields.get("id") : entry);
+            Map<String, Object> result = result(id);
+            results.add(result);
+            if (id == null) {
+                reject(result, "id must be a number");
+                continue;
+            }
+            if (!seen.add(id)) {
+                reject(result, "Duplicate id in this request");
+                continue;
+            }
+            String reason = orDefault(text(fields.get("reason")), sharedReason);
+            String exclusionType = orDefault(text(fields.get("exclusionType")), sharedType);
+            if (reason == null || exclusionType == null) {
+                reject(result, "reason and exclusionType are required");
+                continue;
+            }
+            candidates.add(new BulkExclusion(id, reason, exclusionType,
+                    orDefault(text(fields.get("additionalNotes")), sharedNotes), result));
         }
         
-        // Optional: Also check if ID exists in active students (extra safety)
-        // If you want, inject StudentRepository and add:
-        // if (studentRepository.existsByStudentId(studentId)) {
-        //     throw new IllegalArgumentException("Cannot exclude: ID '" + studentId + "' is still active");
-        // }
+        // One lookup for the whole request: unknown and already-excluded ids are rejected up front
+        Map<Long, Object[]> rows = new HashMap<>();
+        if (!candidates.isEmpty()) {
+            for (Object[] row : studentRepository.findLifecycleRows(candidates.stream().map(BulkExclusion::id).toList())) {
+                rows.put(((Number) row[0]).longValue(), row);
+            }
+        }
+        List<BulkExclusion> toExclude = new ArrayList<>();
+        for (BulkExclusion candidate : candidates) {
+            Object[] row = rows.get(candidate.id());
+            if (row == null) {
+                reject(candidate.result(), "Student not found with id: " + candidate.id());
+                continue;
+            }
+            candidate.result().put("studentId", row[1]);
+            candidate.result().put("name", row[2]);
+            if (Student.Status.EXCLUDED.name().equals(row[5])) {
+                reject(candidate.result(), "Student is already excluded");
+                continue;
+            }
+            toExclude.add(candidate);
+        }
         
-        ExcludedStudent excludedStudent = new ExcludedStudent(
-                student, excludedBy, reason, exclusionType, additionalNotes
-        );
+        LocalDate excludedDate = LocalDate.now();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> excludedIds = new ArrayList<>();
+        List<BulkExclusion> excluded = new ArrayList<>();
+        if (!toExclude.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(EXCLUDE_SQL, toExclude, toExclude.size(), (ps, exclusion) -> {
+                ps.setDate(1, Date.valueOf(excludedDate));
+                ps.setString(2, excludedBy);
+                ps.setString(3, exclusion.reason());
+                ps.setString(4, exclusion.exclusionType());
+                ps.setString(5, exclusion.additionalNotes());
+                ps.setTimestamp(6, Timestamp.valueOf(now));
+                ps.setLong(7, exclusion.id());
+            });
+            int index = 0;
+            for (int[] batch : counts) {
+                for (int count : batch) {
+                    BulkExclusion exclusion = toExclude.get(index++);
+                    if (count == 0) {
+                        // Excluded by someone else between the lookup and the UPDATE
+                        reject(exclusion.result(), "Student is already excluded");
+                        continue;
+                    }
+                    exclusion.result().put("status", "EXCLUDED");
+                    exclusion.result().put("message", "Student excluded successfully");
+                    excludedIds.add(exclusion.id());
+                    excluded.add(exclusion);
+                }
+            }
+        }
         
-        return excludedStudentRepository.save(excludedStudent);
+        if (!excludedIds.isEmpty()) {
+            deletionLogRepository.logStudents(excludedIds, now);  // tombstones for /api/sync
+            exclusionRollupRepository.addExcluded(excludedIds);
+            // Bulk statements bypass the entity listeners; move each row between the two views in the
+            // in-memory consumers, as excludeStudent does (the tombstones are already written above)
+            for (BulkExclusion exclusion : excluded) {
+                ExcludedStudent excludedStudent = excludedStudent(rows.get(exclusion.id()), exclusion, excludedDate, excludedBy);
+                eventPublisher.publishEvent(EntityChangeEvent.fromBulkStatement(TrackedTable.STUDENTS,
+                        EntityChangeEvent.ChangeType.DELETED, exclusion.id(), null));
+                eventPublisher.publishEvent(EntityChangeEvent.fromBulkStatement(TrackedTable.EXCLUDED_STUDENTS,
+                        EntityChangeEvent.ChangeType.CREATED, exclusion.id(), excludedStudent));
+            }
+            for (Long id : excludedIds) {
+                Object[] row = rows.get(id);
+                eventPublisher.publishEvent(new RosterActivityEvent(TrackedTable.STUDENTS, RosterActivityEvent.Action.EXCLUDED,
+                        id, (String) row[1], (String) row[2], (String) row[3], (String) row[4]));
+            }
+        }
+        
+        Map<String, Object> report = new HashMap<>();
+        report.put("message", excludedIds.size() + " of " + results.size() + " students excluded");
+        report.put("totalRequested", results.size());
+        report.put("excludedCount", excludedIds.size());
+        report.put("rejectedCount", results.size() - excludedIds.size());
+        report.put("results", results);
+        return report;
+    }
+    
+    // One id of a bulk exclusion with its resolved reason/type/notes and its row in the report
+    private record BulkExclusion(Long id, String reason, String exclusionType, String additionalNotes,
+                                 Map<String, Object> result) {
+    }
+    
+    // The excluded row as far as the lookup and the request describe it; only feeds the change events
+    private static ExcludedStudent excludedStudent(Object[] row, BulkExclusion exclusion, LocalDate excludedDate,
+                                                   String excludedBy) {
+        ExcludedStudent excludedStudent = new ExcludedStudent();
+        excludedStudent.setId(exclusion.id());
+        excludedStudent.setStudentId((String) row[1]);
+        excludedStudent.setName((String) row[2]);
+        excludedStudent.setUstadh((String) row[3]);
+        excludedStudent.setClassTeaching((String) row[4]);
+        excludedStudent.setExcludedDate(excludedDate);
+        excludedStudent.setExcludedBy(excludedBy);
+        excludedStudent.setReason(exclusion.reason());
+        excludedStudent.setExclusionType(exclusion.exclusionType());
+        excludedStudent.setAdditionalNotes(exclusion.additionalNotes());
+        return excludedStudent;
+    }
+    
+    private static Map<String, Object> result(Long id) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("id", id);
+        result.put("studentId", null);
+        result.put("name", null);
+        result.put("status", null);
+        result.put("message", null);
+        return result;
+    }
+    
+    private static void reject(Map<String, Object> result, String message) {
+        result.put("status", "REJECTED");
+        result.put("message", message);
+    }
+    
+    private static List<?> list(Object value, String field) {
+        if (value == null) {
+            return List.of();
+        }
+        if (!(value instanceof List<?> list)) {
+            throw new IllegalArgumentException("\"" + field + "\" must be an array");
+        }
+        return list;
+    }
+    
+    private static Long id(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.valueOf(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+    
+    private static String text(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+    
+    private static String orDefault(String value, String fallback) {
+        return value != null ? value : fallback;
     }
     
     // Get excluded students by teacher
@@ -85,10 +348,43 @@ public class ExcludedStudentService {
     
     // Get excluded students this month
     public List<ExcludedStudent> getExcludedStudentsThisMonth() {
-        LocalDate now = LocalDate.now();
-        LocalDate startOfMonth = now.withDayOfMonth(1);
-        LocalDate endOfMonth = now.withDayOfMonth(now.lengthOfMonth());
-        return excludedStudentRepository.findByExcludedDateBetween(startOfMonth, endOfMonth);
+        YearMonth month = YearMonth.now();
+        return excludedStudentRepository.findByExcludedDateRange(month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+    
+    // Monthly exclusion counts for trend charts, read from the rollup table (a few rows per month);
+    // every month in [from, to] is listed, empty ones with zero. ustadh narrows it to one teacher
+    // (case-insensitive, like the roster lookups).
+    public List<Map<String, Object>> getMonthlyTrends(YearMonth from, YearMonth to, String ustadh) {
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("from must not be after to");
+        }
+        if (from.plusMonths(MAX_TREND_MONTHS).isBefore(to)) {
+            throw new IllegalArgumentException("A trend covers at most " + MAX_TREND_MONTHS + " months");
+        }
+        
+        Map<YearMonth, Map<String, Object>> months = new LinkedHashMap<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("month", month.toString());
+            row.put("total", 0L);
+            row.put("byType", new TreeMap<String, Long>());
+            months.put(month, row);
+        }
+        List<ExclusionMonthlyRollup> rollups = ustadh != null
+                ? exclusionRollupRepository.findByUstadhKeyAndMonthStartBetweenOrderByMonthStart(LookupKey.of(ustadh), from.atDay(1), to.atDay(1))
+                : exclusionRollupRepository.findByMonthStartBetweenOrderByMonthStart(from.atDay(1), to.atDay(1));
+        for (ExclusionMonthlyRollup rollup : rollups) {
+            if (rollup.getExcludedCount() == 0) {
+                continue;
+            }
+            Map<String, Object> row = months.get(YearMonth.from(rollup.getMonthStart()));
+            row.put("total", (Long) row.get("total") + rollup.getExcludedCount());
+            @SuppressWarnings("unchecked")
+            Map<String, Long> byType = (Map<String, Long>) row.get("byType");
+            byType.merge(rollup.getExclusionType(), rollup.getExcludedCount(), Long::sum);
+        }
+        return new ArrayList<>(months.values());
     }
     
     // Search excluded students
@@ -96,11 +392,20 @@ public class ExcludedStudentService {
         return excludedStudentRepository.searchByNameIdOrReason(searchTerm);
     }
     
-    // Delete excluded student (permanent deletion)
-    public void deleteExcludedStudent(Long id) {
-        ExcludedStudent excludedStudent = excludedStudentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Excluded student not found with id: " + id));
-        excludedStudentRepository.delete(excludedStudent);
+    // Delete excluded student (permanent deletion); false when the student has been restored since,
+    // which is what a restore followed by the old "delete the excluded copy" call looks like
+    @Transactional
+    public boolean deleteExcludedStudent(Long id) {
+        Optional<ExcludedStudent> excludedStudent = excludedStudentRepository.findById(id);
+        if (excludedStudent.isPresent()) {
+            exclusionRollupRepository.removeExcluded(List.of(id));
+            excludedStudentRepository.delete(excludedStudent.get());
+            return true;
+        }
+        if (studentRepository.existsById(id)) {
+            return false;
+        }
+        throw new RuntimeException("Excluded student not found with id: " + id);
     }
     
     // Count all excluded students
@@ -115,45 +420,103 @@ public class ExcludedStudentService {
     
     // Count excluded students this month
     public Long countExcludedStudentsThisMonth() {
-        LocalDate now = LocalDate.now();
-        return excludedStudentRepository.countByMonth(now.getYear(), now.getMonthValue());
+        YearMonth month = YearMonth.now();
+        return excludedStudentRepository.countByExcludedDateRange(month.atDay(1), month.plusMonths(1).atDay(1));
     }
     
-    // Get statistics for excluded students (ADDED THIS METHOD)
+    // Statistics for excluded students: totals, counts by type, month and teacher, and the exclusion
+    // rate against the active roster. One GROUP BY over the students table builds everything; the
+    // result is kept until a committed write to either view bumps its TableVersions counter.
     public Map<String, Object> getStatistics() {
-        Map<String, Object> stats = new HashMap<>();
+        Statistics cached = statistics;
+        long studentsVersion = tableVersions.version(TrackedTable.STUDENTS);
+        long excludedVersion = tableVersions.version(TrackedTable.EXCLUDED_STUDENTS);
+        YearMonth month = YearMonth.now();
+        if (cached != null && cached.studentsVersion() == studentsVersion
+                && cached.excludedVersion() == excludedVersion && cached.month().equals(month)) {
+            return cached.stats();
+        }
         
+        Map<String, Object> stats;
         try {
-            // Count all excluded students
-            Long totalExcluded = excludedStudentRepository.count();
-            stats.put("totalExcluded", totalExcluded != null ? totalExcluded : 0);
-            
-            // Count this month
-            Long thisMonthCount = countExcludedStudentsThisMonth();
-            stats.put("thisMonth", thisMonthCount != null ? thisMonthCount : 0);
-            
-            // Count by common types
-            stats.put("transferred", excludedStudentRepository.countByExclusionType("transfer"));
-            stats.put("droppedOut", excludedStudentRepository.countByExclusionType("dropped_out"));
-            stats.put("completed", excludedStudentRepository.countByExclusionType("completed"));
-            
-            // Default values for other stats
-            stats.put("exclusionRate", 0.0);
-            stats.put("status", "success");
-            
+            stats = computeStatistics(month);
         } catch (Exception e) {
-            // Safe fallback values if any calculation fails
+            // Safe fallback values if any calculation fails (not cached)
+            stats = new HashMap<>();
             stats.put("totalExcluded", 0);
             stats.put("thisMonth", 0);
+            stats.put("excludedThisMonth", 0);
             stats.put("transferred", 0);
             stats.put("droppedOut", 0);
             stats.put("completed", 0);
             stats.put("exclusionRate", 0.0);
             stats.put("status", "error");
             stats.put("message", "Failed to calculate statistics: " + e.getMessage());
+            return stats;
+        }
+        // Versions are read before the query: a write that lands meanwhile makes this entry stale
+        statistics = new Statistics(studentsVersion, excludedVersion, month, stats);
+        return stats;
+    }
+    
+    private Map<String, Object> computeStatistics(YearMonth month) {
+        long totalExcluded = 0;
+        long activeStudents = 0;
+        Map<String, Long> byType = new TreeMap<>();
+        Map<String, Long> byMonth = new TreeMap<>();
+        Map<String, long[]> byTeacher = new TreeMap<>();  // ustadh -> {active, excluded}
+        
+        for (Object[] row : studentRepository.countByStatusTeacherTypeAndMonth()) {
+            long count = ((Number) row[5]).longValue();
+            long[] teacher = byTeacher.computeIfAbsent(String.valueOf(row[1]), key -> new long[2]);
+            if (!Student.Status.EXCLUDED.name().equals(row[0])) {
+                activeStudents += count;
+                teacher[0] += count;
+                continue;
+            }
+            totalExcluded += count;
+            teacher[1] += count;
+            byType.merge(row[2] != null ? (String) row[2] : "unspecified", count, Long::sum);
+            if (row[3] != null && row[4] != null) {
+                YearMonth excludedIn = YearMonth.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue());
+                byMonth.merge(excludedIn.toString(), count, Long::sum);
+            }
+        }
+        
+        List<Map<String, Object>> teachers = new ArrayList<>();
+        for (Map.Entry<String, long[]> entry : byTeacher.entrySet()) {
+            Map<String, Object> teacher = new LinkedHashMap<>();
+            teacher.put("ustadh", entry.getKey());
+            teacher.put("active", entry.getValue()[0]);
+            teacher.put("excluded", entry.getValue()[1]);
+            teacher.put("exclusionRate", exclusionRate(entry.getValue()[1], entry.getValue()[0]));
+            teachers.add(teacher);
         }
         
+        long thisMonth = byMonth.getOrDefault(month.toString(), 0L);
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("totalExcluded", totalExcluded);
+        stats.put("thisMonth", thisMonth);
+        stats.put("excludedThisMonth", thisMonth);
+        stats.put("transferred", byType.getOrDefault("transfer", 0L));
+        stats.put("droppedOut", byType.getOrDefault("dropped_out", 0L));
+        stats.put("completed", byType.getOrDefault("completed", 0L));
+        stats.put("activeStudents", activeStudents);
+        stats.put("exclusionRate", exclusionRate(totalExcluded, activeStudents));
+        stats.put("byType", byType);
+        stats.put("byMonth", byMonth);
+        stats.put("byTeacher", teachers);
+        stats.put("status", "success");
         return stats;
     }
+    
+    // Percentage of students ever enrolled (active + excluded) who were excluded, one decimal
+    private static double exclusionRate(long excluded, long active) {
+        long enrolled = excluded + active;
+        if (enrolled == 0) {
+            return 0.0;
+        }
+        return Math.round(excluded * 1000.0 / enrolled) / 10.0;
+    }
 }
    
\ No newline at end of file
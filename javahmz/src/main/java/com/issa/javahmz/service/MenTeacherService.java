@@ -1,5 +1,6 @@
 package com.issa.javahmz.service;
 
+import com.issa.javahmz.cache.TeacherAccessCache;
 import com.issa.javahmz.entity.MenTeacher;
 import com.issa.javahmz.repository.MenTeacherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,9 @@ public class MenTeacherService {
     @Autowired
     private MenTeacherRepository menTeacherRepository;
     
+    @Autowired
+    private TeacherAccessCache teacherAccessCache;
+    
     // Get all men teachers
     public List<MenTeacher> getAllMenTeachers() {
         return menTeacherRepository.findAllByOrderByNameAsc();
@@ -26,7 +30,8 @@ public class MenTeacherService {
     
     // Get men teacher by name and class
     public Optional<MenTeacher> getMenTeacherByNameAndClass(String name, String classTeaching) {
-        return menTeacherRepository.findByNameAndClassTeaching(name, classTeaching);
+        return teacherAccessCache.get(MenTeacher.class, name, classTeaching,
+                () -> menTeacherRepository.findByNameAndClassTeaching(name, classTeaching));
     }
     
     // Create new men teacher
@@ -35,7 +40,9 @@ public class MenTeacherService {
         if (menTeacherRepository.existsByName(menTeacher.getName())) {
             throw new RuntimeException("Men teacher with name '" + menTeacher.getName() + "' already exists");
         }
-        return menTeacherRepository.save(menTeacher);
+        MenTeacher saved = menTeacherRepository.save(menTeacher);
+        teacherAccessCache.invalidate(MenTeacher.class);
+        return saved;
     }
     
     // Update men teacher
@@ -52,7 +59,9 @@ public class MenTeacherService {
         menTeacher.setName(menTeacherDetails.getName());
         menTeacher.setClassTeaching(menTeacherDetails.getClassTeaching());
         
-        return menTeacherRepository.save(menTeacher);
+        MenTeacher saved = menTeacherRepository.save(menTeacher);
+        teacherAccessCache.invalidate(MenTeacher.class);
+        return saved;
     }
     
     // Delete men teacher
@@ -60,6 +69,7 @@ public class MenTeacherService {
         MenTeacher menTeacher = menTeacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Men teacher not found with id: " + id));
         menTeacherRepository.delete(menTeacher);
+        teacherAccessCache.invalidate(MenTeacher.class);
     }
     
     // Search men teachers by name
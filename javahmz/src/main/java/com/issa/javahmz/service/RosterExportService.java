@@ -0,0 +1,278 @@
+package com.issa.javahmz.service;
+
+import com.issa.javahmz.entity.RosterMember;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.export.ExportFormat;
+import com.issa.javahmz.export.TableWriter;
+import com.issa.javahmz.export.TableWriter.Column;
+import com.issa.javahmz.repository.RosterRepository;
+import com.issa.javahmz.util.LookupKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+// Class list downloads (CSV, XLSX or PDF) built on the server.
+// Rows are read through a database cursor and written straight to the response, and each
+// entity is detached once written, so memory stays flat however large the class is.
+// A running export holds one of the two pooled connections for its whole download, so
+// only roster.export.max-concurrent exports may run at once.
+@Service
+public class RosterExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterExportService.class);
+
+    private static final List<Column> STUDENT_COLUMNS = List.of(
+            new Column("#", 4), new Column("ID Number", 10), new Column("Student Name", 20),
+            new Column("Gender", 6), new Column("Date Joined", 8), new Column("Home Location", 14),
+            new Column("Madrassa", 16), new Column("Shoe", 5), new Column("Cell Number", 17));
+
+    private static final List<Column> ADULT_COLUMNS = List.of(
+            new Column("#", 4), new Column("ID Number", 12), new Column("Student Name", 24),
+            new Column("Gender", 7), new Column("Date Joined", 10), new Column("Location", 17),
+            new Column("Cell Number", 14), new Column("Class", 12));
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${roster.export.max-concurrent:1}")
+    private int maxConcurrent;
+
+    private final AtomicInteger runningExports = new AtomicInteger();
+
+    // A prepared download: file name, content type and the body that writes it
+    public record RosterExport(String fileName, String contentType, StreamingResponseBody body) {
+    }
+
+    // Running totals for the PDF footer
+    private static final class Totals {
+        int total;
+        int male;
+        int female;
+
+        void count(String gender) {
+            total++;
+            if ("male".equalsIgnoreCase(gender)) {
+                male++;
+            } else if ("female".equalsIgnoreCase(gender)) {
+                female++;
+            }
+        }
+
+        String footer() {
+            return "End of roster: " + total + " student(s) total, " + male + " male, " + female + " female";
+        }
+    }
+
+    // One teacher's class list (optionally one class of theirs) in the given format
+    public RosterExport exportClassList(RosterService<?> rosterService, String ustadh, String classTeaching, String format) {
+        if (ustadh == null || ustadh.isBlank()) {
+            throw new IllegalArgumentException("ustadh is required");
+        }
+        TrackedTable roster = rosterService.getTable();
+        RosterRepository<?> repository = rosterService.getRepository();
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        boolean oneClass = classTeaching != null && !classTeaching.isBlank();
+        String title = rosterTitle(roster) + " - " + ustadh.trim() + (oneClass ? " - Class " + classTeaching.trim() : "");
+        String fileName = fileName(ustadh.trim() + (oneClass ? "_Class_" + classTeaching.trim() : "")) +
+                "_" + LocalDate.now() + "." + exportFormat.getExtension();
+
+        acquire();
+        StreamingResponseBody body = out -> {
+            try {
+                readOnly(() -> {
+                    try (Stream<? extends RosterMember> rows = oneClass
+                            ? repository.streamByUstadhAndClassTeaching(ustadh.trim(), classTeaching.trim())
+                            : repository.streamByUstadh(ustadh.trim())) {
+                        writeTable(exportFormat.open(out), title, roster, rows.iterator());
+                    }
+                });
+            } finally {
+                release();
+            }
+        };
+        return new RosterExport(fileName, exportFormat.getContentType(), body);
+    }
+
+    // The whole roster as a zip with one file per teacher, read in a single pass
+    public RosterExport exportAllByTeacher(RosterService<?> rosterService, String format) {
+        TrackedTable roster = rosterService.getTable();
+        RosterRepository<?> repository = rosterService.getRepository();
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        String fileName = fileName(rosterTitle(roster)) + "_by_teacher_" + LocalDate.now() + ".zip";
+
+        acquire();
+        StreamingResponseBody body = out -> {
+            try {
+                readOnly(() -> {
+                    try (Stream<? extends RosterMember> rows = repository.streamAllOrderByTeacher()) {
+                        writeZip(out, roster, exportFormat, rows.iterator());
+                    }
+                });
+            } finally {
+                release();
+            }
+        };
+        return new RosterExport(fileName, "application/zip", body);
+    }
+
+    // Rows arrive ordered by teacher; a new zip entry starts whenever the teacher changes
+    private void writeZip(OutputStream out, TrackedTable roster, ExportFormat format, Iterator<? extends RosterMember> rows) {
+        try {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            Set<String> usedNames = new HashSet<>();
+            RosterMember pending = rows.hasNext() ? rows.next() : null;
+            int files = 0;
+            while (pending != null) {
+                String ustadh = pending.getUstadh();
+                String teacherKey = teacherKey(ustadh);
+                String entryName = fileName(ustadh);
+                for (int n = 2; !usedNames.add(entryName.toUpperCase(Locale.ROOT)); n++) {
+                    entryName = fileName(ustadh) + "_" + n;
+                }
+
+                zip.putNextEntry(new ZipEntry(entryName + "." + format.getExtension()));
+                TeacherRows teacherRows = new TeacherRows(pending, rows, teacherKey);
+                writeTable(format.open(zip), rosterTitle(roster) + " - " + ustadh, roster, teacherRows);
+                zip.closeEntry();
+                pending = teacherRows.next;
+                files++;
+            }
+            zip.finish();
+            zip.flush();
+            log.debug("Exported {} as {} files of {}", roster, files, format);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The rows of one teacher from the shared cursor; the first row of the next teacher is kept in next
+    private static final class TeacherRows implements Iterator<RosterMember> {
+        private final Iterator<? extends RosterMember> rows;
+        private final String teacherKey;
+        private RosterMember current;
+        private RosterMember next;
+
+        TeacherRows(RosterMember first, Iterator<? extends RosterMember> rows, String teacherKey) {
+            this.current = first;
+            this.rows = rows;
+            this.teacherKey = teacherKey;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return current != null;
+        }
+
+        @Override
+        public RosterMember next() {
+            RosterMember row = current;
+            current = null;
+            if (rows.hasNext()) {
+                RosterMember following = rows.next();
+                if (teacherKey.equals(teacherKey(following.getUstadh()))) {
+                    current = following;
+                } else {
+                    next = following;
+                }
+            }
+            return row;
+        }
+    }
+
+    private void writeTable(TableWriter writer, String title, TrackedTable roster, Iterator<? extends RosterMember> rows) {
+        try {
+            writer.start(title, roster == TrackedTable.STUDENTS ? STUDENT_COLUMNS : ADULT_COLUMNS);
+            Totals totals = new Totals();
+            while (rows.hasNext()) {
+                RosterMember row = rows.next();
+                totals.count(row.getGender());
+                writer.row(cells(totals.total, row));
+                entityManager.detach(row);
+            }
+            writer.finish(totals.footer());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The regular roster adds madrassa and shoe size before the cell number; the others end with the class
+    private static List<String> cells(int number, RosterMember row) {
+        List<String> cells = new ArrayList<>(List.of(Integer.toString(number), text(row.getStudentId()),
+                text(row.getName()), text(row.getGender()), text(row.getDateJoined()), text(row.getLocation())));
+        if (row instanceof Student s) {
+            cells.addAll(List.of(text(s.getMadrassaLocation()), text(s.getShoeSize()), text(s.getCell())));
+        } else {
+            cells.addAll(List.of(text(row.getCell()), text(row.getClassTeaching())));
+        }
+        return cells;
+    }
+
+    private static String text(Object value) {
+        return value != null ? value.toString() : "";
+    }
+
+    private static String teacherKey(String ustadh) {
+        return ustadh != null ? LookupKey.of(ustadh) : "";
+    }
+
+    private static String rosterTitle(TrackedTable roster) {
+        switch (roster) {
+            case ADULT_STUDENTS:
+                return "Adult Classes";
+            case MEN_STUDENTS:
+                return "Men List";
+            default:
+                return "Class Roster";
+        }
+    }
+
+    // Keep file names portable: letters, digits, '.', '-' and '_' only
+    private static String fileName(String value) {
+        String name = value == null ? "" : value.trim().replaceAll("[^A-Za-z0-9._-]+", "_");
+        return name.isEmpty() ? "unnamed" : name;
+    }
+
+    // Stream queries need an open transaction for the cursor to stay valid
+    private void readOnly(Runnable work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> work.run());
+    }
+
+    private void acquire() {
+        if (runningExports.incrementAndGet() > maxConcurrent) {
+            runningExports.decrementAndGet();
+            throw new IllegalStateException("Another export is running, please try again shortly");
+        }
+    }
+
+    private void release() {
+        runningExports.decrementAndGet();
+    }
+}
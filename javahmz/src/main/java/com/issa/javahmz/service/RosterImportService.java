@@ -0,0 +1,351 @@
+package com.issa.javahmz.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.RosterActivityEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.util.CsvReader;
+import com.issa.javahmz.util.LookupKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+// Bulk intake for the three rosters from a CSV or JSON-array upload.
+// Student IDs are checked with chunked IN lookups instead of two exists queries per row,
+// valid rows are inserted with JDBC batches, and every input row gets a line in the report.
+@Service
+public class RosterImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(RosterImportService.class);
+
+    // Keeps IN lists well under the Postgres bind-parameter limit
+    private static final int LOOKUP_CHUNK_SIZE = 1000;
+
+    private static final String STUDENTS_INSERT =
+            "INSERT INTO students (student_id, name, gender, date_joined, location, madrassa_location, " +
+            "shoe_size, cell, ustadh, class_teaching, ustadh_key, class_teaching_key, created_at, updated_at, status) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 'ACTIVE')";
+
+    // adult_students and men_students have the same columns
+    private static final String ROSTER_INSERT =
+            "INSERT INTO %s (student_id, name, gender, date_joined, location, cell, ustadh, " +
+            "class_teaching, ustadh_key, class_teaching_key, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ExcludedStudentRepository excludedStudentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${roster.import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${roster.import.max-rows:20000}")
+    private int maxRows;
+
+    // One parsed input row (rowNumber is 1-based, header excluded)
+    private record ImportRow(int rowNumber, String studentId, String name, String gender, LocalDate dateJoined,
+                             String location, String madrassaLocation, String shoeSize, String cell,
+                             String ustadh, String classTeaching) {
+    }
+
+    // Import an uploaded .csv or .json file into one roster
+    public Map<String, Object> importFile(RosterService<?> roster, MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new IllegalArgumentException("Upload is empty");
+        }
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(file.getInputStream(), StandardCharsets.UTF_8))) {
+            if (isJson(file, reader)) {
+                List<Map<String, Object>> rows = objectMapper.readValue(reader, new TypeReference<>() {});
+                return importJson(roster, rows);
+            }
+            return importRows(roster, CsvReader.readWithHeader(reader));
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not read upload: " + e.getMessage());
+        }
+    }
+
+    // Import a JSON array of objects into one roster
+    public Map<String, Object> importJson(RosterService<?> roster, List<Map<String, Object>> rows) {
+        List<Map<String, String>> values = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Map<String, String> stringRow = new LinkedHashMap<>();
+            row.forEach((key, value) -> stringRow.put(key, value != null ? String.valueOf(value) : null));
+            values.add(stringRow);
+        }
+        return importRows(roster, values);
+    }
+
+    // Validate every row, then insert the accepted ones in one transaction
+    public Map<String, Object> importRows(RosterService<?> roster, List<Map<String, String>> rows) {
+        TrackedTable table = roster.getTable();
+        if (rows.size() > maxRows) {
+            throw new IllegalArgumentException("Import is limited to " + maxRows + " rows per upload");
+        }
+        long started = System.nanoTime();
+
+        List<Map<String, Object>> results = new ArrayList<>(rows.size());
+        List<ImportRow> candidates = new ArrayList<>();
+        Map<String, Integer> firstRowById = new HashMap<>();
+
+        for (int i = 0; i < rows.size(); i++) {
+            int rowNumber = i + 1;
+            Map<String, String> values = normalizeKeys(rows.get(i));
+            try {
+                ImportRow row = parseRow(table, rowNumber, values);
+                Integer firstRow = firstRowById.putIfAbsent(row.studentId(), rowNumber);
+                if (firstRow != null) {
+                    throw new IllegalArgumentException("Duplicate student ID in this upload (first seen on row " + firstRow + ")");
+                }
+                candidates.add(row);
+                results.add(null);
+            } catch (IllegalArgumentException e) {
+                results.add(rejected(rowNumber, values.get("studentid"), values.get("name"), e.getMessage()));
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<ImportRow> accepted = transaction.execute(status -> {
+            Set<String> active = findExisting(roster.getRepository()::findExistingStudentIds, firstRowById.keySet());
+            Set<String> excluded = table == TrackedTable.STUDENTS
+                    ? findExisting(excludedStudentRepository::findExistingStudentIds, firstRowById.keySet())
+                    : Set.of();
+
+            List<ImportRow> toInsert = new ArrayList<>();
+            for (ImportRow row : candidates) {
+                String reason = null;
+                if (active.contains(row.studentId())) {
+                    reason = alreadyExistsMessage(table, row.studentId());
+                } else if (excluded.contains(row.studentId())) {
+                    reason = "Student ID '" + row.studentId() + "' was previously excluded and cannot be reused (permanently blocked)";
+                }
+                if (reason != null) {
+                    results.set(row.rowNumber() - 1, rejected(row.rowNumber(), row.studentId(), row.name(), reason));
+                } else {
+                    toInsert.add(row);
+                }
+            }
+            insert(table, toInsert);
+            return toInsert;
+        });
+
+        for (ImportRow row : accepted) {
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("row", row.rowNumber());
+            result.put("studentId", row.studentId());
+            result.put("name", row.name());
+            result.put("status", "IMPORTED");
+            results.set(row.rowNumber() - 1, result);
+        }
+
+        if (!accepted.isEmpty()) {
+            // Rows went in through JDBC, so entity listeners never saw them
+            eventPublisher.publishEvent(EntityChangeEvent.bulk(table));
+            eventPublisher.publishEvent(RosterActivityEvent.bulk(table, RosterActivityEvent.Action.IMPORTED, null, null, accepted.size()));
+        }
+
+        log.info("Imported {} of {} rows into {} in {} ms", accepted.size(), rows.size(), tableName(table),
+                (System.nanoTime() - started) / 1_000_000);
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("table", tableName(table));
+        report.put("totalRows", rows.size());
+        report.put("importedCount", accepted.size());
+        report.put("rejectedCount", rows.size() - accepted.size());
+        report.put("results", results);
+        return report;
+    }
+
+    private void insert(TrackedTable table, List<ImportRow> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (table == TrackedTable.STUDENTS) {
+            jdbcTemplate.batchUpdate(STUDENTS_INSERT, rows, batchSize, (ps, row) -> {
+                ps.setString(1, row.studentId());
+                ps.setString(2, row.name());
+                ps.setString(3, row.gender());
+                ps.setDate(4, Date.valueOf(row.dateJoined()));
+                ps.setString(5, row.location());
+                ps.setString(6, row.madrassaLocation());
+                ps.setString(7, row.shoeSize());
+                ps.setString(8, row.cell());
+                ps.setString(9, row.ustadh());
+                ps.setString(10, row.classTeaching());
+                ps.setString(11, LookupKey.of(row.ustadh()));
+                ps.setString(12, LookupKey.of(row.classTeaching()));
+                ps.setTimestamp(13, now);
+                ps.setTimestamp(14, now);
+            });
+        } else {
+            String sql = String.format(ROSTER_INSERT, tableName(table));
+            jdbcTemplate.batchUpdate(sql, rows, batchSize, (ps, row) -> {
+                ps.setString(1, row.studentId());
+                ps.setString(2, row.name());
+                ps.setString(3, row.gender());
+                ps.setDate(4, Date.valueOf(row.dateJoined()));
+                ps.setString(5, row.location());
+                ps.setString(6, row.cell());
+                ps.setString(7, row.ustadh());
+                ps.setString(8, row.classTeaching());
+                ps.setString(9, LookupKey.of(row.ustadh()));
+                ps.setString(10, LookupKey.of(row.classTeaching()));
+                ps.setTimestamp(11, now);
+                ps.setTimestamp(12, now);
+            });
+        }
+    }
+
+    private static Set<String> findExisting(Function<Collection<String>, List<String>> lookup, Collection<String> ids) {
+        Set<String> existing = new HashSet<>();
+        List<String> chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+        for (String id : ids) {
+            chunk.add(id);
+            if (chunk.size() == LOOKUP_CHUNK_SIZE) {
+                existing.addAll(lookup.apply(chunk));
+                chunk = new ArrayList<>(LOOKUP_CHUNK_SIZE);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            existing.addAll(lookup.apply(chunk));
+        }
+        return existing;
+    }
+
+    private static ImportRow parseRow(TrackedTable table, int rowNumber, Map<String, String> values) {
+        boolean regular = table == TrackedTable.STUDENTS;
+        String dateJoined = required(values, "datejoined", "dateJoined");
+        LocalDate parsedDate;
+        try {
+            parsedDate = LocalDate.parse(dateJoined);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("dateJoined must be yyyy-MM-dd, got '" + dateJoined + "'");
+        }
+        return new ImportRow(
+                rowNumber,
+                required(values, "studentid", "studentId"),
+                required(values, "name", "name"),
+                required(values, "gender", "gender"),
+                parsedDate,
+                required(values, "location", "location"),
+                regular ? required(values, "madrassalocation", "madrassaLocation") : null,
+                regular ? blankToNull(values.get("shoesize")) : null,
+                required(values, "cell", "cell"),
+                required(values, "ustadh", "ustadh"),
+                required(values, "classteaching", "classTeaching"));
+    }
+
+    private static String required(Map<String, String> values, String key, String label) {
+        String value = blankToNull(values.get(key));
+        if (value == null) {
+            throw new IllegalArgumentException(label + " is required");
+        }
+        return value;
+    }
+
+    private static String blankToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    // "Student ID", "student_id" and "studentId" all become "studentid"
+    private static Map<String, String> normalizeKeys(Map<String, String> row) {
+        Map<String, String> normalized = new HashMap<>();
+        row.forEach((key, value) -> {
+            if (key != null) {
+                normalized.put(key.replaceAll("[^A-Za-z0-9]", "").toLowerCase(Locale.ROOT), value);
+            }
+        });
+        return normalized;
+    }
+
+    private static boolean isJson(MultipartFile file, BufferedReader reader) throws IOException {
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.toLowerCase(Locale.ROOT).endsWith(".json")) {
+            return true;
+        }
+        // Otherwise sniff the first non-blank character
+        reader.mark(4096);
+        int ch;
+        do {
+            ch = reader.read();
+        } while (ch != -1 && Character.isWhitespace(ch));
+        reader.reset();
+        return ch == '[';
+    }
+
+    private static Map<String, Object> rejected(int rowNumber, String studentId, String name, String message) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("row", rowNumber);
+        result.put("studentId", studentId);
+        result.put("name", name);
+        result.put("status", "REJECTED");
+        result.put("message", message);
+        return result;
+    }
+
+    private static String alreadyExistsMessage(TrackedTable table, String studentId) {
+        switch (table) {
+            case ADULT_STUDENTS:
+                return "Adult student with ID '" + studentId + "' already exists";
+            case MEN_STUDENTS:
+                return "Men student with ID '" + studentId + "' already exists";
+            default:
+                return "Student with ID '" + studentId + "' already exists in active students";
+        }
+    }
+
+    private static String tableName(TrackedTable table) {
+        switch (table) {
+            case ADULT_STUDENTS:
+                return "adult_students";
+            case MEN_STUDENTS:
+                return "men_students";
+            default:
+                return "students";
+        }
+    }
+}
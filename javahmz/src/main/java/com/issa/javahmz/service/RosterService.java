@@ -0,0 +1,251 @@
+package com.issa.javahmz.service;
+
+import com.issa.javahmz.entity.RosterMember;
+import com.issa.javahmz.repository.DeletionLogRepository;
+import com.issa.javahmz.repository.RosterRepository;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.RosterActivityEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.search.RosterSearchIndex;
+import com.issa.javahmz.util.KeysetCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// CRUD, paging, search and bulk operations shared by the three rosters. Subclasses only name
+// their table and add what is specific to them (exclusion checks and extra columns for students).
+public abstract class RosterService<T extends RosterMember> {
+
+    @Autowired
+    protected RosterRepository<T> repository;
+
+    @Autowired
+    protected ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private RosterSearchIndex rosterSearchIndex;
+
+    @Autowired
+    private DeletionLogRepository deletionLogRepository;
+
+    @Value("${roster.pagination.default-size:50}")
+    private int defaultPageSize;
+
+    @Value("${roster.pagination.max-size:200}")
+    private int maxPageSize;
+
+    @Value("${roster.unpaged.max-rows:5000}")
+    private int unpagedMaxRows;
+
+    private final TrackedTable table;
+
+    private final String label;
+
+    // label starts the error messages, e.g. "Adult student not found with id: 7"
+    protected RosterService(TrackedTable table, String label) {
+        this.table = table;
+        this.label = label;
+    }
+
+    public TrackedTable getTable() {
+        return table;
+    }
+
+    // Used by the import and export services, which work the same way for every roster
+    public RosterRepository<T> getRepository() {
+        return repository;
+    }
+
+    // At most roster.unpaged.max-rows students; truncated when more exist
+    public record Unpaged<T>(List<T> rows, boolean truncated) {
+    }
+
+    // Get all students (hard-capped at roster.unpaged.max-rows; page through larger rosters).
+    // One extra row is read so a roster of exactly max-rows is not reported as truncated.
+    public Unpaged<T> getAll() {
+        List<T> rows = repository.findAllByOrderByNameAsc(PageRequest.of(0, unpagedMaxRows + 1));
+        if (rows.size() > unpagedMaxRows) {
+            return new Unpaged<>(rows.subList(0, unpagedMaxRows), true);
+        }
+        return new Unpaged<>(rows, false);
+    }
+
+    // Get one page of students ordered by name, continuing after the given cursor
+    public Map<String, Object> getPage(String cursor, Integer size) {
+        int pageSize = KeysetCursor.clampSize(size, defaultPageSize, maxPageSize);
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<T> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = repository.findFirstPage(limit);
+        } else {
+            KeysetCursor after = KeysetCursor.decode(cursor);
+            rows = repository.findPageAfter(after.getName(), after.getId(), limit);
+        }
+        return KeysetCursor.page(rows, pageSize, RosterMember::getName, RosterMember::getId);
+    }
+
+    // Get student by ID
+    public Optional<T> getById(Long id) {
+        return repository.findById(id);
+    }
+
+    // Get student by student ID
+    public Optional<T> getByStudentId(String studentId) {
+        return repository.findByStudentId(studentId);
+    }
+
+    // Get students by teacher name
+    public List<T> getByTeacher(String ustadh) {
+        return repository.findByUstadh(ustadh);
+    }
+
+    // Get students by teacher name and class
+    public List<T> getByTeacherAndClass(String ustadh, String classTeaching) {
+        return repository.findByUstadhAndClassTeaching(ustadh, classTeaching);
+    }
+
+    // Create new student
+    public T create(T student) {
+        checkStudentIdAvailable(student.getStudentId());
+        T saved = repository.save(student);
+        eventPublisher.publishEvent(activity(saved, RosterActivityEvent.Action.CREATED));
+        return saved;
+    }
+
+    // Update student
+    public T update(Long id, T details) {
+        T student = findOrThrow(id);
+
+        // Check if student ID is being changed and if new ID is free
+        if (!student.getStudentId().equals(details.getStudentId())) {
+            checkStudentIdChangeAllowed(details.getStudentId());
+        }
+
+        String previousUstadh = student.getUstadh();
+        String previousClassTeaching = student.getClassTeaching();
+
+        copyDetails(student, details);
+
+        T saved = repository.save(student);
+        eventPublisher.publishEvent(activity(saved, RosterActivityEvent.Action.UPDATED).from(previousUstadh, previousClassTeaching));
+        return saved;
+    }
+
+    // Delete student
+    public void delete(Long id) {
+        T student = findOrThrow(id);
+        repository.delete(student);
+        eventPublisher.publishEvent(activity(student, RosterActivityEvent.Action.DELETED));
+    }
+
+    // Delete all students by teacher (one DELETE); returns rows removed
+    @Transactional
+    public int deleteByTeacher(String ustadh) {
+        List<Long> ids = repository.findIdsByUstadh(ustadh);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        deletionLogRepository.logRoster(table, ids, LocalDateTime.now());  // tombstones for /api/sync
+        int deleted = repository.deleteByIdIn(ids);
+        // Entity listeners do not see bulk statements; tell the in-memory consumers row by row
+        for (Long id : ids) {
+            eventPublisher.publishEvent(EntityChangeEvent.fromBulkStatement(table, EntityChangeEvent.ChangeType.DELETED, id, null));
+        }
+        eventPublisher.publishEvent(RosterActivityEvent.bulk(table,
+                RosterActivityEvent.Action.TEACHER_CLEARED, ustadh, null, deleted));
+        return deleted;
+    }
+
+    // Count students by teacher
+    public Long countByTeacher(String ustadh) {
+        return repository.countByUstadh(ustadh);
+    }
+
+    // Update classTeaching for all students of a specific teacher (one UPDATE); returns rows changed
+    @Transactional
+    public int updateClass(String ustadh, String oldClassTeaching, String newClassTeaching) {
+        List<T> students = repository.findByUstadhAndClassTeaching(ustadh, oldClassTeaching);
+        if (students.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = students.stream().map(RosterMember::getId).toList();
+        int updated = repository.updateClassTeaching(ids, newClassTeaching, now);
+
+        // Entity listeners do not see bulk statements; tell the in-memory consumers row by row.
+        // The loaded rows are detached by the UPDATE, so bringing them up to date writes nothing.
+        for (T student : students) {
+            student.setClassTeaching(newClassTeaching);
+            student.setUpdatedAt(now);
+            eventPublisher.publishEvent(EntityChangeEvent.fromBulkStatement(table, EntityChangeEvent.ChangeType.UPDATED,
+                    student.getId(), student));
+        }
+        eventPublisher.publishEvent(RosterActivityEvent.bulk(table,
+                RosterActivityEvent.Action.CLASS_RENAMED, ustadh, newClassTeaching, updated).from(ustadh, oldClassTeaching));
+        return updated;
+    }
+
+    // Move one student to another teacher and class
+    public T transfer(Long id, String newUstadh, String newClassTeaching, String transferredBy, String notes) {
+        T student = findOrThrow(id);
+
+        String previousUstadh = student.getUstadh();
+        String previousClassTeaching = student.getClassTeaching();
+        student.setUstadh(newUstadh);
+        student.setClassTeaching(newClassTeaching);
+
+        T saved = repository.save(student);
+        eventPublisher.publishEvent(activity(saved, RosterActivityEvent.Action.TRANSFERRED).from(previousUstadh, previousClassTeaching));
+        return saved;
+    }
+
+    // Search students (in-memory trigram index, database LIKE query as fallback)
+    public List<T> search(String searchTerm) {
+        Optional<List<T>> indexed = rosterSearchIndex.search(table, searchTerm);
+        return indexed.orElseGet(() -> repository.searchByNameOrId(searchTerm));
+    }
+
+    // Rejects a student ID already taken in this roster; one query
+    protected void checkStudentIdAvailable(String studentId) {
+        if (repository.existsByStudentId(studentId)) {
+            throw new IllegalArgumentException(label + " with ID '" + studentId + "' already exists");
+        }
+    }
+
+    // Same check when an update changes the student ID
+    protected void checkStudentIdChangeAllowed(String studentId) {
+        checkStudentIdAvailable(studentId);
+    }
+
+    // Copy the editable fields of an update onto the managed row
+    protected void copyDetails(T student, T details) {
+        student.setStudentId(details.getStudentId());
+        student.setName(details.getName());
+        student.setGender(details.getGender());
+        student.setDateJoined(details.getDateJoined());
+        student.setLocation(details.getLocation());
+        student.setCell(details.getCell());
+        student.setUstadh(details.getUstadh());
+        student.setClassTeaching(details.getClassTeaching());
+    }
+
+    protected T findOrThrow(Long id) {
+        return repository.findById(id)
+                .orElseThrow(() -> new RuntimeException(label + " not found with id: " + id));
+    }
+
+    // Live feed event for one row
+    protected RosterActivityEvent activity(T student, RosterActivityEvent.Action action) {
+        return new RosterActivityEvent(table, action, student.getId(), student.getStudentId(),
+                student.getName(), student.getUstadh(), student.getClassTeaching());
+    }
+}
@@ -1,30 +1,301 @@
 package com.issa.javahmz.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issa.javahmz.admission.DbAdmissionGate;
+import com.issa.javahmz.entity.ExcludedStudent;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.DeletionLogRepository;
 import com.issa.javahmz.repository.ExcludedStudentRepository;
+import com.issa.javahmz.repository.ExclusionRollupRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;    // ← Put it here
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 
 @Service
 public class ScheduledCleanupService {
 
+    private static final Logger log = LoggerFactory.getLogger(ScheduledCleanupService.class);
+
+    private static final DateTimeFormatter ARCHIVE_STAMP = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
     @Autowired
     private ExcludedStudentRepository excludedStudentRepository;
 
-    // Runs every day at 3:00 AM
+    @Autowired
+    private DeletionLogRepository deletionLogRepository;
+
+    @Autowired
+    private ExclusionRollupRepository exclusionRollupRepository;
+
+    @Autowired
+    private SyncService syncService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DbAdmissionGate admissionGate;
+
+    @Value("${cleanup.excluded.retention-years:3}")
+    private int excludedRetentionYears;
+
+    @Value("${cleanup.excluded.chunk-size:500}")
+    private int excludedChunkSize;
+
+    @Value("${cleanup.excluded.pause-ms:250}")
+    private long excludedPauseMs;
+
+    @Value("${cleanup.excluded.archive.enabled:false}")
+    private boolean excludedArchiveEnabled;
+
+    @Value("${cleanup.excluded.archive.dir:data/archive}")
+    private String excludedArchiveDir;
+
+    private final AtomicBoolean excludedCleanupRunning = new AtomicBoolean();
+
+    // Records still past the cutoff in the current run (0 between runs)
+    private final AtomicLong excludedRemaining = new AtomicLong();
+
+    private volatile boolean shuttingDown;
+
+    @PostConstruct
+    public void registerGauges() {
+        Gauge.builder("cleanup.remaining", excludedRemaining, AtomicLong::get)
+                .description("Rows the running cleanup job still has to remove")
+                .tag("job", "excluded_students")
+                .register(meterRegistry);
+    }
+
+    // Let a running cleanup finish its current chunk and stop; the next run picks up from there
+    @PreDestroy
+    public void shutdown() {
+        shuttingDown = true;
+    }
+
+    // Runs every day at 3:00 AM: delete excluded records past the retention window in chunks of
+    // cleanup.excluded.chunk-size, each in its own short transaction with cleanup.excluded.pause-ms
+    // in between, so a large backlog never holds a pooled connection or its row locks for long.
+    // Every chunk commits on its own: an interrupted run loses nothing, and the next run carries on
+    // from the oldest records still past the cutoff. With cleanup.excluded.archive.enabled each chunk
+    // is written to a gzipped JSON-lines file before its DELETE commits. Each query and chunk takes
+    // its own BULK admission permit, so requests get the connections back during the pauses.
     @Scheduled(cron = "0 0 3 * * ?")
-    @Transactional
     public void cleanupOldExcludedRecords() {
-        LocalDate threeYearsAgo = LocalDate.now().minusYears(3);
-        
-        long count = excludedStudentRepository.deleteByExcludedDateBefore(threeYearsAgo);
-        
-        if (count > 0) {
-            System.out.println("Automatically cleaned up " + count + 
-                              " excluded student records older than 3 years");
+        if (!excludedCleanupRunning.compareAndSet(false, true)) {
+            log.warn("Excluded records cleanup is already running, skipping this run");
+            return;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        int total = 0;
+        try {
+            LocalDate cutoff = LocalDate.now().minusYears(excludedRetentionYears);
+            long expired = admissionGate.runInBackground(() -> excludedStudentRepository.countByExcludedDateBefore(cutoff));
+            excludedRemaining.set(expired);
+            if (expired == 0) {
+                outcome = "success";
+                return;
+            }
+            log.info("Cleaning up {} excluded student records older than {} in chunks of {}", expired, cutoff, excludedChunkSize);
+
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            try (ExcludedArchive archive = excludedArchiveEnabled ? ExcludedArchive.open(excludedArchiveDir, objectMapper) : null) {
+                boolean interrupted = false;
+                while (true) {
+                    if (shuttingDown) {
+                        interrupted = true;
+                        break;
+                    }
+                    Timer.Sample chunkSample = Timer.start(meterRegistry);
+                    Integer deleted = admissionGate.runInBackground(() -> transaction.execute(status -> deleteExcludedChunk(cutoff, archive)));
+                    chunkSample.stop(chunkTimer("excluded_students"));
+                    if (deleted == null || deleted == 0) {
+                        break;
+                    }
+                    total += deleted;
+                    meterRegistry.counter("cleanup.rows", "job", "excluded_students").increment(deleted);
+                    excludedRemaining.set(Math.max(0, expired - total));
+                    log.info("Excluded records cleanup: {} of {} deleted", total, expired);
+                    if (deleted < excludedChunkSize) {
+                        break;
+                    }
+                    if (!pause(excludedPauseMs)) {
+                        interrupted = true;
+                        break;
+                    }
+                }
+                if (archive != null) {
+                    log.info("Archived {} excluded student records to {}", archive.rows, archive.file);
+                }
+                outcome = interrupted ? "interrupted" : "success";
+                if (interrupted) {
+                    log.info("Excluded records cleanup stopped after {} of {} records; the next run resumes", total, expired);
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Excluded records cleanup stopped after {} records: archive write failed", total, e);
+        } finally {
+            if (total > 0) {
+                // One reload of the excluded-records consumers for the whole run, not one per chunk
+                admissionGate.runInBackground(() -> eventPublisher.publishEvent(EntityChangeEvent.bulk(TrackedTable.EXCLUDED_STUDENTS)));
+                log.info("Automatically cleaned up {} excluded student records older than {} years", total, excludedRetentionYears);
+            }
+            excludedRemaining.set(0);
+            sample.stop(cleanupTimer("excluded_students", outcome));
+            excludedCleanupRunning.set(false);
+        }
+    }
+
+    // One chunk: read the oldest expired records, archive them if enabled, take them out of the
+    // monthly rollup and delete them by id
+    private int deleteExcludedChunk(LocalDate cutoff, ExcludedArchive archive) {
+        List<ExcludedStudent> chunk = excludedStudentRepository.findChunkExcludedBefore(cutoff, PageRequest.of(0, excludedChunkSize));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        if (archive != null) {
+            try {
+                archive.write(chunk);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            meterRegistry.counter("cleanup.archived.rows", "job", "excluded_students").increment(chunk.size());
+        }
+        List<Long> ids = chunk.stream().map(ExcludedStudent::getId).toList();
+        exclusionRollupRepository.removeExcluded(ids);
+        return excludedStudentRepository.deleteChunk(ids);
+    }
+
+    // Sleep between chunks; false when the thread was interrupted
+    private static boolean pause(long millis) {
+        if (millis <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(millis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    // Runs every day at 3:30 AM: drop /api/sync tombstones past the retention window
+    @Scheduled(cron = "0 30 3 * * ?")
+    public void purgeOldTombstones() {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failure";
+        try {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            int count = admissionGate.runInBackground(() ->
+                    transaction.execute(status -> deletionLogRepository.deleteOlderThan(syncService.tombstoneCutoff())));
+            meterRegistry.counter("cleanup.rows", "job", "sync_tombstones").increment(count);
+
+            if (count > 0) {
+                log.info("Purged {} sync tombstones past the retention window", count);
+            }
+            outcome = "success";
+        } finally {
+            sample.stop(cleanupTimer("sync_tombstones", outcome));
+        }
+    }
+
+    // cleanup.duration{job, outcome}; outcome is success, failure or interrupted. cleanup.rows{job}
+    // counts the rows removed, cleanup.archived.rows{job} the rows written to an archive file
+    private Timer cleanupTimer(String job, String outcome) {
+        return Timer.builder("cleanup.duration")
+                .description("Duration of the nightly cleanup jobs")
+                .tag("job", job)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    // cleanup.chunk.duration{job}: one chunk's transaction (read, archive, delete)
+    private Timer chunkTimer(String job) {
+        return Timer.builder("cleanup.chunk.duration")
+                .description("Duration of one chunk of a chunked cleanup job")
+                .tag("job", job)
+                .register(meterRegistry);
+    }
+
+    // Gzipped JSON lines, one record per line, in a new file per run. Each chunk is flushed to
+    // the file before its DELETE commits; a chunk whose commit fails is archived again by the next run.
+    private static final class ExcludedArchive implements Closeable {
+
+        private final Path file;
+
+        private final Writer writer;
+
+        private final ObjectMapper objectMapper;
+
+        private long rows;
+
+        private ExcludedArchive(Path file, Writer writer, ObjectMapper objectMapper) {
+            this.file = file;
+            this.writer = writer;
+            this.objectMapper = objectMapper;
+        }
+
+        static ExcludedArchive open(String dir, ObjectMapper objectMapper) throws IOException {
+            Path directory = Path.of(dir);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("excluded-students-" + LocalDateTime.now().format(ARCHIVE_STAMP) + ".jsonl.gz");
+            Writer writer = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(file), true), StandardCharsets.UTF_8));
+            return new ExcludedArchive(file, writer, objectMapper);
+        }
+
+        void write(List<ExcludedStudent> chunk) throws IOException {
+            for (ExcludedStudent student : chunk) {
+                writer.write(objectMapper.writeValueAsString(student));
+                writer.write('\n');
+            }
+            writer.flush();
+            rows += chunk.size();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
         }
     }
 }
\ No newline at end of file
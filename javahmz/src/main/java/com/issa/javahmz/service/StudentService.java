@@ -1,140 +1,101 @@
 package com.issa.javahmz.service;
 
+import com.issa.javahmz.distribution.ShoeSizeHistogram;
 import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.repository.DeletionLogRepository;
+import com.issa.javahmz.repository.ExclusionRollupRepository;
 import com.issa.javahmz.repository.StudentRepository;
-import com.issa.javahmz.repository.ExcludedStudentRepository;  // This line must match your actual package
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.RosterActivityEvent;
+import com.issa.javahmz.event.TrackedTable;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.Optional;
 
+// Student roster: the shared RosterService plus the exclusion lifecycle and shoe sizes
 @Service
-public class StudentService {
+public class StudentService extends RosterService<Student> {
 
     @Autowired
     private StudentRepository studentRepository;
 
     @Autowired
-    private ExcludedStudentRepository excludedStudentRepository;  // Now it should resolve
+    private DeletionLogRepository deletionLogRepository;
 
-    // Get all students
-    public List<Student> getAllStudents() {
-        return studentRepository.findAllByOrderByNameAsc();
-    }
-
-    // Get student by ID
-    public Optional<Student> getStudentById(Long id) {
-        return studentRepository.findById(id);
-    }
-
-    // Get student by student ID
-    public Optional<Student> getStudentByStudentId(String studentId) {
-        return studentRepository.findByStudentId(studentId);
-    }
+    @Autowired
+    private ExclusionRollupRepository exclusionRollupRepository;
 
-    // Get students by teacher name
-    public List<Student> getStudentsByTeacher(String ustadh) {
-        return studentRepository.findByUstadh(ustadh);
-    }
+    @Autowired
+    private ShoeSizeHistogram shoeSizeHistogram;
 
-    // Get students by teacher name and class
-    public List<Student> getStudentsByTeacherAndClass(String ustadh, String classTeaching) {
-        return studentRepository.findByUstadhAndClassTeaching(ustadh, classTeaching);
+    public StudentService() {
+        super(TrackedTable.STUDENTS, "Student");
     }
 
-    // Create new student (with restore flag to allow same ID during restore)
-    public Student createStudent(Student student, boolean isRestore) {
+    // Put an excluded student back under the given teacher and class: one UPDATE on the same row,
+    // so the student keeps its id and its other details
+    @Transactional
+    public Student restore(Student student) {
         String studentId = student.getStudentId();
-
-        // Skip strict checks only when restoring from excluded
-        if (!isRestore) {
-            // Check active students
-            if (studentRepository.existsByStudentId(studentId)) {
-                throw new IllegalArgumentException("Student with ID '" + studentId + "' already exists in active students");
-            }
-
-            // Check excluded students - permanently block re-use
-            if (excludedStudentRepository.existsByStudentId(studentId)) {
-                throw new IllegalArgumentException(
-                    "Student ID '" + studentId + "' was previously excluded and cannot be reused (permanently blocked)"
-                );
-            }
+        exclusionRollupRepository.adjustForStudentId(studentId, -1);  // while the row is still EXCLUDED
+        int restored = studentRepository.restoreExcluded(studentId, student.getUstadh(), student.getClassTeaching(), LocalDateTime.now());
+        if (restored == 0) {
+            throw new IllegalArgumentException("Student ID '" + studentId + "' is not excluded, nothing to restore");
         }
-
-        return studentRepository.save(student);
+        Student saved = studentRepository.findByStudentId(studentId)
+                .orElseThrow(() -> new IllegalStateException("Restored student '" + studentId + "' not found"));
+        deletionLogRepository.deleteByTableAndRowId(TrackedTable.STUDENTS, saved.getId());
+
+        // No JPA insert happened: tell the in-memory consumers the row moved between the two views
+        eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.EXCLUDED_STUDENTS, EntityChangeEvent.ChangeType.DELETED, saved.getId(), null));
+        eventPublisher.publishEvent(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.CREATED, saved.getId(), saved));
+        eventPublisher.publishEvent(activity(saved, RosterActivityEvent.Action.RESTORED));
+        return saved;
     }
 
-    // Update student
-    public Student updateStudent(Long id, Student studentDetails) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
-
-        // Check if student ID is being changed and if new ID already exists (active or excluded)
-        String newStudentId = studentDetails.getStudentId();
-        if (!student.getStudentId().equals(newStudentId)) {
-            if (studentRepository.existsByStudentId(newStudentId)) {
-                throw new IllegalArgumentException("Student with ID '" + newStudentId + "' already exists in active students");
-            }
-            if (excludedStudentRepository.existsByStudentId(newStudentId)) {
-                throw new IllegalArgumentException("Cannot change to ID '" + newStudentId + "' - it was previously excluded");
-            }
+    // Shoe-size counts (normalized) overall, per teacher and per madrassa location
+    public Map<String, Object> getShoeSizeHistogram() {
+        if (!shoeSizeHistogram.isReady()) {
+            throw new IllegalStateException("Shoe-size counts are still loading, try again shortly");
         }
-
-        student.setStudentId(newStudentId);
-        student.setName(studentDetails.getName());
-        student.setGender(studentDetails.getGender());
-        student.setDateJoined(studentDetails.getDateJoined());
-        student.setLocation(studentDetails.getLocation());
-        student.setMadrassaLocation(studentDetails.getMadrassaLocation());
-        student.setShoeSize(studentDetails.getShoeSize());
-        student.setCell(studentDetails.getCell());
-        student.setUstadh(studentDetails.getUstadh());
-        student.setClassTeaching(studentDetails.getClassTeaching());
-
-        return studentRepository.save(student);
-    }
-
-    // Delete student
-    public void deleteStudent(Long id) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
-        studentRepository.delete(student);
-    }
-
-    // Delete all students by teacher
-    public void deleteStudentsByTeacher(String ustadh) {
-        List<Student> students = studentRepository.findByUstadh(ustadh);
-        studentRepository.deleteAll(students);
-    }
-
-    // Count students by teacher
-    public Long countStudentsByTeacher(String ustadh) {
-        return studentRepository.countByUstadh(ustadh);
+        return shoeSizeHistogram.snapshot();
     }
 
-    // Search students
-    public List<Student> searchStudents(String searchTerm) {
-        return studentRepository.searchByNameOrId(searchTerm);
+    // Active and excluded students share the table, so one lookup covers both; excluded IDs are permanently blocked
+    @Override
+    protected void checkStudentIdAvailable(String studentId) {
+        Optional<String> status = studentRepository.findStatusByStudentId(studentId);
+        if (status.isEmpty()) {
+            return;
+        }
+        if (Student.Status.EXCLUDED.name().equals(status.get())) {
+            throw new IllegalArgumentException(
+                "Student ID '" + studentId + "' was previously excluded and cannot be reused (permanently blocked)"
+            );
+        }
+        throw new IllegalArgumentException("Student with ID '" + studentId + "' already exists in active students");
     }
 
-    // Update classTeaching for all students of a specific teacher
-    public void updateStudentsClass(String ustadh, String oldClassTeaching, String newClassTeaching) {
-        List<Student> students = studentRepository.findByUstadhAndClassTeaching(ustadh, oldClassTeaching);
-        for (Student student : students) {
-            student.setClassTeaching(newClassTeaching);
-            studentRepository.save(student);
+    @Override
+    protected void checkStudentIdChangeAllowed(String studentId) {
+        Optional<String> status = studentRepository.findStatusByStudentId(studentId);
+        if (status.isEmpty()) {
+            return;
         }
+        if (Student.Status.EXCLUDED.name().equals(status.get())) {
+            throw new IllegalArgumentException("Cannot change to ID '" + studentId + "' - it was previously excluded");
+        }
+        throw new IllegalArgumentException("Student with ID '" + studentId + "' already exists in active students");
     }
 
-    // Transfer student
-    public Student transferStudent(Long id, String newUstadh, String newClassTeaching, String transferredBy, String notes) {
-        Student student = studentRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Student not found with id: " + id));
-
-        student.setUstadh(newUstadh);
-        student.setClassTeaching(newClassTeaching);
-
-        return studentRepository.save(student);
+    @Override
+    protected void copyDetails(Student student, Student details) {
+        super.copyDetails(student, details);
+        student.setMadrassaLocation(details.getMadrassaLocation());
+        student.setShoeSize(details.getShoeSize());
     }
 }
\ No newline at end of file
@@ -0,0 +1,158 @@
+package com.issa.javahmz.service;
+
+import com.issa.javahmz.entity.DeletionLog;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.AdultTeacherRepository;
+import com.issa.javahmz.repository.DeletionLogRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.MenTeacherRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.repository.TeacherRepository;
+import com.issa.javahmz.repository.UstaadRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Delta sync for offline clients: rows created/updated since a watermark plus tombstones
+// of rows deleted since then, for every roster and teacher table.
+// The token is the watermark (epoch millis, base 36). It points sync.overlap-seconds
+// before the sync ran, because updated_at is stamped when a row is changed, not when its
+// transaction commits; the overlap re-sends a few rows so slow commits are not missed.
+// Upserts are keyed by id, so clients can apply them twice safely.
+@Service
+public class SyncService {
+
+    // Tables served by /api/sync; DeletionRecorder logs tombstones for these only
+    public static final Set<TrackedTable> SYNCED_TABLES = Collections.unmodifiableSet(EnumSet.of(
+            TrackedTable.STUDENTS,
+            TrackedTable.ADULT_STUDENTS,
+            TrackedTable.MEN_STUDENTS,
+            TrackedTable.TEACHERS,
+            TrackedTable.ADULT_TEACHERS,
+            TrackedTable.MEN_TEACHERS,
+            TrackedTable.USTAADS));
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private AdultStudentRepository adultStudentRepository;
+
+    @Autowired
+    private MenStudentRepository menStudentRepository;
+
+    @Autowired
+    private TeacherRepository teacherRepository;
+
+    @Autowired
+    private AdultTeacherRepository adultTeacherRepository;
+
+    @Autowired
+    private MenTeacherRepository menTeacherRepository;
+
+    @Autowired
+    private UstaadRepository ustaadRepository;
+
+    @Autowired
+    private DeletionLogRepository deletionLogRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${sync.overlap-seconds:120}")
+    private long overlapSeconds;
+
+    @Value("${sync.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    // Changes since the token; no token, or one older than the tombstone retention,
+    // returns every row with "full": true (the client replaces its copy)
+    public Map<String, Object> changesSince(String since) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime watermark = since == null || since.isBlank() ? null : parseToken(since);
+        boolean full = watermark == null || watermark.isBefore(now.minusDays(tombstoneRetentionDays));
+
+        // One snapshot for all tables, so a row moved between rosters is never seen twice or lost
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        Map<String, Object> tables = readOnly.execute(status -> {
+            Map<TrackedTable, List<?>> upserts = new EnumMap<>(TrackedTable.class);
+            upserts.put(TrackedTable.STUDENTS, full ? studentRepository.findAll() : studentRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.ADULT_STUDENTS, full ? adultStudentRepository.findAll() : adultStudentRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.MEN_STUDENTS, full ? menStudentRepository.findAll() : menStudentRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.TEACHERS, full ? teacherRepository.findAll() : teacherRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.ADULT_TEACHERS, full ? adultTeacherRepository.findAll() : adultTeacherRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.MEN_TEACHERS, full ? menTeacherRepository.findAll() : menTeacherRepository.findByUpdatedAtAfter(watermark));
+            upserts.put(TrackedTable.USTAADS, full ? ustaadRepository.findAll() : ustaadRepository.findByUpdatedAtAfter(watermark));
+
+            Map<TrackedTable, List<Long>> deletes = new EnumMap<>(TrackedTable.class);
+            for (TrackedTable table : SYNCED_TABLES) {
+                deletes.put(table, new ArrayList<>());
+            }
+            if (!full) {
+                for (DeletionLog tombstone : deletionLogRepository.findByDeletedAtAfter(watermark)) {
+                    List<Long> ids = deletes.get(tombstone.getTable());
+                    if (ids != null) {
+                        ids.add(tombstone.getRowId());
+                    }
+                }
+            }
+
+            Map<String, Object> byTable = new HashMap<>();
+            for (TrackedTable table : SYNCED_TABLES) {
+                Map<String, Object> changes = new HashMap<>();
+                changes.put("upserts", upserts.get(table));
+                changes.put("deletes", deletes.get(table));
+                byTable.put(table.name(), changes);
+            }
+            return byTable;
+        });
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("token", toToken(now.minusSeconds(overlapSeconds)));
+        response.put("full", full);
+        response.put("tables", tables);
+        response.put("generatedAt", now);
+        return response;
+    }
+
+    // Tombstones older than this can be purged; tokens older than this get a full resync
+    public LocalDateTime tombstoneCutoff() {
+        return LocalDateTime.now().minusDays(tombstoneRetentionDays);
+    }
+
+    private static String toToken(LocalDateTime watermark) {
+        return Long.toString(watermark.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli(), 36);
+    }
+
+    private static LocalDateTime parseToken(String token) {
+        long millis;
+        try {
+            millis = Long.parseLong(token.trim(), 36);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        if (millis < 0) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+}
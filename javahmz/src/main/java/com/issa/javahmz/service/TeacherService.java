@@ -1,5 +1,6 @@
 package com.issa.javahmz.service;
 
+import com.issa.javahmz.cache.TeacherAccessCache;
 import com.issa.javahmz.entity.Teacher;
 import com.issa.javahmz.repository.TeacherRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,9 @@ public class TeacherService {
     @Autowired
     private TeacherRepository teacherRepository;
     
+    @Autowired
+    private TeacherAccessCache teacherAccessCache;
+    
     // Get all teachers
     public List<Teacher> getAllTeachers() {
         return teacherRepository.findAllByOrderByNameAsc();
@@ -26,7 +30,8 @@ public class TeacherService {
     
     // Get teacher by name and class
     public Optional<Teacher> getTeacherByNameAndClass(String name, String classTeaching) {
-        return teacherRepository.findByNameAndClassTeaching(name, classTeaching);
+        return teacherAccessCache.get(Teacher.class, name, classTeaching,
+                () -> teacherRepository.findByNameAndClassTeaching(name, classTeaching));
     }
     
     // Create new teacher
@@ -35,7 +40,9 @@ public class TeacherService {
         if (teacherRepository.existsByName(teacher.getName())) {
             throw new RuntimeException("Teacher with name '" + teacher.getName() + "' already exists");
         }
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        teacherAccessCache.invalidate(Teacher.class);
+        return saved;
     }
     
     // Update teacher
@@ -52,7 +59,9 @@ public class TeacherService {
         teacher.setName(teacherDetails.getName());
         teacher.setClassTeaching(teacherDetails.getClassTeaching());
         
-        return teacherRepository.save(teacher);
+        Teacher saved = teacherRepository.save(teacher);
+        teacherAccessCache.invalidate(Teacher.class);
+        return saved;
     }
     
     // Delete teacher
@@ -60,6 +69,7 @@ public class TeacherService {
         Teacher teacher = teacherRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Teacher not found with id: " + id));
         teacherRepository.delete(teacher);
+        teacherAccessCache.invalidate(Teacher.class);
     }
     
     // Search teachers by name
@@ -0,0 +1,37 @@
+package com.issa.javahmz.sync;
+
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.service.SyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+// Writes a deletion_log tombstone for every synced row removed through JPA.
+// Unlike the other listeners this one runs synchronously, from @PostRemove during the
+// flush, so the tombstone is inserted on the same connection and commits or rolls back
+// together with the DELETE. Plain JDBC because the EntityManager is mid-flush here.
+// Bulk deletes do not fire @PostRemove; they write their tombstones through
+// DeletionLogRepository before running the DELETE, and their per-row events are skipped here.
+@Component
+public class DeletionRecorder {
+
+    private static final String INSERT_TOMBSTONE =
+            "INSERT INTO deletion_log (table_name, row_id, deleted_at) VALUES (?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener
+    public void onEntityChange(EntityChangeEvent event) {
+        if (event.getType() != EntityChangeEvent.ChangeType.DELETED
+                || event.getEntityId() == null
+                || event.isFromBulkStatement()
+                || !SyncService.SYNCED_TABLES.contains(event.getTable())) {
+            return;
+        }
+        jdbcTemplate.update(INSERT_TOMBSTONE, event.getTable().name(), event.getEntityId(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,102 @@
+package com.issa.javahmz.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Minimal RFC 4180 reader: comma separated, double-quoted fields may contain
+// commas, line breaks and "" escapes. The first record is the header row.
+public final class CsvReader {
+
+    private CsvReader() {
+    }
+
+    // Read every record as header -> value; blank lines are skipped
+    public static List<Map<String, String>> readWithHeader(Reader reader) throws IOException {
+        List<List<String>> records = readRecords(
+                reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader));
+        List<Map<String, String>> rows = new ArrayList<>();
+        if (records.isEmpty()) {
+            return rows;
+        }
+
+        List<String> header = records.get(0);
+        if (!header.isEmpty() && header.get(0).startsWith("\uFEFF")) {
+            header.set(0, header.get(0).substring(1));
+        }
+
+        for (int i = 1; i < records.size(); i++) {
+            List<String> record = records.get(i);
+            Map<String, String> row = new LinkedHashMap<>();
+            for (int c = 0; c < header.size(); c++) {
+                row.put(header.get(c).trim(), c < record.size() ? record.get(c) : null);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static List<List<String>> readRecords(BufferedReader reader) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        List<String> record = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean inQuotes = false;
+        boolean fieldStarted = false;
+
+        int ch;
+        while ((ch = reader.read()) != -1) {
+            char c = (char) ch;
+            if (inQuotes) {
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        inQuotes = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                inQuotes = true;
+                fieldStarted = true;
+            } else if (c == ',') {
+                record.add(field.toString());
+                field.setLength(0);
+                fieldStarted = true;
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                endRecord(records, record, field, fieldStarted);
+                record = new ArrayList<>();
+                fieldStarted = false;
+            } else {
+                field.append(c);
+                fieldStarted = true;
+            }
+        }
+        endRecord(records, record, field, fieldStarted);
+        return records;
+    }
+
+    private static void endRecord(List<List<String>> records, List<String> record,
+                                  StringBuilder field, boolean fieldStarted) {
+        if (fieldStarted || !record.isEmpty()) {
+            record.add(field.toString());
+            records.add(record);
+        }
+        field.setLength(0);
+    }
+}
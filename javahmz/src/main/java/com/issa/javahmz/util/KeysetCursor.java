@@ -0,0 +1,78 @@
+package com.issa.javahmz.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+// Continuation token for keyset pagination on (name, id).
+// The token is opaque to clients: URL-safe Base64 of "id:name".
+public final class KeysetCursor {
+
+    private final String name;
+    private final Long id;
+
+    public KeysetCursor(String name, Long id) {
+        this.name = name;
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    // Encode this cursor as a continuation token
+    public String encode() {
+        String raw = id + ":" + name;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Decode a continuation token (id first, so names containing ':' still round-trip)
+    public static KeysetCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid cursor: " + token);
+            }
+            return new KeysetCursor(raw.substring(separator + 1), Long.parseLong(raw.substring(0, separator)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    // Resolve the requested page size against the configured default and maximum
+    public static int clampSize(Integer requested, int defaultSize, int maxSize) {
+        if (requested == null || requested <= 0) {
+            return defaultSize;
+        }
+        return Math.min(requested, maxSize);
+    }
+
+    // Build the page response from rows fetched with limit (size + 1);
+    // the extra row only tells us whether another page exists.
+    public static <T> Map<String, Object> page(List<T> rows, int size,
+                                               Function<T, String> nameOf, Function<T, Long> idOf) {
+        boolean hasMore = rows.size() > size;
+        List<T> content = hasMore ? new ArrayList<>(rows.subList(0, size)) : rows;
+
+        Map<String, Object> page = new HashMap<>();
+        page.put("content", content);
+        page.put("size", content.size());
+        page.put("hasMore", hasMore);
+        if (hasMore) {
+            T last = content.get(content.size() - 1);
+            page.put("nextCursor", new KeysetCursor(nameOf.apply(last), idOf.apply(last)).encode());
+        } else {
+            page.put("nextCursor", null);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,20 @@
+package com.issa.javahmz.util;
+
+// Case-insensitive key of a teacher or class name: the value stored in ustadh_key and
+// class_teaching_key, and the value every teacher/class lookup binds. Computed in Java only, so
+// the stored key and the lookup can never disagree. Each character is upper-cased on its own
+// (simple case mapping, 'ß' stays 'ß'), which is also what SQL UPPER did for the db/002 backfill.
+public final class LookupKey {
+
+    private LookupKey() {
+    }
+
+    public static String of(String value) {
+        if (value == null) {
+            return null;
+        }
+        StringBuilder key = new StringBuilder(value.length());
+        value.codePoints().forEach(codePoint -> key.appendCodePoint(Character.toUpperCase(codePoint)));
+        return key.toString();
+    }
+}
@@ -0,0 +1,6 @@
+-- Indexes backing keyset pagination on (name, id) for the roster list endpoints.
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor.
+
+CREATE INDEX IF NOT EXISTS idx_students_name_id ON students (name, id);
+CREATE INDEX IF NOT EXISTS idx_adult_students_name_id ON adult_students (name, id);
+CREATE INDEX IF NOT EXISTS idx_men_students_name_id ON men_students (name, id);
@@ -0,0 +1,25 @@
+-- Upper-cased ustadh / class_teaching copies so by-teacher lookups can use a plain b-tree index
+-- instead of scanning with UPPER(column). The entities keep the keys in step on every insert/update.
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor
+-- before deploying the build that maps the new columns.
+
+ALTER TABLE students ADD COLUMN IF NOT EXISTS ustadh_key VARCHAR(255);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS class_teaching_key VARCHAR(255);
+UPDATE students SET ustadh_key = UPPER(ustadh), class_teaching_key = UPPER(class_teaching);
+ALTER TABLE students ALTER COLUMN ustadh_key SET NOT NULL;
+ALTER TABLE students ALTER COLUMN class_teaching_key SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_students_teacher_key ON students (ustadh_key, class_teaching_key);
+
+ALTER TABLE adult_students ADD COLUMN IF NOT EXISTS ustadh_key VARCHAR(255);
+ALTER TABLE adult_students ADD COLUMN IF NOT EXISTS class_teaching_key VARCHAR(255);
+UPDATE adult_students SET ustadh_key = UPPER(ustadh), class_teaching_key = UPPER(class_teaching);
+ALTER TABLE adult_students ALTER COLUMN ustadh_key SET NOT NULL;
+ALTER TABLE adult_students ALTER COLUMN class_teaching_key SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_adult_students_teacher_key ON adult_students (ustadh_key, class_teaching_key);
+
+ALTER TABLE men_students ADD COLUMN IF NOT EXISTS ustadh_key VARCHAR(255);
+ALTER TABLE men_students ADD COLUMN IF NOT EXISTS class_teaching_key VARCHAR(255);
+UPDATE men_students SET ustadh_key = UPPER(ustadh), class_teaching_key = UPPER(class_teaching);
+ALTER TABLE men_students ALTER COLUMN ustadh_key SET NOT NULL;
+ALTER TABLE men_students ALTER COLUMN class_teaching_key SET NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_men_students_teacher_key ON men_students (ustadh_key, class_teaching_key);
@@ -0,0 +1,19 @@
+-- Server-side food hamper / shoe distribution tracking (replaces browser localStorage).
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor.
+
+CREATE TABLE IF NOT EXISTS distribution_campaigns (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    roster VARCHAR(255) NOT NULL,
+    distribution_type VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS distribution_records (
+    id BIGSERIAL PRIMARY KEY,
+    campaign_id BIGINT NOT NULL REFERENCES distribution_campaigns (id),
+    student_row_id BIGINT NOT NULL,
+    distributed_at TIMESTAMP NOT NULL,
+    distributed_by VARCHAR(255),
+    CONSTRAINT uk_distribution_records_campaign_student UNIQUE (campaign_id, student_row_id)
+);
@@ -0,0 +1,28 @@
+-- Delta sync (/api/sync): updated_at indexes for "changed since" reads, and a tombstone
+-- table for deleted rows. Rows with no updated_at would never show up in a delta, so
+-- they are back-filled first.
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor.
+
+UPDATE students SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE adult_students SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE men_students SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE teachers SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE adult_teachers SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE men_teachers SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+UPDATE ustaads SET updated_at = COALESCE(created_at, NOW()) WHERE updated_at IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_students_updated_at ON students (updated_at);
+CREATE INDEX IF NOT EXISTS idx_adult_students_updated_at ON adult_students (updated_at);
+CREATE INDEX IF NOT EXISTS idx_men_students_updated_at ON men_students (updated_at);
+CREATE INDEX IF NOT EXISTS idx_teachers_updated_at ON teachers (updated_at);
+CREATE INDEX IF NOT EXISTS idx_adult_teachers_updated_at ON adult_teachers (updated_at);
+CREATE INDEX IF NOT EXISTS idx_men_teachers_updated_at ON men_teachers (updated_at);
+CREATE INDEX IF NOT EXISTS idx_ustaads_updated_at ON ustaads (updated_at);
+
+CREATE TABLE IF NOT EXISTS deletion_log (
+    id BIGSERIAL PRIMARY KEY,
+    table_name VARCHAR(255) NOT NULL,
+    row_id BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_deletion_log_deleted_at ON deletion_log (deleted_at);
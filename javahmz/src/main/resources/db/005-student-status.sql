@@ -0,0 +1,42 @@
+-- Student lifecycle status: excluded students stay in the students table with status EXCLUDED
+-- and their exclusion details, instead of being copied into excluded_students and deleted.
+-- Exclude and restore become one UPDATE each, and a row keeps its id (and student ID) throughout.
+-- The Student entity only maps ACTIVE rows and ExcludedStudent only EXCLUDED ones, so the roster
+-- indexes are rebuilt as partial indexes over the rows each side actually queries.
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor
+-- before deploying the build that maps the new columns.
+
+ALTER TABLE students ADD COLUMN IF NOT EXISTS status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE';
+ALTER TABLE students ADD COLUMN IF NOT EXISTS excluded_date DATE;
+ALTER TABLE students ADD COLUMN IF NOT EXISTS excluded_by VARCHAR(255);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS reason VARCHAR(255);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS exclusion_type VARCHAR(255);
+ALTER TABLE students ADD COLUMN IF NOT EXISTS additional_notes TEXT;
+
+-- Move the excluded copies over (newest exclusion per student ID). An ID that is active again
+-- was restored and its stale excluded copy is dropped, as the restore flow already intended.
+INSERT INTO students (student_id, name, gender, date_joined, location, madrassa_location, shoe_size, cell,
+                      ustadh, class_teaching, ustadh_key, class_teaching_key, created_at, updated_at,
+                      status, excluded_date, excluded_by, reason, exclusion_type, additional_notes)
+SELECT DISTINCT ON (e.student_id)
+       e.student_id, e.name, e.gender, e.date_joined, e.location, e.madrassa_location, e.shoe_size, e.cell,
+       e.ustadh, e.class_teaching, UPPER(e.ustadh), UPPER(e.class_teaching), e.created_at, NOW(),
+       'EXCLUDED', e.excluded_date, e.excluded_by, e.reason, e.exclusion_type, e.additional_notes
+FROM excluded_students e
+WHERE NOT EXISTS (SELECT 1 FROM students s WHERE s.student_id = e.student_id)
+ORDER BY e.student_id, e.excluded_date DESC, e.id DESC;
+
+-- Active-roster indexes only cover active rows
+DROP INDEX IF EXISTS idx_students_name_id;
+DROP INDEX IF EXISTS idx_students_teacher_key;
+DROP INDEX IF EXISTS idx_students_updated_at;
+CREATE INDEX idx_students_name_id ON students (name, id) WHERE status = 'ACTIVE';
+CREATE INDEX idx_students_teacher_key ON students (ustadh_key, class_teaching_key) WHERE status = 'ACTIVE';
+CREATE INDEX idx_students_updated_at ON students (updated_at) WHERE status = 'ACTIVE';
+
+-- /api/excluded-students lists newest first and filters by teacher; cleanup deletes by date
+CREATE INDEX IF NOT EXISTS idx_students_excluded_date ON students (excluded_date) WHERE status = 'EXCLUDED';
+CREATE INDEX IF NOT EXISTS idx_students_excluded_teacher ON students (ustadh, class_teaching) WHERE status = 'EXCLUDED';
+
+-- excluded_students is no longer read or written. Keep it until the migrated rows have been
+-- checked, then: DROP TABLE excluded_students;
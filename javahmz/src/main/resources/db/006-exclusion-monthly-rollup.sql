@@ -0,0 +1,24 @@
+-- Monthly exclusion rollup: number of excluded students per (month excluded, exclusion type, teacher),
+-- the teacher by its case-insensitive key (students.ustadh_key, see 002).
+-- The app keeps it equal to a GROUP BY over the excluded rows (one INSERT ... ON CONFLICT DO UPDATE
+-- per exclusion, restore, permanent delete and cleanup chunk, keyed on the unique constraint below),
+-- so trend charts read a few dozen rows instead of students.
+-- spring.jpa.hibernate.ddl-auto=validate does not create these; run once in the Supabase SQL editor
+-- before deploying the build that maps the table.
+
+CREATE TABLE IF NOT EXISTS exclusion_monthly_rollup (
+    id BIGSERIAL PRIMARY KEY,
+    month_start DATE NOT NULL,
+    exclusion_type VARCHAR(255) NOT NULL,
+    ustadh_key VARCHAR(255) NOT NULL,
+    excluded_count BIGINT NOT NULL,
+    CONSTRAINT uk_exclusion_rollup_month_type_teacher UNIQUE (month_start, exclusion_type, ustadh_key)
+);
+
+-- Backfill from the records excluded so far
+INSERT INTO exclusion_monthly_rollup (month_start, exclusion_type, ustadh_key, excluded_count)
+SELECT CAST(DATE_TRUNC('month', s.excluded_date) AS DATE), COALESCE(s.exclusion_type, 'unspecified'), s.ustadh_key, COUNT(*)
+FROM students s
+WHERE s.status = 'EXCLUDED' AND s.excluded_date IS NOT NULL
+GROUP BY 1, 2, 3
+ON CONFLICT (month_start, exclusion_type, ustadh_key) DO NOTHING;
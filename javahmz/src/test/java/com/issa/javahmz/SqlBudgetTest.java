@@ -0,0 +1,670 @@
+package com.issa.javahmz;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.issa.javahmz.cache.TeacherAccessCache;
+import com.issa.javahmz.entity.AdultStudent;
+import com.issa.javahmz.entity.AdultTeacher;
+import com.issa.javahmz.entity.DistributionCampaign;
+import com.issa.javahmz.entity.MenStudent;
+import com.issa.javahmz.entity.MenTeacher;
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.entity.Teacher;
+import com.issa.javahmz.entity.Ustaad;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.TrackedTable;
+import com.issa.javahmz.metrics.RequestMetricsInterceptor;
+import com.issa.javahmz.metrics.SqlBudget;
+import com.issa.javahmz.repository.AdultStudentRepository;
+import com.issa.javahmz.repository.AdultTeacherRepository;
+import com.issa.javahmz.repository.MenStudentRepository;
+import com.issa.javahmz.repository.MenTeacherRepository;
+import com.issa.javahmz.repository.StudentRepository;
+import com.issa.javahmz.repository.TeacherRepository;
+import com.issa.javahmz.repository.UstaadRepository;
+import com.issa.javahmz.service.DistributionService;
+import com.issa.javahmz.service.ExcludedStudentService;
+import com.issa.javahmz.service.SyncService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+// Calls each /api endpoint against a freshly seeded H2 roster, checks its response and fails
+// when it issues more SQL statements than its @SqlBudget. Statements are counted on the
+// DataSource, so JdbcTemplate work (imports, tombstones, rollups) counts too. Classes hold
+// CLASS_SIZE students, so an endpoint that loops over rows shows up as a large overrun rather
+// than an off-by-one. New endpoints must be given a budget and a case here.
+@SpringBootTest
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SqlBudgetTest {
+
+	private static final int CLASS_SIZE = 25;
+
+	private static final String TEACHER = "Budget Teacher";
+
+	private static final String OTHER_TEACHER = "Budget Other";
+
+	private static final String CLASS = "Budget Class";
+
+	// Tables emptied before each case, children first
+	private static final List<String> TABLES = List.of("deletion_log", "exclusion_monthly_rollup", "students",
+			"adult_students", "men_students", "teachers", "adult_teachers", "men_teachers", "ustaads");
+
+	// The three rosters share RosterController, so their cases are parameterized over this
+	enum Roster {
+		STUDENTS("/api/students", "students", "SBS", "Budget Student",
+				"studentId,name,gender,dateJoined,location,madrassaLocation,shoeSize,cell,ustadh,classTeaching", ",Male,2024-01-10,Town,Centre,5,0820000000"),
+		ADULT_STUDENTS("/api/adult-students", "adult_students", "SBA", "Budget Adult",
+				"studentId,name,gender,dateJoined,location,cell,ustadh,classTeaching", ",Female,2024-01-10,Town,0820000000"),
+		MEN_STUDENTS("/api/men-students", "men_students", "SBM", "Budget Man",
+				"studentId,name,gender,dateJoined,location,cell,ustadh,classTeaching", ",Male,2024-01-10,Town,0820000000");
+
+		final String path;
+
+		final String table;
+
+		final String prefix;
+
+		final String namePrefix;
+
+		final String csvHeader;
+
+		// CSV columns between name and ustadh
+		final String csvDetails;
+
+		Roster(String path, String table, String prefix, String namePrefix, String csvHeader, String csvDetails) {
+			this.path = path;
+			this.table = table;
+			this.prefix = prefix;
+			this.namePrefix = namePrefix;
+			this.csvHeader = csvHeader;
+			this.csvDetails = csvDetails;
+		}
+
+		String studentId(int number) {
+			return prefix + "-" + String.format("%03d", number);
+		}
+	}
+
+	// The three teacher lists share one controller shape
+	enum TeacherList {
+		TEACHERS("/api/teachers", "teachers"),
+		ADULT_TEACHERS("/api/adult-teachers", "adult_teachers"),
+		MEN_TEACHERS("/api/men-teachers", "men_teachers");
+
+		final String path;
+
+		final String table;
+
+		TeacherList(String path, String table) {
+			this.path = path;
+			this.table = table;
+		}
+	}
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	@Qualifier("requestMappingHandlerMapping")
+	private RequestMappingHandlerMapping handlerMapping;
+
+	@Autowired
+	private StudentRepository studentRepository;
+
+	@Autowired
+	private AdultStudentRepository adultStudentRepository;
+
+	@Autowired
+	private MenStudentRepository menStudentRepository;
+
+	@Autowired
+	private TeacherRepository teacherRepository;
+
+	@Autowired
+	private AdultTeacherRepository adultTeacherRepository;
+
+	@Autowired
+	private MenTeacherRepository menTeacherRepository;
+
+	@Autowired
+	private UstaadRepository ustaadRepository;
+
+	@Autowired
+	private DistributionService distributionService;
+
+	@Autowired
+	private ExcludedStudentService excludedStudentService;
+
+	@Autowired
+	private SyncService syncService;
+
+	@Autowired
+	private TeacherAccessCache teacherAccessCache;
+
+	private final Set<String> exercised = new TreeSet<>();
+
+	private final Set<String> casesRun = new TreeSet<>();
+
+	@BeforeEach
+	void reset(TestInfo testInfo) {
+		testInfo.getTestMethod().ifPresent(method -> casesRun.add(method.getName()));
+
+		for (DistributionCampaign campaign : distributionService.getCampaigns(null)) {
+			distributionService.deleteCampaign(campaign.getId());
+		}
+		for (String table : TABLES) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+		// Rebuild the in-memory projections (search index, ID registry, histograms) from the empty tables
+		for (TrackedTable table : TrackedTable.values()) {
+			eventPublisher.publishEvent(EntityChangeEvent.bulk(table));
+		}
+		teacherAccessCache.invalidate(Teacher.class);
+		teacherAccessCache.invalidate(AdultTeacher.class);
+		teacherAccessCache.invalidate(MenTeacher.class);
+
+		seed();
+	}
+
+	// Only meaningful when the whole class ran, not a single case picked from the IDE
+	@AfterAll
+	void everyEndpointIsExercised() {
+		long cases = Arrays.stream(SqlBudgetTest.class.getDeclaredMethods())
+				.filter(method -> method.isAnnotationPresent(Test.class) || method.isAnnotationPresent(ParameterizedTest.class))
+				.map(Method::getName)
+				.filter(name -> !name.equals("everyEndpointDeclaresASqlBudget"))
+				.count();
+		casesRun.remove("everyEndpointDeclaresASqlBudget");
+		if (casesRun.size() < cases) {
+			return;
+		}
+		Set<String> notExercised = new TreeSet<>();
+		for (HandlerMethod handler : apiHandlers()) {
+			notExercised.add(RequestMetricsInterceptor.handlerName(handler));
+		}
+		notExercised.removeAll(exercised);
+		assertTrue(notExercised.isEmpty(), "Endpoints not covered by SqlBudgetTest: " + notExercised);
+	}
+
+	@Test
+	void everyEndpointDeclaresASqlBudget() {
+		List<String> missing = new ArrayList<>();
+		for (HandlerMethod handler : apiHandlers()) {
+			if (!handler.hasMethodAnnotation(SqlBudget.class)) {
+				missing.add(RequestMetricsInterceptor.handlerName(handler));
+			}
+		}
+		assertTrue(missing.isEmpty(), "Endpoints without @SqlBudget: " + missing);
+	}
+
+	// ---- Rosters (/api/students, /api/adult-students, /api/men-students) ----
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterReads(Roster roster) throws Exception {
+		Long id = rowId(roster, 1);
+
+		assertEquals(2 * CLASS_SIZE, body(call(get(roster.path), HttpStatus.OK)).size());
+
+		JsonNode page = body(call(get(roster.path + "/page").param("size", "10"), HttpStatus.OK));
+		assertEquals(10, page.get("content").size());
+		assertTrue(page.get("hasMore").asBoolean());
+
+		assertEquals(roster.studentId(1), body(call(get(roster.path + "/{id}", id), HttpStatus.OK)).get("studentId").asText());
+		assertEquals(id, body(call(get(roster.path + "/by-student-id/{studentId}", roster.studentId(1)), HttpStatus.OK)).get("id").asLong());
+		assertEquals(CLASS_SIZE, body(call(get(roster.path + "/by-teacher/{ustadh}", TEACHER), HttpStatus.OK)).size());
+		assertEquals(CLASS_SIZE, body(call(get(roster.path + "/by-teacher-class").param("ustadh", TEACHER).param("classTeaching", CLASS), HttpStatus.OK)).size());
+		assertEquals(CLASS_SIZE, body(call(get(roster.path + "/count-by-teacher/{ustadh}", TEACHER), HttpStatus.OK)).asInt());
+
+		JsonNode found = body(call(get(roster.path + "/search").param("q", roster.namePrefix + " 17"), HttpStatus.OK));
+		assertEquals(roster.studentId(17), found.get(0).get("studentId").asText());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterExports(Roster roster) throws Exception {
+		String classList = stream(get(roster.path + "/export").param("ustadh", TEACHER).param("format", "csv"));
+		assertEquals(CLASS_SIZE + 1, classList.lines().count(), "header plus one line per student");
+		assertTrue(classList.contains(roster.namePrefix + " 1,"));
+
+		MvcResult zip = call(get(roster.path + "/export/by-teacher").param("format", "csv"), HttpStatus.OK);
+		MvcResult written = mockMvc.perform(asyncDispatch(zip)).andReturn();
+		byte[] archive = written.getResponse().getContentAsByteArray();
+		assertTrue(archive.length > 4 && archive[0] == 'P' && archive[1] == 'K', "zip archive");
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterCreate(Roster roster) throws Exception {
+		JsonNode created = body(call(json(post(roster.path), student(roster.prefix + "-NEW", "Budget New")), HttpStatus.CREATED));
+		assertEquals(roster.prefix + "-NEW", created.get("studentId").asText());
+		assertEquals(2 * CLASS_SIZE + 1, count(roster));
+	}
+
+	// Changes the student ID: the update branch with the most duplicate checks
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterUpdate(Roster roster) throws Exception {
+		JsonNode updated = body(call(json(put(roster.path + "/{id}", rowId(roster, 1)), student(roster.prefix + "-101", "Budget Renamed")), HttpStatus.OK));
+		assertEquals(roster.prefix + "-101", updated.get("studentId").asText());
+		assertEquals("Budget Renamed", updated.get("name").asText());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterImportJson(Roster roster) throws Exception {
+		JsonNode report = body(call(json(post(roster.path + "/import"),
+				List.of(student(roster.prefix + "-J1", "Budget Json One"), student(roster.prefix + "-J2", "Budget Json Two"))), HttpStatus.OK));
+		assertEquals(2, report.get("importedCount").asInt());
+		assertEquals(0, report.get("rejectedCount").asInt());
+		assertEquals(2 * CLASS_SIZE + 2, count(roster));
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterImportFile(Roster roster) throws Exception {
+		String content = roster.csvHeader + "\n"
+				+ roster.prefix + "-C1,Budget Csv One" + roster.csvDetails + "," + TEACHER + "," + CLASS + "\n"
+				// Already registered: rejected without another lookup
+				+ roster.studentId(2) + ",Budget Csv Two" + roster.csvDetails + "," + TEACHER + "," + CLASS + "\n";
+		JsonNode report = body(call(multipart(roster.path + "/import").file(csv(content)), HttpStatus.OK));
+		assertEquals(2, report.get("totalRows").asInt());
+		assertEquals(1, report.get("importedCount").asInt());
+		assertEquals(1, report.get("rejectedCount").asInt());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterUpdateClass(Roster roster) throws Exception {
+		JsonNode result = body(call(put(roster.path + "/update-class")
+				.param("ustadh", TEACHER).param("oldClassTeaching", CLASS).param("newClassTeaching", CLASS + " B"), HttpStatus.OK));
+		assertEquals(CLASS_SIZE, result.get("updatedCount").asInt());
+		assertEquals(CLASS_SIZE, jdbcTemplate.queryForObject(
+				"SELECT COUNT(*) FROM " + roster.table + " WHERE class_teaching = ?", Integer.class, CLASS + " B"));
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterDelete(Roster roster) throws Exception {
+		call(delete(roster.path + "/{id}", rowId(roster, 1)), HttpStatus.OK);
+		assertEquals(2 * CLASS_SIZE - 1, count(roster));
+		assertEquals(1, tombstones());
+	}
+
+	@ParameterizedTest
+	@EnumSource(Roster.class)
+	void rosterDeleteByTeacher(Roster roster) throws Exception {
+		JsonNode result = body(call(delete(roster.path + "/by-teacher/{ustadh}", OTHER_TEACHER), HttpStatus.OK));
+		assertEquals(CLASS_SIZE, result.get("deletedCount").asInt());
+		assertEquals(CLASS_SIZE, count(roster));
+		assertEquals(CLASS_SIZE, tombstones());
+	}
+
+	// ---- Student-only endpoints ----
+
+	@Test
+	void studentByDbIdAndShoeSizes() throws Exception {
+		Long id = rowId(Roster.STUDENTS, 1);
+		assertEquals("SBS-001", body(call(get("/api/students/by-id/{id}", id), HttpStatus.OK)).get("studentId").asText());
+
+		JsonNode sizes = body(call(get("/api/students/shoe-sizes"), HttpStatus.OK));
+		assertFalse(sizes.isEmpty());
+	}
+
+	@Test
+	void studentTransfer() throws Exception {
+		Long id = rowId(Roster.STUDENTS, 1);
+		call(json(post("/api/students/transfer/{id}", id), Map.of("newUstadh", OTHER_TEACHER, "newClassTeaching", CLASS, "transferredBy", "Admin")), HttpStatus.OK);
+		assertEquals(OTHER_TEACHER, studentRepository.findById(id).orElseThrow().getUstadh());
+	}
+
+	@Test
+	void studentRestore() throws Exception {
+		excludedStudentService.excludeStudent(rowId(Roster.STUDENTS, 3), "Admin", "Moved", "TRANSFER", null);
+
+		JsonNode restored = body(call(json(post("/api/students").param("restore", "true"), student("SBS-003", "Budget Student 3")), HttpStatus.CREATED));
+		assertEquals("SBS-003", restored.get("studentId").asText());
+		assertEquals(0, excludedStudentService.countAllExcludedStudents());
+	}
+
+	// ---- Teachers and ustaads ----
+
+	@ParameterizedTest
+	@EnumSource(TeacherList.class)
+	void teacherEndpoints(TeacherList teachers) throws Exception {
+		Long id = jdbcTemplate.queryForObject("SELECT id FROM " + teachers.table + " WHERE name = ?", Long.class, TEACHER);
+		Long otherId = jdbcTemplate.queryForObject("SELECT id FROM " + teachers.table + " WHERE name = ?", Long.class, OTHER_TEACHER);
+
+		assertEquals(2, body(call(get(teachers.path), HttpStatus.OK)).size());
+		assertEquals(TEACHER, body(call(get(teachers.path + "/{id}", id), HttpStatus.OK)).get("name").asText());
+		assertEquals(2, body(call(get(teachers.path + "/search").param("name", "Budget"), HttpStatus.OK)).size());
+		assertEquals(id, body(call(json(post(teachers.path + "/access"), Map.of("name", TEACHER, "classTeaching", CLASS)), HttpStatus.OK)).get("id").asLong());
+
+		call(json(post(teachers.path), Map.of("name", "Budget New Teacher", "classTeaching", CLASS)), HttpStatus.CREATED);
+		assertEquals("Budget Renamed Teacher", body(call(json(put(teachers.path + "/{id}", id),
+				Map.of("name", "Budget Renamed Teacher", "classTeaching", CLASS)), HttpStatus.OK)).get("name").asText());
+		call(delete(teachers.path + "/{id}", otherId), HttpStatus.OK);
+		assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + teachers.table, Integer.class));
+		assertEquals(1, tombstones());
+	}
+
+	@Test
+	void teacherAccessCacheStats() throws Exception {
+		JsonNode stats = body(call(get("/api/teachers/access/cache-stats"), HttpStatus.OK));
+		assertTrue(stats.isObject());
+	}
+
+	@Test
+	void ustaadEndpoints() throws Exception {
+		Long id = ustaadRepository.findAll().get(0).getId();
+
+		assertEquals(1, body(call(get("/api/ustaads"), HttpStatus.OK)).size());
+		assertEquals(TEACHER, body(call(get("/api/ustaads/{id}", id), HttpStatus.OK)).get("fullName").asText());
+		assertEquals(1, body(call(get("/api/ustaads/search").param("name", "Budget"), HttpStatus.OK)).size());
+		call(json(post("/api/ustaads"), ustaad("Budget Ustaad")), HttpStatus.CREATED);
+		assertEquals("Budget Renamed Ustaad", body(call(json(put("/api/ustaads/{id}", id), ustaad("Budget Renamed Ustaad")), HttpStatus.OK)).get("fullName").asText());
+		call(delete("/api/ustaads/{id}", id), HttpStatus.OK);
+		assertEquals(1, ustaadRepository.count());
+		assertEquals(1, tombstones());
+	}
+
+	// ---- Distributions ----
+
+	@Test
+	void distributionCampaigns() throws Exception {
+		JsonNode created = body(call(json(post("/api/distributions/campaigns"),
+				Map.of("name", "Budget Shoes", "roster", "students", "distributionType", "shoes")), HttpStatus.CREATED));
+		Long campaignId = created.get("id").asLong();
+
+		assertEquals(1, body(call(get("/api/distributions/campaigns").param("roster", "students"), HttpStatus.OK)).size());
+		call(delete("/api/distributions/campaigns/{id}", campaignId), HttpStatus.OK);
+		assertTrue(distributionService.getCampaigns(null).isEmpty());
+	}
+
+	@Test
+	void distributionCurrentCampaign() throws Exception {
+		Map<String, String> request = Map.of("name", "Students Shoes", "roster", "STUDENTS", "distributionType", "shoes");
+		Long created = body(call(json(put("/api/distributions/campaigns/current"), request), HttpStatus.OK)).get("id").asLong();
+		Long again = body(call(json(put("/api/distributions/campaigns/current"), request), HttpStatus.OK)).get("id").asLong();
+
+		assertEquals(created, again);
+		assertEquals(1, distributionService.getCampaigns("STUDENTS").size());
+	}
+
+	@Test
+	void distributionMarks() throws Exception {
+		Long campaignId = distributionService.createCampaign("Budget Shoes", "students", "shoes").getId();
+		Long rowId = rowId(Roster.STUDENTS, 2);
+
+		JsonNode marked = body(call(json(put("/api/distributions/campaigns/{id}/students/{studentRowId}", campaignId, rowId),
+				Map.of("distributedBy", "Admin", "distributedAt", "2024-03-01T09:30:00Z")), HttpStatus.OK));
+		assertTrue(marked.get("changed").asBoolean());
+		JsonNode records = body(call(get("/api/distributions/campaigns/{id}/records", campaignId), HttpStatus.OK));
+		assertEquals(1, records.size());
+		assertEquals(LocalDateTime.ofInstant(Instant.parse("2024-03-01T09:30:00Z"), ZoneId.systemDefault()),
+				LocalDateTime.parse(records.get(0).get("distributedAt").asText()));
+
+		JsonNode counts = body(call(get("/api/distributions/campaigns/{id}/counts", campaignId).param("ustadh", TEACHER), HttpStatus.OK));
+		assertEquals(CLASS_SIZE, counts.get("total").asInt());
+		assertEquals(1, counts.get("received").asInt());
+
+		JsonNode unmarked = body(call(delete("/api/distributions/campaigns/{id}/students/{studentRowId}", campaignId, rowId), HttpStatus.OK));
+		assertTrue(unmarked.get("changed").asBoolean());
+		assertTrue(distributionService.getRecords(campaignId).isEmpty());
+	}
+
+	@Test
+	void distributionUnmarkTeacher() throws Exception {
+		Long campaignId = distributionService.createCampaign("Budget Shoes", "students", "shoes").getId();
+		for (int number : List.of(6, 7, 8)) {
+			distributionService.mark(campaignId, rowId(Roster.STUDENTS, number), "Admin", null);
+		}
+
+		JsonNode cleared = body(call(delete("/api/distributions/campaigns/{id}/students", campaignId).param("ustadh", TEACHER), HttpStatus.OK));
+		assertEquals(3, cleared.get("clearedCount").asInt());
+		assertTrue(distributionService.getRecords(campaignId).isEmpty());
+	}
+
+	// ---- Exclusions ----
+
+	@Test
+	void excludeStudent() throws Exception {
+		JsonNode result = body(call(json(post("/api/exclude/student/{studentId}", rowId(Roster.STUDENTS, 3)),
+				Map.of("excludedBy", "Admin", "reason", "Moved", "exclusionType", "TRANSFER")), HttpStatus.OK));
+		assertEquals("SBS-003", result.get("excludedStudent").get("studentId").asText());
+		assertEquals(1, excludedStudentService.countAllExcludedStudents());
+		assertEquals(1, tombstones());
+	}
+
+	@Test
+	void excludeStudentsInBulk() throws Exception {
+		List<Long> ids = new ArrayList<>();
+		for (int number = 1; number <= 10; number++) {
+			ids.add(rowId(Roster.STUDENTS, number));
+		}
+		JsonNode result = body(call(json(post("/api/exclude/students"), Map.of("excludedBy", "Admin", "reason", "End of term",
+				"exclusionType", "completed", "ids", ids, "students", List.of(Map.of("id", rowId(Roster.STUDENTS, 11), "reason", "Moved",
+						"exclusionType", "transfer")))), HttpStatus.OK));
+		assertEquals(11, result.get("excludedCount").asInt());
+		assertEquals(11, excludedStudentService.countAllExcludedStudents());
+		assertEquals(11, tombstones());
+	}
+
+	@Test
+	void excludedStudentReads() throws Exception {
+		Long excludedId = excludedStudentService.excludeStudent(rowId(Roster.STUDENTS, 3), "Admin", "Moved", "TRANSFER", null).getId();
+		String thisMonth = LocalDate.now().withDayOfMonth(1).toString().substring(0, 7);
+
+		assertEquals(1, body(call(get("/api/excluded-students"), HttpStatus.OK)).size());
+		assertEquals("SBS-003", body(call(get("/api/excluded-students/{id}", excludedId), HttpStatus.OK)).get("studentId").asText());
+		assertEquals(1, body(call(get("/api/excluded-students/by-teacher/{ustadh}", TEACHER), HttpStatus.OK)).size());
+		assertEquals(1, body(call(get("/api/excluded-students/by-teacher-class").param("ustadh", TEACHER).param("classTeaching", CLASS), HttpStatus.OK)).size());
+		assertEquals(1, body(call(get("/api/excluded-students/this-month"), HttpStatus.OK)).size());
+		assertEquals(1, body(call(get("/api/excluded-students/search").param("q", "Budget"), HttpStatus.OK)).size());
+		assertTrue(body(call(get("/api/excluded-students/statistics"), HttpStatus.OK)).isObject());
+
+		JsonNode trends = body(call(get("/api/excluded-students/trends").param("from", thisMonth).param("ustadh", TEACHER), HttpStatus.OK));
+		assertTrue(trends.toString().contains("\"TRANSFER\""), trends.toString());
+	}
+
+	@Test
+	void excludedStudentDelete() throws Exception {
+		Long excludedId = excludedStudentService.excludeStudent(rowId(Roster.STUDENTS, 3), "Admin", "Moved", "TRANSFER", null).getId();
+
+		call(delete("/api/excluded-students/{id}", excludedId), HttpStatus.OK);
+		assertEquals(0, excludedStudentService.countAllExcludedStudents());
+		assertEquals(2 * CLASS_SIZE - 1, count(Roster.STUDENTS));
+	}
+
+	// ---- Duplicate checks, dashboard, sync and the roster feed ----
+
+	@Test
+	void duplicateChecks() throws Exception {
+		assertTrue(body(call(get("/api/check-duplicate/student/{studentId}", "SBS-002"), HttpStatus.OK)).toString().contains("true"));
+		call(get("/api/check-duplicate/name").param("name", "Budget Student 2").param("studentId", "SBS-002"), HttpStatus.OK);
+	}
+
+	@Test
+	void dashboardSummary() throws Exception {
+		JsonNode summary = body(call(get("/api/dashboard/summary"), HttpStatus.OK));
+		assertEquals(2 * CLASS_SIZE, summary.get("students").get("total").asInt());
+		assertEquals(0, summary.get("totalExcluded").asInt());
+	}
+
+	@Test
+	void syncFull() throws Exception {
+		JsonNode full = body(call(get("/api/sync"), HttpStatus.OK));
+		assertTrue(full.get("full").asBoolean());
+		assertNotNull(full.get("token").asText());
+	}
+
+	@Test
+	void syncSince() throws Exception {
+		Long id = rowId(Roster.STUDENTS, 1);
+		String token = (String) syncService.changesSince(null).get("token");
+		studentRepository.deleteById(id);
+
+		JsonNode changes = body(call(get("/api/sync").param("since", token), HttpStatus.OK));
+		assertFalse(changes.get("full").asBoolean());
+		assertTrue(changes.get("tables").toString().contains(String.valueOf(id)), changes.toString());
+	}
+
+	@Test
+	void rosterEvents() throws Exception {
+		MvcResult result = call(get("/api/roster-events").param("roster", "students").param("ustadh", TEACHER), HttpStatus.OK);
+		assertTrue(result.getRequest().isAsyncStarted());
+	}
+
+	// Two teachers per roster, CLASS_SIZE students each
+	private void seed() {
+		List<Student> students = new ArrayList<>();
+		List<AdultStudent> adultStudents = new ArrayList<>();
+		List<MenStudent> menStudents = new ArrayList<>();
+		for (int i = 1; i <= 2 * CLASS_SIZE; i++) {
+			String ustadh = i <= CLASS_SIZE ? TEACHER : OTHER_TEACHER;
+			LocalDate joined = LocalDate.of(2024, 1, 1).plusDays(i);
+			students.add(new Student(Roster.STUDENTS.studentId(i), "Budget Student " + i, "Male", joined, "Town", "Centre", String.valueOf(i % 10), "0820000000", ustadh, CLASS));
+			adultStudents.add(new AdultStudent(Roster.ADULT_STUDENTS.studentId(i), "Budget Adult " + i, "Female", joined, "Town", "0820000000", ustadh, CLASS));
+			menStudents.add(new MenStudent(Roster.MEN_STUDENTS.studentId(i), "Budget Man " + i, "Male", joined, "Town", "0820000000", ustadh, CLASS));
+		}
+		studentRepository.saveAll(students);
+		adultStudentRepository.saveAll(adultStudents);
+		menStudentRepository.saveAll(menStudents);
+
+		teacherRepository.saveAll(List.of(new Teacher(TEACHER, CLASS), new Teacher(OTHER_TEACHER, CLASS)));
+		adultTeacherRepository.saveAll(List.of(new AdultTeacher(TEACHER, CLASS), new AdultTeacher(OTHER_TEACHER, CLASS)));
+		menTeacherRepository.saveAll(List.of(new MenTeacher(TEACHER, CLASS), new MenTeacher(OTHER_TEACHER, CLASS)));
+
+		Ustaad ustaad = new Ustaad();
+		ustaad.setFullName(TEACHER);
+		ustaad.setClassTeaching(CLASS);
+		ustaad.setCenter("Centre");
+		ustaad.setPhone("0820000000");
+		ustaad.setNumStudents(CLASS_SIZE);
+		ustaadRepository.save(ustaad);
+	}
+
+	// Perform the request, check its status and compare the statements it issued with the handler's budget
+	private MvcResult call(MockHttpServletRequestBuilder request, HttpStatus expected) throws Exception {
+		MvcResult result = mockMvc.perform(request).andReturn();
+		String call = result.getRequest().getMethod() + " " + result.getRequest().getRequestURI();
+
+		HandlerMethod handler = assertInstanceOf(HandlerMethod.class, result.getHandler(), call + ": no controller method matched");
+		String name = RequestMetricsInterceptor.handlerName(handler);
+		exercised.add(name);
+
+		assertEquals(expected.value(), result.getResponse().getStatus(), call + " (" + name + "): " + result.getResponse().getContentAsString());
+		Integer statements = (Integer) result.getRequest().getAttribute(RequestMetricsInterceptor.SQL_STATEMENTS_ATTRIBUTE);
+		assertNotNull(statements, call + " (" + name + "): statements were not counted");
+		SqlBudget budget = handler.getMethodAnnotation(SqlBudget.class);
+		assertNotNull(budget, name + " has no @SqlBudget");
+		assertTrue(statements <= budget.value(), call + " (" + name + "): " + statements + " statements, budget " + budget.value());
+		return result;
+	}
+
+	// Exports stream on another thread after the handler returns: dispatch again for the body
+	private String stream(MockHttpServletRequestBuilder request) throws Exception {
+		MvcResult result = call(request, HttpStatus.OK);
+		return mockMvc.perform(asyncDispatch(result)).andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+	}
+
+	private JsonNode body(MvcResult result) throws Exception {
+		return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8));
+	}
+
+	private MockHttpServletRequestBuilder json(MockHttpServletRequestBuilder request, Object body) throws Exception {
+		return request.contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(body));
+	}
+
+	private Long rowId(Roster roster, int number) {
+		return jdbcTemplate.queryForObject("SELECT id FROM " + roster.table + " WHERE student_id = ?", Long.class, roster.studentId(number));
+	}
+
+	// Rows in the roster table; for students this includes excluded rows
+	private int count(Roster roster) {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + roster.table, Integer.class);
+	}
+
+	private int tombstones() {
+		return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM deletion_log", Integer.class);
+	}
+
+	private static MockMultipartFile csv(String content) {
+		return new MockMultipartFile("file", "roster.csv", "text/csv", content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static Map<String, Object> student(String studentId, String name) {
+		return Map.of("studentId", studentId, "name", name, "gender", "Male", "dateJoined", "2024-02-01",
+				"location", "Town", "madrassaLocation", "Centre", "shoeSize", "6", "cell", "0820000000",
+				"ustadh", TEACHER, "classTeaching", CLASS);
+	}
+
+	private static Map<String, Object> ustaad(String fullName) {
+		return Map.of("fullName", fullName, "classTeaching", CLASS, "center", "Centre", "phone", "0820000000", "numStudents", CLASS_SIZE);
+	}
+
+	// Controller methods mapped under /api (the paths RequestMetricsInterceptor counts)
+	private List<HandlerMethod> apiHandlers() {
+		List<HandlerMethod> handlers = new ArrayList<>();
+		handlerMapping.getHandlerMethods().forEach((mapping, handler) -> {
+			if (mapping.getPatternValues().stream().anyMatch(pattern -> pattern.startsWith("/api/"))) {
+				handlers.add(handler);
+			}
+		});
+		return handlers;
+	}
+}
@@ -0,0 +1,145 @@
+package com.issa.javahmz.admission;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DbAdmissionGateTest {
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+	// One permit, so every further request has to queue
+	private DbAdmissionGate gate(int maxQueue, long maxWaitMs) {
+		DbAdmissionGate gate = new DbAdmissionGate();
+		ReflectionTestUtils.setField(gate, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(gate, "enabled", true);
+		ReflectionTestUtils.setField(gate, "permits", 1);
+		ReflectionTestUtils.setField(gate, "maxQueue", maxQueue);
+		ReflectionTestUtils.setField(gate, "maxWaitMs", maxWaitMs);
+		ReflectionTestUtils.setField(gate, "retryAfterSeconds", 2);
+		gate.init();
+		return gate;
+	}
+
+	@Test
+	void admitsWritesThenReadsThenBulkWhenAPermitIsReturned() throws Exception {
+		DbAdmissionGate gate = gate(10, 10_000);
+		DbAdmissionGate.Permit held = gate.acquire(DbAdmission.Priority.READ);
+		List<DbAdmission.Priority> admitted = new CopyOnWriteArrayList<>();
+
+		// Queued in the opposite order to the one they are admitted in
+		List<Thread> waiting = List.of(
+				waitFor(gate, DbAdmission.Priority.BULK, admitted),
+				waitFor(gate, DbAdmission.Priority.READ, admitted),
+				waitFor(gate, DbAdmission.Priority.WRITE, admitted));
+
+		held.release();
+		for (Thread thread : waiting) {
+			thread.join(5_000);
+		}
+
+		assertEquals(List.of(DbAdmission.Priority.WRITE, DbAdmission.Priority.READ, DbAdmission.Priority.BULK), admitted);
+	}
+
+	@Test
+	void rejectsRequestsOnceTheQueueIsFull() throws Exception {
+		DbAdmissionGate gate = gate(2, 10_000);
+		DbAdmissionGate.Permit held = gate.acquire(DbAdmission.Priority.WRITE);
+		List<DbAdmission.Priority> admitted = new CopyOnWriteArrayList<>();
+
+		// Bulk requests may take only half of admission.max-queue
+		Thread bulk = waitFor(gate, DbAdmission.Priority.BULK, admitted);
+		assertThrows(IllegalStateException.class, () -> gate.acquire(DbAdmission.Priority.BULK));
+
+		Thread write = waitFor(gate, DbAdmission.Priority.WRITE, admitted);
+		assertThrows(IllegalStateException.class, () -> gate.acquire(DbAdmission.Priority.WRITE));
+
+		held.release();
+		write.join(5_000);
+		bulk.join(5_000);
+		assertEquals(List.of(DbAdmission.Priority.WRITE, DbAdmission.Priority.BULK), admitted);
+	}
+
+	@Test
+	void givesUpAfterMaxWait() {
+		DbAdmissionGate gate = gate(10, 50);
+		DbAdmissionGate.Permit held = gate.acquire(DbAdmission.Priority.READ);
+
+		assertThrows(IllegalStateException.class, () -> gate.acquire(DbAdmission.Priority.WRITE));
+		assertEquals(0, queued(DbAdmission.Priority.WRITE), "the timed-out request leaves the queue");
+
+		held.release();
+		gate.acquire(DbAdmission.Priority.WRITE).release();
+	}
+
+	@Test
+	void answersRejectedRequestsWith503AndRetryAfter() throws Exception {
+		DbAdmissionGate gate = gate(0, 10_000);
+		DbAdmissionGate.Permit held = gate.acquire(DbAdmission.Priority.WRITE);
+		ObjectMapper objectMapper = new ObjectMapper();
+		AdmissionInterceptor interceptor = new AdmissionInterceptor(gate, objectMapper);
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/exclude/students");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		HandlerMethod handler = new HandlerMethod(new Handler(), Handler.class.getMethod("save"));
+
+		assertFalse(interceptor.preHandle(request, response, handler));
+
+		assertEquals(HttpStatus.SERVICE_UNAVAILABLE.value(), response.getStatus());
+		assertEquals("2", response.getHeader(HttpHeaders.RETRY_AFTER));
+		Map<?, ?> body = objectMapper.readValue(response.getContentAsByteArray(), Map.class);
+		assertEquals("The database is busy, try again shortly", body.get("message"));
+
+		held.release();
+		assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), handler));
+		interceptor.afterCompletion(request, response, handler, null);
+		gate.acquire(DbAdmission.Priority.WRITE).release();
+	}
+
+	static class Handler {
+		public void save() {
+		}
+	}
+
+	// Starts a request that waits for the permit, returning once it is in the queue.
+	// When admitted it records its priority and hands the permit straight back.
+	private Thread waitFor(DbAdmissionGate gate, DbAdmission.Priority priority, List<DbAdmission.Priority> admitted)
+			throws InterruptedException {
+		int before = queued(priority);
+		Thread thread = new Thread(() -> {
+			DbAdmissionGate.Permit permit = gate.acquire(priority);
+			admitted.add(priority);
+			permit.release();
+		});
+		thread.start();
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (queued(priority) == before) {
+			assertTrue(System.nanoTime() < deadline, priority + " request never queued");
+			Thread.sleep(5);
+		}
+		return thread;
+	}
+
+	private int queued(DbAdmission.Priority priority) {
+		return (int) meterRegistry.get("db.admission.queued")
+				.tag("priority", priority.name().toLowerCase(Locale.ROOT))
+				.gauge()
+				.value();
+	}
+}
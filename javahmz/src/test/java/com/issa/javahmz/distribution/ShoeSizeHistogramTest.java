@@ -0,0 +1,52 @@
+package com.issa.javahmz.distribution;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ShoeSizeHistogramTest {
+
+	@ParameterizedTest
+	@CsvSource(value = {
+			"5, 5",
+			"' 5 ', 5",
+			"size 5, 5",
+			"5.0, 5",
+			"'5,5', 5.5",
+			"5½, 5.5",
+			"5.25, 5.5",
+			"5.2, 5",
+			"10C, C10",
+			"c 10, C10",
+			"kids 10, C10",
+			"Junior 2, C2",
+			"UK 5 (38 EU), 5",
+			"'   ', UNKNOWN",
+			"'', UNKNOWN",
+			"NULL, UNKNOWN",
+			"small, UNPARSED",
+			"n/a, UNPARSED",
+	}, nullValues = "NULL")
+	void normalizesFreeTextSizes(String raw, String expected) {
+		assertEquals(expected, ShoeSizeHistogram.normalize(raw));
+	}
+
+	@Test
+	void ordersKidsSizesThenAdultSizesNumericallyThenUnknown() {
+		List<String> expected = List.of("C2", "C9", "C10", "C12.5", "1", "5", "5.5", "9", "10", "12",
+				ShoeSizeHistogram.UNKNOWN, ShoeSizeHistogram.UNPARSED);
+		List<String> sizes = new ArrayList<>(expected);
+		Collections.shuffle(sizes, new Random(7));
+
+		sizes.sort(ShoeSizeHistogram.SIZE_ORDER);
+
+		assertEquals(expected, sizes);
+	}
+}
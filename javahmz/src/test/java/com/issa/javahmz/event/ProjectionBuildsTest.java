@@ -0,0 +1,73 @@
+package com.issa.javahmz.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ProjectionBuildsTest {
+
+	private static EntityChangeEvent updated(TrackedTable table, long id) {
+		return new EntityChangeEvent(table, EntityChangeEvent.ChangeType.UPDATED, id, null);
+	}
+
+	@Test
+	void replaysChangesThatArriveDuringABuildOfTheirTable() {
+		ProjectionBuilds builds = new ProjectionBuilds();
+		List<Long> applied = new ArrayList<>();
+
+		builds.rebuild(() -> {
+			builds.apply(updated(TrackedTable.STUDENTS, 1), event -> applied.add(event.getEntityId()));
+			builds.apply(updated(TrackedTable.MEN_STUDENTS, 2), event -> applied.add(event.getEntityId()));
+			applied.clear();  // the swap replaces everything applied so far
+		}, event -> event.getTable() == TrackedTable.STUDENTS, event -> applied.add(event.getEntityId()));
+
+		assertEquals(List.of(1L), applied);
+
+		builds.rebuild(() -> { }, event -> true, event -> applied.add(event.getEntityId()));
+		assertEquals(List.of(1L), applied, "recorded changes are dropped once no build is running");
+	}
+
+	@Test
+	void replaysAChangeWhenTheBuildFinishesWhileItIsApplied() throws Exception {
+		ProjectionBuilds builds = new ProjectionBuilds();
+		List<Long> replayed = new CopyOnWriteArrayList<>();
+		CountDownLatch loading = new CountDownLatch(1);
+		CountDownLatch swap = new CountDownLatch(1);
+
+		Thread build = new Thread(() -> builds.rebuild(() -> {
+			loading.countDown();
+			await(swap);
+		}, event -> true, event -> replayed.add(event.getEntityId())));
+		build.start();
+		loading.await();
+
+		// The build swaps and finishes while the change is being applied
+		builds.apply(updated(TrackedTable.STUDENTS, 7), event -> {
+			swap.countDown();
+			join(build);
+		});
+
+		assertEquals(List.of(7L), replayed);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void join(Thread thread) {
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
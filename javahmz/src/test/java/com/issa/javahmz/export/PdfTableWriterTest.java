@@ -0,0 +1,113 @@
+package com.issa.javahmz.export;
+
+import org.apache.fontbox.ttf.CmapLookup;
+import org.apache.fontbox.ttf.TTFParser;
+import org.apache.fontbox.ttf.TrueTypeFont;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.RandomAccessReadBuffer;
+import org.apache.pdfbox.cos.COSName;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDResources;
+import org.apache.pdfbox.pdmodel.font.PDFont;
+import org.apache.pdfbox.pdmodel.font.PDType0Font;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.apache.pdfbox.text.TextPosition;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PdfTableWriterTest {
+
+	private static final List<TableWriter.Column> COLUMNS = List.of(
+			new TableWriter.Column("Student ID", 10), new TableWriter.Column("Name", 30), new TableWriter.Column("Notes", 20));
+
+	@Test
+	void printsTextOutsideLatin1() throws IOException {
+		byte[] pdf = write("Class list – Ustadh ‘Ali’", List.of(
+				List.of("S-001", "Zoë O’Brien", "€5 paid"),
+				List.of("S-002", "محمد علي", "(لا)"),
+				// Windows-1252 bytes read as Latin-1: U+0092 is a right single quote, U+0080 the euro sign
+				List.of("S-003", "O\u0092Neil", "\u00805 paid")));
+
+		try (PDDocument document = Loader.loadPDF(pdf)) {
+			GlyphCollector glyphs = new GlyphCollector();
+			String text = Normalizer.normalize(glyphs.getText(document), Normalizer.Form.NFKC);
+
+			// Arabic is drawn with joined forms: initial meem and the lam-alef ligature
+			try (TrueTypeFont dejaVu = new TTFParser().parse(new RandomAccessReadBuffer(
+					PdfTableWriterTest.class.getResourceAsStream("/fonts/DejaVuSans.ttf")))) {
+				CmapLookup unicode = dejaVu.getUnicodeCmapLookup();
+				assertTrue(glyphs.codes.contains(unicode.getGlyphId(0xFEE3)), "initial meem");
+				assertTrue(glyphs.codes.contains(unicode.getGlyphId(0xFEFB)), "lam-alef");
+			}
+
+			assertTrue(text.contains("Class list – Ustadh ‘Ali’"), text);
+			assertTrue(text.contains("Zoë O’Brien"), text);
+			assertTrue(text.contains("€5 paid"), text);
+			assertTrue(text.contains("O’Neil"), text);
+			assertTrue(text.contains("محمد"), text);
+			assertTrue(text.contains("علي"), text);
+			assertTrue(text.contains("لا"), text);
+			assertFalse(text.contains("?"), text);
+
+			PDResources resources = document.getPage(0).getResources();
+			for (COSName name : resources.getFontNames()) {
+				PDFont font = resources.getFont(name);
+				assertInstanceOf(PDType0Font.class, font);
+				assertTrue(font.isEmbedded(), name.getName());
+			}
+		}
+	}
+
+	@Test
+	void writesEveryRowAcrossPagesAndCutsLongCells() throws IOException {
+		List<List<String>> rows = new ArrayList<>();
+		for (int i = 1; i <= 120; i++) {
+			rows.add(List.of(String.format("S-%03d", i), "Student " + i, "x".repeat(i == 1 ? 200 : 1)));
+		}
+		byte[] pdf = write("Long class", rows);
+
+		try (PDDocument document = Loader.loadPDF(pdf)) {
+			assertTrue(document.getNumberOfPages() > 1);
+			String text = new PDFTextStripper().getText(document);
+			assertTrue(text.contains("S-001") && text.contains("S-120"), text);
+			assertTrue(text.contains("x..."), text);
+			assertTrue(text.contains("120 students"), text);
+			assertTrue(text.contains("Long class (continued)"), text);
+		}
+	}
+
+	// Glyph IDs drawn on the pages (Identity-H: the character code is the glyph ID)
+	private static final class GlyphCollector extends PDFTextStripper {
+		final Set<Integer> codes = new HashSet<>();
+
+		@Override
+		protected void processTextPosition(TextPosition text) {
+			for (int code : text.getCharacterCodes()) {
+				codes.add(code);
+			}
+			super.processTextPosition(text);
+		}
+	}
+
+	private static byte[] write(String title, List<List<String>> rows) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TableWriter writer = ExportFormat.PDF.open(out);
+		writer.start(title, COLUMNS);
+		for (List<String> row : rows) {
+			writer.row(row);
+		}
+		writer.finish(rows.size() + " students");
+		return out.toByteArray();
+	}
+}
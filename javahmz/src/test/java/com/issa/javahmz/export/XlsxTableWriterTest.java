@@ -0,0 +1,91 @@
+package com.issa.javahmz.export;
+
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class XlsxTableWriterTest {
+
+	@Test
+	void writesAWorkbookWithEscapedUnicodeCells() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TableWriter writer = ExportFormat.XLSX.open(out);
+		writer.start("Class list", List.of(new TableWriter.Column("Student ID", 10), new TableWriter.Column("Name", 30)));
+		writer.row(List.of("S-001", "محمد علي"));
+		writer.row(List.of("S-002", "O’Brien & <Sons> \"Ltd\"\u0007"));
+		writer.row(Arrays.asList("S-003", null));
+		writer.finish(null);
+
+		Map<String, byte[]> entries = unzip(out.toByteArray());
+		assertTrue(entries.keySet().containsAll(List.of("[Content_Types].xml", "_rels/.rels", "xl/workbook.xml",
+				"xl/_rels/workbook.xml.rels", "xl/styles.xml", "xl/worksheets/sheet1.xml")), entries.keySet().toString());
+
+		Document sheet = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(entries.get("xl/worksheets/sheet1.xml")));
+		NodeList rows = sheet.getElementsByTagName("row");
+		assertEquals(4, rows.getLength());
+		assertEquals(List.of("Student ID", "Name"), cells((Element) rows.item(0)));
+		assertEquals("1", ((Element) ((Element) rows.item(0)).getElementsByTagName("c").item(0)).getAttribute("s"));
+		assertEquals(List.of("S-001", "محمد علي"), cells((Element) rows.item(1)));
+		// The control character is dropped, markup characters survive escaping
+		assertEquals(List.of("S-002", "O’Brien & <Sons> \"Ltd\""), cells((Element) rows.item(2)));
+		assertEquals(List.of("S-003"), cells((Element) rows.item(3)));
+		assertEquals("B3", ((Element) ((Element) rows.item(2)).getElementsByTagName("c").item(1)).getAttribute("r"));
+	}
+
+	@Test
+	void namesColumnsBeyondZ() throws Exception {
+		List<TableWriter.Column> columns = new ArrayList<>();
+		List<String> row = new ArrayList<>();
+		for (int i = 0; i < 28; i++) {
+			columns.add(new TableWriter.Column("C" + i, 1));
+			row.add("v" + i);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		TableWriter writer = ExportFormat.XLSX.open(out);
+		writer.start("Wide", columns);
+		writer.row(row);
+		writer.finish(null);
+
+		Document sheet = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+				.parse(new ByteArrayInputStream(unzip(out.toByteArray()).get("xl/worksheets/sheet1.xml")));
+		NodeList cells = ((Element) sheet.getElementsByTagName("row").item(1)).getElementsByTagName("c");
+		assertEquals("Z2", ((Element) cells.item(25)).getAttribute("r"));
+		assertEquals("AA2", ((Element) cells.item(26)).getAttribute("r"));
+		assertEquals("AB2", ((Element) cells.item(27)).getAttribute("r"));
+	}
+
+	private static List<String> cells(Element row) {
+		List<String> values = new ArrayList<>();
+		NodeList texts = row.getElementsByTagName("t");
+		for (int i = 0; i < texts.getLength(); i++) {
+			values.add(texts.item(i).getTextContent());
+		}
+		return values;
+	}
+
+	private static Map<String, byte[]> unzip(byte[] xlsx) throws Exception {
+		Map<String, byte[]> entries = new HashMap<>();
+		try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(xlsx))) {
+			for (ZipEntry entry = zip.getNextEntry(); entry != null; entry = zip.getNextEntry()) {
+				entries.put(entry.getName(), zip.readAllBytes());
+			}
+		}
+		return entries;
+	}
+}
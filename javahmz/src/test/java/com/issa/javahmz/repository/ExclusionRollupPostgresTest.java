@@ -0,0 +1,86 @@
+package com.issa.javahmz.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The INSERT ... ON CONFLICT path of the rollup, on a real PostgreSQL (skipped without Docker).
+// The rollup table comes from its migration script; students only has the columns the rollup reads.
+@Testcontainers(disabledWithoutDocker = true)
+class ExclusionRollupPostgresTest {
+
+	@Container
+	static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	private JdbcTemplate jdbcTemplate;
+
+	private ExclusionRollupRepositoryCustomImpl rollup;
+
+	@BeforeEach
+	void createTables() {
+		DataSource dataSource = new DriverManagerDataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("DROP TABLE IF EXISTS exclusion_monthly_rollup, students");
+		jdbcTemplate.execute("CREATE TABLE students (id BIGSERIAL PRIMARY KEY, student_id VARCHAR(255) NOT NULL UNIQUE, " +
+				"ustadh_key VARCHAR(255), status VARCHAR(16) NOT NULL DEFAULT 'ACTIVE', excluded_date DATE, exclusion_type VARCHAR(255))");
+		new ResourceDatabasePopulator(new ClassPathResource("db/006-exclusion-monthly-rollup.sql")).execute(dataSource);
+
+		rollup = new ExclusionRollupRepositoryCustomImpl();
+		ReflectionTestUtils.setField(rollup, "jdbcTemplate", new NamedParameterJdbcTemplate(jdbcTemplate));
+	}
+
+	@Test
+	void upsertInsertsNewRowsAndAdjustsExistingOnes() {
+		long first = excluded("S1", "2024-03-04", "behaviour", "ALI");
+		long second = excluded("S2", "2024-03-20", "behaviour", "ALI");
+		long third = excluded("S3", "2024-04-02", null, "ALI");
+
+		rollup.adjustForIds(List.of(first), 1);
+		// One group already has a row, the other is new
+		rollup.adjustForIds(List.of(second, third), 1);
+		assertEquals(Map.of("2024-03-01 behaviour ALI", 2L, "2024-04-01 unspecified ALI", 1L), counts());
+
+		rollup.adjustForStudentId("S1", -1);
+		rollup.adjustForIds(List.of(third), -1);
+		assertEquals(Map.of("2024-03-01 behaviour ALI", 1L, "2024-04-01 unspecified ALI", 0L), counts());
+	}
+
+	@Test
+	void ignoresRowsThatAreNotExcluded() {
+		long active = jdbcTemplate.queryForObject(
+				"INSERT INTO students (student_id, ustadh_key) VALUES ('S4', 'ALI') RETURNING id", Long.class);
+
+		assertEquals(0, rollup.adjustForIds(List.of(active), 1));
+		assertEquals(Map.of(), counts());
+	}
+
+	private long excluded(String studentId, String date, String type, String ustadhKey) {
+		return jdbcTemplate.queryForObject("INSERT INTO students (student_id, ustadh_key, status, excluded_date, exclusion_type) " +
+				"VALUES (?, ?, 'EXCLUDED', ?, ?) RETURNING id", Long.class, studentId, ustadhKey, LocalDate.parse(date), type);
+	}
+
+	private Map<String, Long> counts() {
+		Map<String, Long> counts = new TreeMap<>();
+		jdbcTemplate.query("SELECT month_start, exclusion_type, ustadh_key, excluded_count FROM exclusion_monthly_rollup", row -> {
+			counts.put(row.getDate("month_start").toLocalDate() + " " + row.getString("exclusion_type") + " " + row.getString("ustadh_key"),
+					row.getLong("excluded_count"));
+		});
+		return counts;
+	}
+}
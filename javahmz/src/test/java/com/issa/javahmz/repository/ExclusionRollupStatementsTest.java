@@ -0,0 +1,47 @@
+package com.issa.javahmz.repository;
+
+import com.issa.javahmz.entity.ExclusionMonthlyRollup;
+import jakarta.persistence.Table;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// The tests run on H2, which always takes the MERGE branch. Without a PostgreSQL this checks what
+// the upsert relies on; ExclusionRollupPostgresTest runs it for real when Docker is available.
+class ExclusionRollupStatementsTest {
+
+	private static final Pattern UPSERT = Pattern.compile(
+			"INSERT INTO exclusion_monthly_rollup \\(([^)]*)\\) (SELECT .*) ON CONFLICT \\(([^)]*)\\) DO UPDATE SET (.*)");
+
+	@ParameterizedTest
+	@ValueSource(strings = {"s.id IN (:ids)", "s.student_id = :studentId"})
+	void upsertTargetsTheRollupUniqueKey(String where) {
+		String sql = ExclusionRollupRepositoryCustomImpl.upsert(where);
+		Matcher upsert = UPSERT.matcher(sql);
+		assertTrue(upsert.matches(), sql);
+
+		// PostgreSQL rejects ON CONFLICT unless the target columns are exactly a unique constraint
+		String uniqueKey = String.join(", ",
+				ExclusionMonthlyRollup.class.getAnnotation(Table.class).uniqueConstraints()[0].columnNames());
+		assertEquals(uniqueKey, upsert.group(3));
+		assertEquals("month_start, exclusion_type, ustadh_key, excluded_count", upsert.group(1));
+		assertTrue(upsert.group(2).contains("FROM students s WHERE " + where + " AND "), upsert.group(2));
+		// The conflicting row's new value is read from EXCLUDED and added to the stored count
+		assertEquals("excluded_count = exclusion_monthly_rollup.excluded_count + EXCLUDED.excluded_count", upsert.group(4));
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"s.id IN (:ids)", "s.student_id = :studentId"})
+	void mergeSelectsTheSameDeltas(String where) {
+		String upsert = ExclusionRollupRepositoryCustomImpl.upsert(where);
+		String merge = ExclusionRollupRepositoryCustomImpl.merge(where);
+		String deltas = upsert.substring(upsert.indexOf("SELECT "), upsert.indexOf(" ON CONFLICT"));
+
+		assertTrue(merge.contains("USING (" + deltas + ") d "), merge);
+	}
+}
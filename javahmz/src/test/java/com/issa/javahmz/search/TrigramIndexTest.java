@@ -0,0 +1,123 @@
+package com.issa.javahmz.search;
+
+import com.issa.javahmz.entity.Student;
+import com.issa.javahmz.event.EntityChangeEvent;
+import com.issa.javahmz.event.TrackedTable;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TrigramIndexTest {
+
+	private final TrigramIndex index = new TrigramIndex();
+
+	// The entity stored for each row is its name, so results read as names
+	private void put(long id, String name, String studentId) {
+		index.put(TrackedTable.STUDENTS, id, name, studentId, name);
+	}
+
+	@Test
+	void ranksIdMatchesThenNameMatchesFromExactToSubstring() {
+		put(1, "Khalid Omar", "S1");       // name contains the term inside a word
+		put(2, "Bilal Noor", "XAli9");      // student ID contains the term
+		put(3, "Zaid Ali", "S3");           // a later word of the name starts with the term
+		put(4, "Alina Moosa", "S4");        // name starts with the term
+		put(5, "Alim Patel", "S5");         // same rank as Alina, sorted by name
+		put(6, "ali", "S6");                // whole name
+		put(7, "Ebrahim Dawood", "Ali7");   // student ID starts with the term
+		put(8, "Yusuf Essop", "Ali");       // student ID equals the term
+		put(9, "Musa Khan", "ali9");        // student IDs compare case-sensitively, as in the LIKE query
+		index.put(TrackedTable.MEN_STUDENTS, 10L, "Ali Men", "M1", "Ali Men");
+
+		List<String> results = index.search(TrackedTable.STUDENTS, "Ali");
+
+		assertEquals(List.of("Yusuf Essop", "Ebrahim Dawood", "ali", "Alim Patel", "Alina Moosa",
+				"Zaid Ali", "Bilal Noor", "Khalid Omar"), results);
+	}
+
+	@Test
+	void matchesEveryTrigramOfTheTerm() {
+		put(1, "Fatima Ismail", "S1");
+		put(2, "Ismat Fahim", "S2");
+
+		assertEquals(List.of("Fatima Ismail"), index.search(TrackedTable.STUDENTS, "ismail"));
+		assertEquals(List.of(), index.search(TrackedTable.STUDENTS, "ismaeel"));
+	}
+
+	@Test
+	void renamingARowReplacesItsTrigrams() {
+		put(1, "Ahmed Cassim", "S1");
+		put(1, "Yusuf Cassim", "S1");
+
+		assertEquals(List.of(), index.search(TrackedTable.STUDENTS, "ahmed"));
+		assertEquals(List.of("Yusuf Cassim"), index.search(TrackedTable.STUDENTS, "yus"));
+		assertEquals(1, index.size());
+	}
+
+	@Test
+	void removingARowDropsItFromEveryPostingList() {
+		put(1, "Ahmed Cassim", "S1");
+		put(2, "Ahmed Patel", "S2");
+
+		index.remove(TrackedTable.STUDENTS, 1L);
+		index.remove(TrackedTable.STUDENTS, 99L);
+
+		assertEquals(List.of("Ahmed Patel"), index.search(TrackedTable.STUDENTS, "ahmed"));
+		assertEquals(List.of(), index.search(TrackedTable.STUDENTS, "cassim"));
+
+		index.removeTable(TrackedTable.STUDENTS);
+		assertEquals(0, index.size());
+		assertEquals(0, ((Map<?, ?>) ReflectionTestUtils.getField(index, "postings")).size());
+	}
+
+	@Test
+	void rosterSearchLeavesShortTermsToTheDatabase() {
+		RosterSearchIndex search = readyIndex();
+		search.onEntityChange(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.CREATED, 1L, student(1L, "Al Noor", "S1")));
+
+		assertEquals(Optional.empty(), search.search(TrackedTable.STUDENTS, "Al"));
+		assertEquals(Optional.empty(), search.search(TrackedTable.STUDENTS, ""));
+		assertEquals(Optional.empty(), search.search(TrackedTable.STUDENTS, null));
+		assertTrue(search.search(TrackedTable.STUDENTS, "Al N").isPresent());
+	}
+
+	@Test
+	void rosterSearchFollowsRenamesAndDeletes() {
+		RosterSearchIndex search = readyIndex();
+		search.onEntityChange(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.CREATED, 1L, student(1L, "Ahmed Cassim", "S1")));
+		search.onEntityChange(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.UPDATED, 1L, student(1L, "Yusuf Cassim", "S1")));
+
+		assertEquals(Optional.of(List.of()), search.search(TrackedTable.STUDENTS, "ahmed"));
+		assertEquals(List.of("Yusuf Cassim"), names(search.search(TrackedTable.STUDENTS, "yusuf")));
+
+		search.onEntityChange(new EntityChangeEvent(TrackedTable.STUDENTS, EntityChangeEvent.ChangeType.DELETED, 1L, null));
+		assertEquals(Optional.of(List.of()), search.search(TrackedTable.STUDENTS, "yusuf"));
+		assertEquals(0, search.size());
+	}
+
+	// Built and enabled, without loading anything from the database
+	private static RosterSearchIndex readyIndex() {
+		RosterSearchIndex search = new RosterSearchIndex();
+		ReflectionTestUtils.setField(search, "enabled", true);
+		ReflectionTestUtils.setField(search, "ready", true);
+		return search;
+	}
+
+	private static Student student(Long id, String name, String studentId) {
+		Student student = new Student();
+		student.setId(id);
+		student.setName(name);
+		student.setStudentId(studentId);
+		return student;
+	}
+
+	private static List<String> names(Optional<List<Student>> students) {
+		return students.orElseThrow().stream().map(Student::getName).toList();
+	}
+}
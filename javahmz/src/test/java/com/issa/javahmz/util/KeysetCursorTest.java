@@ -0,0 +1,98 @@
+package com.issa.javahmz.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class KeysetCursorTest {
+
+	private record Row(Long id, String name) {
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"Ahmed Cassim", "Bibi: Fatima", "::", "a:b:c", "عبد الله", ""})
+	void roundTripsAnyName(String name) {
+		KeysetCursor decoded = KeysetCursor.decode(new KeysetCursor(name, 42L).encode());
+
+		assertEquals(name, decoded.getName());
+		assertEquals(42L, decoded.getId());
+	}
+
+	@Test
+	void encodesAsUrlSafeBase64WithoutPadding() {
+		String token = new KeysetCursor("??>>", 1L).encode();
+
+		assertTrue(token.matches("[A-Za-z0-9_-]+"), token);
+	}
+
+	@ParameterizedTest
+	@ValueSource(strings = {"not a cursor!", "a+b/c", "%%%", "QUJD", "OkFobWVk", "eHg6QWhtZWQ"})
+	void rejectsTamperedTokens(String token) {
+		// Invalid Base64, no separator ("ABC"), no id (":Ahmed"), id not a number ("xx:Ahmed")
+		IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(token));
+		assertEquals("Invalid cursor: " + token, e.getMessage());
+	}
+
+	@Test
+	void rejectsATokenWhoseIdWasEdited() {
+		String tampered = Base64.getUrlEncoder().withoutPadding()
+				.encodeToString("12x:Ahmed".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode(tampered));
+	}
+
+	@Test
+	void pageWithTheExtraRowHasMoreAndContinuesAfterTheLastRowShown() {
+		List<Row> rows = List.of(new Row(1L, "Ahmed"), new Row(2L, "Bilal"), new Row(3L, "Cassim"));
+
+		Map<String, Object> page = KeysetCursor.page(rows, 2, Row::name, Row::id);
+
+		assertEquals(List.of(rows.get(0), rows.get(1)), page.get("content"));
+		assertEquals(2, page.get("size"));
+		assertTrue((Boolean) page.get("hasMore"));
+		KeysetCursor next = KeysetCursor.decode((String) page.get("nextCursor"));
+		assertEquals("Bilal", next.getName());
+		assertEquals(2L, next.getId());
+	}
+
+	@Test
+	void pageOfExactlySizeRowsIsTheLast() {
+		List<Row> rows = List.of(new Row(1L, "Ahmed"), new Row(2L, "Bilal"));
+
+		Map<String, Object> page = KeysetCursor.page(rows, 2, Row::name, Row::id);
+
+		assertEquals(rows, page.get("content"));
+		assertFalse((Boolean) page.get("hasMore"));
+		assertNull(page.get("nextCursor"));
+	}
+
+	@Test
+	void emptyPage() {
+		Map<String, Object> page = KeysetCursor.page(List.<Row>of(), 50, Row::name, Row::id);
+
+		assertEquals(List.of(), page.get("content"));
+		assertEquals(0, page.get("size"));
+		assertFalse((Boolean) page.get("hasMore"));
+		assertNull(page.get("nextCursor"));
+	}
+
+	@Test
+	void clampsThePageSize() {
+		assertEquals(50, KeysetCursor.clampSize(null, 50, 200));
+		assertEquals(50, KeysetCursor.clampSize(0, 50, 200));
+		assertEquals(50, KeysetCursor.clampSize(-5, 50, 200));
+		assertEquals(10, KeysetCursor.clampSize(10, 50, 200));
+		assertEquals(200, KeysetCursor.clampSize(1000, 50, 200));
+	}
+}